@@ -0,0 +1,209 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.chords;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+
+/**
+ * This class represents a chord: a root note, a quality and an optional bass note (slash chord).
+ * <br>
+ * The chord tones are spelled upwards from the root note by the letters of their degrees, e.g.
+ * Eb7 is Eb G Bb Db.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class Chord {
+
+	/**
+	 * The marker of a chord without bass note.
+	 */
+	static final int NO_BASS = -1;
+
+	/**
+	 * The number of notes per octave.
+	 */
+	private static final int NUMBER_OF_NOTES_PER_OCTAVE = 12;
+
+	/**
+	 * The packed root note (see {@link NoteSequence}).
+	 */
+	private final int packedRoot;
+
+	/**
+	 * The quality.
+	 */
+	private final ChordQuality quality;
+
+	/**
+	 * The packed bass note or <code>NO_BASS</code>.
+	 */
+	private final int packedBass;
+
+	/**
+	 * Creates a new Chord.
+	 * 
+	 * @param root
+	 *            The root note.
+	 * @param quality
+	 *            The quality.
+	 */
+	public Chord(final Note root, final ChordQuality quality) {
+		this(NoteSequence.pack(root), quality, NO_BASS);
+	}
+
+	/**
+	 * Creates a new slash chord.
+	 * 
+	 * @param root
+	 *            The root note.
+	 * @param quality
+	 *            The quality.
+	 * @param bass
+	 *            The bass note (played below the root note).
+	 */
+	public Chord(final Note root, final ChordQuality quality, final Note bass) {
+		this(NoteSequence.pack(root), quality, NoteSequence.pack(bass));
+	}
+
+	/**
+	 * Creates a new Chord.
+	 * 
+	 * @param packedRoot
+	 *            The packed root note.
+	 * @param quality
+	 *            The quality.
+	 * @param packedBass
+	 *            The packed bass note or <code>NO_BASS</code>.
+	 */
+	Chord(final int packedRoot, final ChordQuality quality, final int packedBass) {
+		// natural notes are never flagged flat, so equal chords have equal packed notes
+		this.packedRoot = NoteSequence.pack(NoteSequence.unpack(packedRoot));
+		this.quality = quality;
+		this.packedBass = packedBass == NO_BASS ? NO_BASS : NoteSequence.pack(NoteSequence.unpack(packedBass));
+	}
+
+	/**
+	 * @return Returns the root note.
+	 */
+	public Note getRoot() {
+		return NoteSequence.unpack(packedRoot);
+	}
+
+	/**
+	 * @return Returns the quality.
+	 */
+	public ChordQuality getQuality() {
+		return quality;
+	}
+
+	/**
+	 * @return Returns the bass note or <code>null</code> if this is no slash chord.
+	 */
+	public Note getBass() {
+		return packedBass == NO_BASS ? null : NoteSequence.unpack(packedBass);
+	}
+
+	/**
+	 * @return Returns the packed root note.
+	 */
+	int getPackedRoot() {
+		return packedRoot;
+	}
+
+	/**
+	 * @return Returns the packed bass note or <code>NO_BASS</code>.
+	 */
+	int getPackedBass() {
+		return packedBass;
+	}
+
+	/**
+	 * @return Returns the chord tones from the root note upwards, preceded by the bass note of a
+	 *         slash chord.
+	 */
+	public List<Note> getNotes() {
+		final List<Note> result = new ArrayList<Note>(quality.size() + 1);
+		if (packedBass != NO_BASS) {
+			result.add(NoteSequence.unpack(packedBass));
+		}
+		result.addAll(quality.getPattern().spell(getRoot()));
+		return result;
+	}
+
+	/**
+	 * Transposes this chord. The root note and the bass note keep their octave.
+	 * 
+	 * @param distance
+	 *            The distance in half tones.
+	 * @param flat
+	 *            Whether black keys are spelled flat.
+	 * @return Returns the transposed chord.
+	 */
+	public Chord transpose(final int distance, final boolean flat) {
+		return new Chord(transpose(packedRoot, distance, flat), quality, packedBass == NO_BASS ? NO_BASS : transpose(
+				packedBass, distance, flat));
+	}
+
+	/*
+	 * Moves the pitch class of the packed note within its octave.
+	 */
+	private static int transpose(final int packedNote, final int distance, final boolean flat) {
+		final int index = NoteSequence.indexOf(packedNote);
+		final int pitchClass = index % NUMBER_OF_NOTES_PER_OCTAVE;
+		final int shift = ((pitchClass + distance) % NUMBER_OF_NOTES_PER_OCTAVE + NUMBER_OF_NOTES_PER_OCTAVE)
+				% NUMBER_OF_NOTES_PER_OCTAVE - pitchClass;
+		return NoteSequence.pack(index + shift, flat, NoteSequence.durationIndexOf(packedNote));
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (!(obj instanceof Chord)) {
+			return false;
+		}
+		final Chord other = (Chord) obj;
+		return other.packedRoot == packedRoot && other.quality == quality && other.packedBass == packedBass;
+	}
+
+	@Override
+	public int hashCode() {
+		return (packedRoot * 31 + quality.ordinal()) * 31 + packedBass;
+	}
+
+	@Override
+	public String toString() {
+		final String symbol = getRoot().getFullName() + quality.getSymbol();
+		return packedBass == NO_BASS ? symbol : symbol + "/" + getBass().getFullName();
+	}
+
+}
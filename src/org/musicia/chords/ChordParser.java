@@ -0,0 +1,183 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.chords;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.util.InvalidToken;
+import org.musicia.notes.util.NoteLexer;
+
+/**
+ * This class provides methods to parse chord symbols from a string. <br>
+ * A chord symbol is a root note, a quality and an optional bass note, e.g. "C", "F#m7", "Bbmaj7"
+ * or "Am/G". Symbols are separated by whitespace; tokens which are no valid chord symbols (e.g.
+ * bar lines) are skipped and can be inspected by <code>getInvalidTokens()</code>. <br>
+ * Root notes are of the 5th octave, bass notes of the 4th octave.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class ChordParser {
+
+	/**
+	 * The octave of the root notes.
+	 */
+	private static final int ROOT_OCTAVE = 5;
+
+	/**
+	 * The octave of the bass notes.
+	 */
+	private static final int BASS_OCTAVE = 4;
+
+	/**
+	 * The parsed chords.
+	 */
+	private final List<Chord> parsedChords = new ArrayList<Chord>();
+
+	/**
+	 * The tokens which are no valid chord symbols.
+	 */
+	private final List<InvalidToken> invalidTokens = new ArrayList<InvalidToken>();
+
+	/**
+	 * Creates a new chord parser.
+	 * 
+	 * @param chords
+	 *            The chord symbols to parse.
+	 */
+	public ChordParser(final String chords) {
+		parseChords(chords);
+	}
+
+	private void parseChords(final String chords) {
+		int line = 1;
+		int column = 1;
+		int start = -1;
+		int startColumn = 0;
+		for (int i = 0; i <= chords.length(); i++) {
+			final char c = i < chords.length() ? chords.charAt(i) : '\n';
+			if (NoteLexer.isWhitespace(c)) {
+				if (start >= 0) {
+					final String token = chords.substring(start, i);
+					final Chord chord = parseOrNull(token);
+					if (chord == null) {
+						invalidTokens.add(new InvalidToken(token, line, startColumn));
+					} else {
+						parsedChords.add(chord);
+					}
+					start = -1;
+				}
+				if (c == '\n') {
+					line++;
+					column = 1;
+					continue;
+				}
+			} else if (start < 0) {
+				start = i;
+				startColumn = column;
+			}
+			column++;
+		}
+	}
+
+	/**
+	 * Parses a single chord symbol.
+	 * 
+	 * @param symbol
+	 *            The chord symbol (e.g. "Ebm7/Db").
+	 * @return Returns the chord.
+	 */
+	public static Chord parse(final String symbol) {
+		final Chord chord = parseOrNull(symbol.trim());
+		if (chord == null) {
+			throw new IllegalArgumentException(String.format("The chord symbol [%s] is invalid.", symbol));
+		}
+		return chord;
+	}
+
+	private static Chord parseOrNull(final String symbol) {
+		final int slash = symbol.indexOf('/');
+		final String head = slash < 0 ? symbol : symbol.substring(0, slash);
+		final int rootLength = noteLength(head);
+		if (rootLength == 0) {
+			return null;
+		}
+		final ChordQuality quality = ChordQuality.lookup(head.substring(rootLength));
+		if (quality == null) {
+			return null;
+		}
+		final Note root = noteOf(head, ROOT_OCTAVE);
+		if (slash < 0) {
+			return root == null ? null : new Chord(root, quality);
+		}
+		final String tail = symbol.substring(slash + 1);
+		if (noteLength(tail) != tail.length()) {
+			return null;
+		}
+		final Note bass = noteOf(tail, BASS_OCTAVE);
+		return root == null || bass == null ? null : new Chord(root, quality, bass);
+	}
+
+	/*
+	 * The length of the note name at the start of the text: a letter and an optional accidental.
+	 */
+	private static int noteLength(final String text) {
+		if (text.isEmpty() || text.charAt(0) < 'A' || text.charAt(0) > 'G') {
+			return 0;
+		}
+		return text.length() > 1 && (text.charAt(1) == '#' || text.charAt(1) == 'b') ? 2 : 1;
+	}
+
+	private static Note noteOf(final String text, final int octave) {
+		final int length = noteLength(text);
+		try {
+			return Note.of(text.substring(0, 1), text.substring(1, length), octave);
+		} catch (final IllegalArgumentException e) {
+			// e.g. Cb or E#
+			return null;
+		}
+	}
+
+	/**
+	 * @return Returns the parsed chords.
+	 */
+	public List<Chord> getParsedChords() {
+		return new ArrayList<Chord>(parsedChords);
+	}
+
+	/**
+	 * @return Returns the tokens which are no valid chord symbols.
+	 */
+	public List<InvalidToken> getInvalidTokens() {
+		return new ArrayList<InvalidToken>(invalidTokens);
+	}
+
+}
@@ -0,0 +1,148 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.chords;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.musicia.scales.ScalePattern;
+
+/**
+ * Contains all supported chord qualities with their symbols and intervals.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public enum ChordQuality {
+
+	MAJOR("", new int[] { 0, 4, 7 }, new int[] { 1, 3, 5 }, "maj", "M"),
+	MINOR("m", new int[] { 0, 3, 7 }, new int[] { 1, 3, 5 }, "min", "-"),
+	DIMINISHED("dim", new int[] { 0, 3, 6 }, new int[] { 1, 3, 5 }, "o"),
+	AUGMENTED("aug", new int[] { 0, 4, 8 }, new int[] { 1, 3, 5 }, "+"),
+	SUSPENDED_2("sus2", new int[] { 0, 2, 7 }, new int[] { 1, 2, 5 }),
+	SUSPENDED_4("sus4", new int[] { 0, 5, 7 }, new int[] { 1, 4, 5 }, "sus"),
+	SIXTH("6", new int[] { 0, 4, 7, 9 }, new int[] { 1, 3, 5, 6 }),
+	MINOR_SIXTH("m6", new int[] { 0, 3, 7, 9 }, new int[] { 1, 3, 5, 6 }, "min6"),
+	DOMINANT_SEVENTH("7", new int[] { 0, 4, 7, 10 }, new int[] { 1, 3, 5, 7 }),
+	MAJOR_SEVENTH("maj7", new int[] { 0, 4, 7, 11 }, new int[] { 1, 3, 5, 7 }, "M7"),
+	MINOR_SEVENTH("m7", new int[] { 0, 3, 7, 10 }, new int[] { 1, 3, 5, 7 }, "min7", "-7"),
+	MINOR_MAJOR_SEVENTH("mMaj7", new int[] { 0, 3, 7, 11 }, new int[] { 1, 3, 5, 7 }, "mM7"),
+	HALF_DIMINISHED("m7b5", new int[] { 0, 3, 6, 10 }, new int[] { 1, 3, 5, 7 }, "m7-5"),
+	DIMINISHED_SEVENTH("dim7", new int[] { 0, 3, 6, 9 }, new int[] { 1, 3, 5, 7 }, "o7"),
+	AUGMENTED_SEVENTH("aug7", new int[] { 0, 4, 8, 10 }, new int[] { 1, 3, 5, 7 }, "7#5", "+7"),
+	SEVENTH_SUSPENDED_4("7sus4", new int[] { 0, 5, 7, 10 }, new int[] { 1, 4, 5, 7 }),
+	ADDED_NINTH("add9", new int[] { 0, 4, 7, 14 }, new int[] { 1, 3, 5, 9 }),
+	NINTH("9", new int[] { 0, 4, 7, 10, 14 }, new int[] { 1, 3, 5, 7, 9 }),
+	MAJOR_NINTH("maj9", new int[] { 0, 4, 7, 11, 14 }, new int[] { 1, 3, 5, 7, 9 }, "M9"),
+	MINOR_NINTH("m9", new int[] { 0, 3, 7, 10, 14 }, new int[] { 1, 3, 5, 7, 9 }, "min9");
+
+	/**
+	 * The qualities by their symbols and aliases.
+	 */
+	private static final Map<String, ChordQuality> SYMBOLS = new HashMap<String, ChordQuality>();
+
+	static {
+		for (final ChordQuality quality : values()) {
+			SYMBOLS.put(quality.symbol, quality);
+			for (final String alias : quality.aliases) {
+				SYMBOLS.put(alias, quality);
+			}
+		}
+	}
+
+	/**
+	 * The symbol following the root note (e.g. "m7").
+	 */
+	private final String symbol;
+
+	/**
+	 * Further accepted symbols.
+	 */
+	private final String[] aliases;
+
+	/**
+	 * The chord tones as pattern over the root note.
+	 */
+	private final ScalePattern pattern;
+
+	/**
+	 * Creates a new chord quality.
+	 * 
+	 * @param symbol
+	 *            The symbol following the root note.
+	 * @param semitones
+	 *            The distances of the chord tones to the root note, starting with 0.
+	 * @param degrees
+	 *            The degrees of the chord tones (1 is the root note, 3 the third, ...).
+	 * @param aliases
+	 *            Further accepted symbols.
+	 */
+	private ChordQuality(final String symbol, final int[] semitones, final int[] degrees, final String... aliases) {
+		this.symbol = symbol;
+		this.aliases = aliases;
+		final int[] intervals = new int[semitones.length - 1];
+		final int[] letterSteps = new int[degrees.length - 1];
+		for (int i = 1; i < semitones.length; i++) {
+			intervals[i - 1] = semitones[i] - semitones[i - 1];
+			letterSteps[i - 1] = degrees[i] - degrees[i - 1];
+		}
+		pattern = new ScalePattern(symbol, intervals, letterSteps);
+	}
+
+	/**
+	 * @param symbol
+	 *            The symbol following the root note (e.g. "m7"), case matters.
+	 * @return Returns the quality of the given symbol or <code>null</code> if it is unknown.
+	 */
+	public static ChordQuality lookup(final String symbol) {
+		return SYMBOLS.get(symbol);
+	}
+
+	/**
+	 * @return Returns the symbol following the root note (e.g. "m7").
+	 */
+	public String getSymbol() {
+		return symbol;
+	}
+
+	/**
+	 * @return Returns the chord tones as pattern over the root note.
+	 */
+	public ScalePattern getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * @return Returns the number of chord tones.
+	 */
+	public int size() {
+		return pattern.size();
+	}
+
+}
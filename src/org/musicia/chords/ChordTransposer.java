@@ -0,0 +1,150 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.chords;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.notes.util.BatchTransposer;
+import org.musicia.scales.ScalePattern;
+
+/**
+ * This class transposes many chords into many keys at once. <br>
+ * <br>
+ * The quality of each chord is preserved, only its root note and bass note move. A root note keeps
+ * its degree relative to the tonic, so Bb in C major becomes C in D major and Cb (spelled B) in Db
+ * major. A bass note keeps its interval to the root note. The tonic of the target key is spelled
+ * by its signature (see {@link BatchTransposer#spellingsForKey(int, int[])}). Every distinct chord
+ * is transposed only once per key; repeated symbols share the transposed instance.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class ChordTransposer {
+
+	/**
+	 * The number of notes per octave.
+	 */
+	private static final int NUMBER_OF_NOTES_PER_OCTAVE = 12;
+
+	private ChordTransposer() {
+	}
+
+	/**
+	 * Transposes the given chords. The root of the first chord is taken as tonic of the original
+	 * key.
+	 * 
+	 * @param chords
+	 *            The chords to transpose.
+	 * @param distances
+	 *            The transposition distances.
+	 * @return Returns one row of transposed chords per distance.
+	 */
+	public static Chord[][] transpose(final List<Chord> chords, final int[] distances) {
+		return transpose(chords, chords.isEmpty() ? Note.of("C", "") : chords.get(0).getRoot(), distances);
+	}
+
+	/**
+	 * Transposes the given chords.
+	 * 
+	 * @param chords
+	 *            The chords to transpose.
+	 * @param tonic
+	 *            The tonic of the original (major) key.
+	 * @param distances
+	 *            The transposition distances.
+	 * @return Returns one row of transposed chords per distance.
+	 */
+	public static Chord[][] transpose(final List<Chord> chords, final Note tonic, final int[] distances) {
+		// distinct chords and the position of each chord among them
+		final Map<Chord, Integer> positions = new HashMap<Chord, Integer>();
+		final Chord[] distinct = new Chord[chords.size()];
+		final int[] references = new int[chords.size()];
+		for (int i = 0; i < references.length; i++) {
+			final Chord chord = chords.get(i);
+			Integer position = positions.get(chord);
+			if (position == null) {
+				position = positions.size();
+				positions.put(chord, position);
+				distinct[position] = chord;
+			}
+			references[i] = position;
+		}
+
+		final int packedTonic = NoteSequence.pack(tonic);
+		final int tonicPitchClass = NoteSequence.indexOf(packedTonic) % NUMBER_OF_NOTES_PER_OCTAVE;
+		final boolean[] flatSpellings = BatchTransposer.spellingsForKey(tonicPitchClass, distances);
+		final Chord[][] result = new Chord[distances.length][references.length];
+		final Chord[] transposed = new Chord[positions.size()];
+		for (int d = 0; d < distances.length; d++) {
+			final int targetTonic = moveTo(packedTonic, tonicPitchClass + distances[d], flatSpellings[d]);
+			for (int p = 0; p < transposed.length; p++) {
+				final Chord chord = distinct[p];
+				final int packedRoot = transpose(packedTonic, targetTonic, chord.getPackedRoot());
+				final int packedBass = chord.getPackedBass();
+				transposed[p] = new Chord(packedRoot, chord.getQuality(), packedBass == Chord.NO_BASS ? Chord.NO_BASS
+						: transpose(chord.getPackedRoot(), packedRoot, packedBass));
+			}
+			final Chord[] row = result[d];
+			for (int i = 0; i < references.length; i++) {
+				row[i] = transposed[references[i]];
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Keeps the interval (in half tones and letters) between the reference and the note, so a root
+	 * keeps its degree in the target key and a bass keeps its interval to the root. The note keeps
+	 * its octave.
+	 */
+	private static int transpose(final int reference, final int targetReference, final int packedNote) {
+		final int semitones = NoteSequence.indexOf(packedNote) - NoteSequence.indexOf(reference);
+		final int letterSteps = ScalePattern.letterOf(packedNote) - ScalePattern.letterOf(reference);
+		final int spelled = ScalePattern.transpose(targetReference, mod(semitones), letterSteps);
+		return moveTo(packedNote, NoteSequence.indexOf(spelled), NoteSequence.isFlat(spelled));
+	}
+
+	/*
+	 * The packed note with the given pitch class in the octave and with the duration of the note.
+	 */
+	private static int moveTo(final int packedNote, final int pitchClass, final boolean flat) {
+		final int index = NoteSequence.indexOf(packedNote);
+		return NoteSequence.pack(index - index % NUMBER_OF_NOTES_PER_OCTAVE + mod(pitchClass), flat, NoteSequence
+				.durationIndexOf(packedNote));
+	}
+
+	private static int mod(final int semitones) {
+		return (semitones % NUMBER_OF_NOTES_PER_OCTAVE + NUMBER_OF_NOTES_PER_OCTAVE) % NUMBER_OF_NOTES_PER_OCTAVE;
+	}
+
+}
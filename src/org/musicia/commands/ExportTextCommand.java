@@ -28,11 +28,22 @@
  */
 package org.musicia.commands;
 
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.musicia.exceptions.MusiciaIOException;
+import org.musicia.io.ChannelTextWriter;
+import org.musicia.io.SyncPolicy;
 import org.musicia.io.TextFileWriter;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.util.NotePrinter;
 
 /**
  * 
- * This command exports a given String into a text file.
+ * This command exports a given String or notes into a text file. <br>
+ * Notes are printed as an indexed table (e.g. a transposition table) straight into the file, so
+ * the table is never built as one string.
  * 
  * @author Thomas Schulz
  * @version 1.0
@@ -40,15 +51,35 @@ import org.musicia.io.TextFileWriter;
 public class ExportTextCommand implements Command {
 
 	/**
-	 * The text to export.
+	 * The text to export or null if notes are exported.
 	 */
 	private final String text;
 
+	/**
+	 * The notes to export or null if a text is exported.
+	 */
+	private final List<Note> notes;
+
+	/**
+	 * The number of notes per line.
+	 */
+	private final int notesPerLine;
+
+	/**
+	 * The index of the first line.
+	 */
+	private final int start;
+
 	/**
 	 * The name of the file to export.
 	 */
 	private final String fileName;
 
+	/**
+	 * Whether the text is appended to an existing file.
+	 */
+	private final boolean append;
+
 	/**
 	 * 
 	 * Creates a new ExportTextCommand.
@@ -59,13 +90,69 @@ public class ExportTextCommand implements Command {
 	 *            The name of the file to export.
 	 */
 	public ExportTextCommand(final String text, final String fileName) {
+		this(text, fileName, false);
+	}
+
+	/**
+	 * 
+	 * Creates a new ExportTextCommand.
+	 * 
+	 * @param text
+	 *            The text to export.
+	 * @param fileName
+	 *            The name of the file to export.
+	 * @param append
+	 *            Whether the text is appended to an existing file.
+	 */
+	public ExportTextCommand(final String text, final String fileName, final boolean append) {
 		this.text = text;
+		this.notes = null;
+		this.notesPerLine = 0;
+		this.start = 0;
+		this.fileName = fileName;
+		this.append = append;
+	}
+
+	/**
+	 * 
+	 * Creates a new ExportTextCommand which exports notes as an indexed table with octave and
+	 * duration.
+	 * 
+	 * @param notes
+	 *            The notes to export.
+	 * @param notesPerLine
+	 *            The number of notes per line.
+	 * @param start
+	 *            The index of the first line.
+	 * @param fileName
+	 *            The name of the file to export.
+	 */
+	public ExportTextCommand(final List<Note> notes, final int notesPerLine, final int start, final String fileName) {
+		this.text = null;
+		this.notes = notes;
+		this.notesPerLine = notesPerLine;
+		this.start = start;
 		this.fileName = fileName;
+		this.append = false;
 	}
 
 	@Override
 	public void execute() {
-		new TextFileWriter().writeFile(text, fileName);
+		if (notes == null) {
+			new TextFileWriter().writeFile(text, fileName, append, Charset.defaultCharset(), SyncPolicy.NONE);
+			return;
+		}
+		final ChannelTextWriter writer = new TextFileWriter().openFile(fileName, append, Charset.defaultCharset(),
+				SyncPolicy.NONE);
+		try {
+			try {
+				new NotePrinter(notes).printIndexedFullyQualifiedNoteNames(writer, notesPerLine, start);
+			} finally {
+				writer.close();
+			}
+		} catch (final IOException e) {
+			throw new MusiciaIOException("IOException occured.", e);
+		}
 	}
 
 }
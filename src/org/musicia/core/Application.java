@@ -59,7 +59,6 @@ public class Application {
 		injector.getInstance(NoteDurationTable.class);
 		injector.getInstance(CircleOfFifth.class);
 		
-		// TODO Transposing chords and preserve modifications (major, minor, 7th, ...)
 		injector.getInstance(UserInterface.class);
 	}
 
@@ -67,7 +66,6 @@ public class Application {
 	 * @param args
 	 */
 	public static void main(final String[] args) {
-		// TODO Transposing chords and preserve modifications (major, minor, 7th, ...)
 		startWithGuice();
 	}
 
@@ -36,8 +36,11 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
-import java.util.ArrayList;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.AbstractList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.ButtonGroup;
 import javax.swing.ButtonModel;
@@ -46,10 +49,18 @@ import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.JMenuBar;
 import javax.swing.JMenuItem;
+import javax.swing.JProgressBar;
 import javax.swing.JRadioButton;
 import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 import javax.swing.ScrollPaneConstants;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Document;
+import javax.swing.text.Segment;
 
 import org.musicia.commands.ExitCommand;
 import org.musicia.commands.ExportTextCommand;
@@ -59,9 +70,10 @@ import org.musicia.commands.ShowInformationCommand;
 import org.musicia.gui.window.MusiciaWindow;
 import org.musicia.gui.window.MusiciaWindowContent;
 import org.musicia.notes.model.Note;
-import org.musicia.notes.util.NoteParser;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.notes.util.IncrementalNoteParser;
 import org.musicia.notes.util.NotePrinter;
-import org.musicia.notes.util.NoteTransposer;
+import org.musicia.notes.util.TranspositionTable;
 import org.musicia.scales.MajorScale;
 import org.musicia.scales.MinorScale;
 import org.musicia.scales.Scale;
@@ -79,8 +91,27 @@ public class UserInterface {
 	// TODO Use GridBagLayout.
 
 	// TODO Clean up.
-	
-	// TODO Use own thread for gui - new Runnable { void run() ... }
+
+	/**
+	 * The smallest transposition distance.
+	 */
+	private static final int MIN_DISTANCE = -11;
+
+	/**
+	 * The largest transposition distance.
+	 */
+	private static final int MAX_DISTANCE = 11;
+
+	/**
+	 * The delay in milliseconds after the last edit until the results are evaluated again.
+	 */
+	private static final int REFRESH_DELAY = 300;
+
+	/**
+	 * The largest number of inserted or removed characters which are parsed while editing. Larger
+	 * edits (e.g. pasting a score) are parsed by the next evaluation in the background.
+	 */
+	private static final int INLINE_EDIT_LIMIT = 16384;
 
 	/**
 	 * The window of the user interface.
@@ -97,7 +128,6 @@ public class UserInterface {
 	 */
 	public UserInterface() {
 		addWindowListener();
-		buildMenu();
 		buildWindowContent();
 	}
 
@@ -105,14 +135,15 @@ public class UserInterface {
 		w.addWindowListener(new MusiciaWindowListener());
 	}
 
-	private void buildMenu() {
+	private void buildMenu(final EditedNotes editedNotes) {
 		final JMenuBar topMenuBar = new JMenuBar();
 
 		final JMenu fileMenu = new JMenu("File");
 		final JMenu helpMenu = new JMenu("Help");
 
 		final JMenuItem importMenuItem = buildAndReturnMenuItem("Import", "Import", new ImportListener("Musicia.txt"));
-		final JMenuItem exportMenuItem = buildAndReturnMenuItem("Export", "Export", new ExportListener("Musicia.txt"));
+		final JMenuItem exportMenuItem = buildAndReturnMenuItem("Export", "Export", new ExportListener("Musicia.txt",
+				editedNotes));
 		final JMenuItem quitMenuItem = buildAndReturnMenuItem("Quit", "Quit", new QuitListener());
 
 		final JMenuItem aboutMenuItem = buildAndReturnMenuItem("About", "About", new AboutListener());
@@ -193,79 +224,82 @@ public class UserInterface {
 		final JLabel outHeader = new JLabel("OutputHeader");
 		outHeader.setText("Possible outputs:");
 
-		final JButton evaluate = new JButton("Evaluate");
-		evaluate.addActionListener(new ActionListener() {
+		final JProgressBar progressBar = new JProgressBar(0, 100);
+
+		// The notes and their transpositions follow the edits of the text.
+		final EditedNotes editedNotes = new EditedNotes(editTextArea.getDocument());
+		buildMenu(editedNotes);
+
+		final ActionListener evaluateListener = new ActionListener() {
+
+			/**
+			 * The running evaluation or null.
+			 */
+			private EvaluationWorker worker;
 
 			@Override
 			public void actionPerformed(final ActionEvent e) {
+				if (worker != null) {
+					// Pressing Evaluate again replaces the running evaluation.
+					worker.cancel(true);
+				}
 				final ButtonModel b = evalMods.getSelection();
 				final String evalCommand = b.getActionCommand();
+				final Evaluation evaluation;
 				if (evalCommand.equals(eval1.getActionCommand())) {
-					doTransposingRoutine();
+					evaluation = Evaluation.TRANSPOSE;
 				} else if (evalCommand.equals(eval2.getActionCommand())) {
-					doMajorScaleRoutine();
+					evaluation = Evaluation.MAJOR_SCALE;
 				} else if (evalCommand.equals(eval3.getActionCommand())) {
-					doMinorScaleRoutine();
+					evaluation = Evaluation.MINOR_SCALE;
+				} else {
+					return;
 				}
+				final boolean fullyQualified = outMods.getSelection().getActionCommand().equals(
+						out1.getActionCommand());
+
+				resultTextArea.setText("");
+				progressBar.setValue(0);
+				worker = new EvaluationWorker(editedNotes, evaluation, fullyQualified, resultTextArea);
+				worker.addPropertyChangeListener(new PropertyChangeListener() {
+
+					@Override
+					public void propertyChange(final PropertyChangeEvent evt) {
+						if ("progress".equals(evt.getPropertyName())) {
+							progressBar.setValue((Integer) evt.getNewValue());
+						}
+					}
+
+				});
+				worker.execute();
 			}
 
-			private void doTransposingRoutine() {
-				final NoteParser p = new NoteParser(editTextArea.getText());
-
-				final NoteTransposer t = new NoteTransposer(p.getParsedNotes());
-
-				final List<Integer> distances = new ArrayList<Integer>();
-				for (int i = -11; i < 12; i++) {
-					distances.add(i);
-				}
+		};
+		final JButton evaluate = new JButton("Evaluate");
+		evaluate.addActionListener(evaluateListener);
 
-				printNotes(t.getTransposedNotes(distances), p.getNumberOfParsedNotes(), -11);
+		final Timer refreshTimer = new Timer(REFRESH_DELAY, evaluateListener);
+		refreshTimer.setRepeats(false);
+		editTextArea.getDocument().addDocumentListener(new DocumentListener() {
 
+			@Override
+			public void insertUpdate(final DocumentEvent e) {
+				update(e, 0, e.getLength());
 			}
 
-			private void printNotes(final List<Note> notesToPrint, final int notesPerLine, final int i) {
-				final NotePrinter np = new NotePrinter(notesToPrint);
-				final ButtonModel b = outMods.getSelection();
-				final String outCommand = b.getActionCommand();
-				if (outCommand.equals(out1.getActionCommand())) {
-					resultTextArea.setText(np.printIndexedFullyQualifiedNoteNames(notesPerLine, i));
-				} else if (outCommand.equals(out2.getActionCommand())) {
-					resultTextArea.setText(np.printIndexedNoteNames(notesPerLine, i));
-				}
+			@Override
+			public void removeUpdate(final DocumentEvent e) {
+				update(e, e.getLength(), 0);
 			}
 
-			private void doMajorScaleRoutine() {
-				final NoteParser p = new NoteParser(editTextArea.getText());
-
-				final Scale ms = new MajorScale(p.getParsedNotes().get(0));
-
-				final NotePrinter np = new NotePrinter(ms.getScale());
-
-				final ButtonModel b = outMods.getSelection();
-				final String outCommand = b.getActionCommand();
-
-				if (outCommand.equals(out1.getActionCommand())) {
-					resultTextArea.setText(np.printFullyQualifiedNoteNames(-1));
-				} else if (outCommand.equals(out2.getActionCommand())) {
-					resultTextArea.setText(np.printNoteNames(-1));
-				}
+			@Override
+			public void changedUpdate(final DocumentEvent e) {
+				// Only attributes have changed.
 			}
 
-			private void doMinorScaleRoutine() {
-				final NoteParser p = new NoteParser(editTextArea.getText());
-
-				final Scale ms = new MinorScale(p.getParsedNotes().get(0));
-
-				final NotePrinter np = new NotePrinter(ms.getScale());
-
-				final ButtonModel b = outMods.getSelection();
-				final String outCommand = b.getActionCommand();
-
-				if (outCommand.equals(out1.getActionCommand())) {
-					resultTextArea.setText(np.printFullyQualifiedNoteNames(-1));
-				} else if (outCommand.equals(out2.getActionCommand())) {
-					resultTextArea.setText(np.printNoteNames(-1));
-				}
+			private void update(final DocumentEvent e, final int removed, final int inserted) {
+				editedNotes.edit(e.getOffset(), removed, inserted);
+				refreshTimer.restart();
 			}
 
 		});
@@ -334,6 +368,8 @@ public class UserInterface {
 
 		assignConstraintParameters(c, 0, 6, 2, 2);
 		wc.add(resultScrollPane, c);
+		assignConstraintParameters(c, 0, 8, 2, 1);
+		wc.add(progressBar, c);
 
 		w.getContentPane().add(wc, BorderLayout.CENTER);
 		w.pack();
@@ -374,6 +410,420 @@ public class UserInterface {
 		c.gridheight = dy;
 	}
 
+	/**
+	 * The possible evaluations of the entered notes.
+	 */
+	private enum Evaluation {
+		/**
+		 * Transpose the notes by -11 till +11 semitones.
+		 */
+		TRANSPOSE,
+		/**
+		 * Compute the major scale of the first note.
+		 */
+		MAJOR_SCALE,
+		/**
+		 * Compute the minor scale of the first note.
+		 */
+		MINOR_SCALE
+	}
+
+	// ESCA-JAVA0118:
+	private static class EvaluationWorker extends SwingWorker<NotesModel, String> {
+
+		/**
+		 * The separator of the transposed rows.
+		 */
+		private static final String ROW_SEPARATOR = " " + System.getProperty("line.separator");
+
+		/**
+		 * The notes of the editor.
+		 */
+		private final EditedNotes editedNotes;
+
+		/**
+		 * The revision of the edited notes when the evaluation has been started.
+		 */
+		private final int revision;
+
+		/**
+		 * The text to parse again or null if the snapshot is up to date.
+		 */
+		private final String text;
+
+		/**
+		 * The notes and their transpositions or null if the text has to be parsed again.
+		 */
+		private final TranspositionTable.Snapshot snapshot;
+
+		/**
+		 * The evaluation to do.
+		 */
+		private final Evaluation evaluation;
+
+		/**
+		 * Whether octave and duration are printed.
+		 */
+		private final boolean fullyQualified;
+
+		/**
+		 * Where to append the results.
+		 */
+		private final JTextArea resultTextArea;
+
+		/**
+		 * 
+		 * Creates a new EvaluationWorker. Must be called on the event dispatch thread.
+		 * 
+		 * @param editedNotes
+		 *            The notes of the editor.
+		 * @param evaluation
+		 *            The evaluation to do.
+		 * @param fullyQualified
+		 *            Whether octave and duration are printed.
+		 * @param resultTextArea
+		 *            Where to append the results.
+		 */
+		EvaluationWorker(final EditedNotes editedNotes, final Evaluation evaluation, final boolean fullyQualified,
+				final JTextArea resultTextArea) {
+			this.editedNotes = editedNotes;
+			this.revision = editedNotes.getRevision();
+			if (editedNotes.isStale()) {
+				this.text = editedNotes.getText();
+				this.snapshot = null;
+			} else {
+				this.text = null;
+				this.snapshot = editedNotes.snapshot();
+			}
+			this.evaluation = evaluation;
+			this.fullyQualified = fullyQualified;
+			this.resultTextArea = resultTextArea;
+		}
+
+		@Override
+		protected NotesModel doInBackground() {
+			NotesModel parsed = null;
+			TranspositionTable.Snapshot notes = snapshot;
+			if (notes == null) {
+				parsed = new NotesModel(text);
+				notes = parsed.snapshot();
+			}
+			try {
+				evaluate(notes);
+			} finally {
+				notes.release();
+			}
+			return parsed;
+		}
+
+		private void evaluate(final TranspositionTable.Snapshot notes) {
+			if (notes.size() == 0) {
+				setProgress(100);
+				return;
+			}
+			if (evaluation == Evaluation.TRANSPOSE) {
+				final NoteSequence[] rows = new NoteSequence[notes.getNumberOfRows()];
+				try {
+					for (int r = 0; r < rows.length; r++) {
+						rows[r] = notes.getRow(r);
+					}
+				} catch (final IllegalArgumentException e) {
+					publish(e.getMessage());
+					setProgress(100);
+					return;
+				}
+				for (int r = 0; r < rows.length && !isCancelled(); r++) {
+					final NotePrinter np = new NotePrinter(rows[r]);
+					final int distance = notes.getDistance(r);
+					final String row = fullyQualified ? np.printIndexedFullyQualifiedNoteNames(notes.size(),
+							distance) : np.printIndexedNoteNames(notes.size(), distance);
+					publish(r == 0 ? row : ROW_SEPARATOR + row);
+					setProgress((r + 1) * 100 / rows.length);
+				}
+			} else {
+				final Note root = notes.getNotes().getNote(0);
+				final Scale scale = evaluation == Evaluation.MAJOR_SCALE ? new MajorScale(root) : new MinorScale(root);
+				final NotePrinter np = new NotePrinter(scale.getScale());
+				publish(fullyQualified ? np.printFullyQualifiedNoteNames(-1) : np.printNoteNames(-1));
+				setProgress(100);
+			}
+		}
+
+		@Override
+		protected void process(final List<String> chunks) {
+			// Rows of a replaced evaluation are dropped.
+			if (!isCancelled()) {
+				for (final String chunk : chunks) {
+					resultTextArea.append(chunk);
+				}
+			}
+		}
+
+		@Override
+		protected void done() {
+			if (isCancelled()) {
+				return;
+			}
+			try {
+				final NotesModel parsed = get();
+				if (parsed != null) {
+					editedNotes.install(parsed, revision);
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (final ExecutionException e) {
+				resultTextArea.append(String.valueOf(e.getCause().getMessage()));
+			}
+		}
+
+	}
+
+	// ESCA-JAVA0118:
+	private static class NotesModel {
+
+		/**
+		 * Parses the edited text.
+		 */
+		private final IncrementalNoteParser parser = new IncrementalNoteParser();
+
+		/**
+		 * The transpositions of the parsed notes.
+		 */
+		private final TranspositionTable table = new TranspositionTable(buildDistances());
+
+		/**
+		 * 
+		 * Creates a new NotesModel.
+		 * 
+		 * @param text
+		 *            The text to parse.
+		 */
+		NotesModel(final CharSequence text) {
+			table.apply(parser.reset(text));
+		}
+
+		/**
+		 * Parses and transposes only the edited tokens again.
+		 * 
+		 * @param text
+		 *            The whole text after the edit.
+		 * @param offset
+		 *            The position of the edit.
+		 * @param removed
+		 *            The number of removed characters.
+		 * @param inserted
+		 *            The number of inserted characters.
+		 */
+		void edit(final CharSequence text, final int offset, final int removed, final int inserted) {
+			table.apply(parser.edit(text, offset, removed, inserted));
+		}
+
+		/**
+		 * @return Returns a snapshot of the notes and their transpositions, which has to be
+		 *         released after use.
+		 */
+		TranspositionTable.Snapshot snapshot() {
+			return table.snapshot();
+		}
+
+		private static int[] buildDistances() {
+			final int[] distances = new int[MAX_DISTANCE - MIN_DISTANCE + 1];
+			for (int i = 0; i < distances.length; i++) {
+				distances[i] = MIN_DISTANCE + i;
+			}
+			return distances;
+		}
+
+	}
+
+	// ESCA-JAVA0118:
+	private static class EditedNotes {
+
+		/**
+		 * The text of the document, read chunk by chunk without copying.
+		 */
+		private final DocumentText text;
+
+		/**
+		 * The notes of the document, unless they are stale.
+		 */
+		private NotesModel model;
+
+		/**
+		 * Whether the notes have to be parsed again after a large edit.
+		 */
+		private boolean stale = false;
+
+		/**
+		 * The number of edits so far.
+		 */
+		private int revision = 0;
+
+		/**
+		 * 
+		 * Creates a new EditedNotes and parses the current text of the document.
+		 * 
+		 * @param document
+		 *            The edited document.
+		 */
+		EditedNotes(final Document document) {
+			this.text = new DocumentText(document);
+			this.model = new NotesModel(text);
+		}
+
+		/**
+		 * Follows an edit of the document. Small edits are parsed at once; after a large edit the
+		 * notes are stale until an evaluation has parsed the whole text in the background.
+		 * 
+		 * @param offset
+		 *            The position of the edit.
+		 * @param removed
+		 *            The number of removed characters.
+		 * @param inserted
+		 *            The number of inserted characters.
+		 */
+		void edit(final int offset, final int removed, final int inserted) {
+			revision++;
+			if (stale || Math.max(removed, inserted) > INLINE_EDIT_LIMIT) {
+				stale = true;
+			} else {
+				text.reset();
+				model.edit(text, offset, removed, inserted);
+			}
+		}
+
+		/**
+		 * @return Returns whether the notes have to be parsed again.
+		 */
+		boolean isStale() {
+			return stale;
+		}
+
+		/**
+		 * @return Returns the number of edits so far.
+		 */
+		int getRevision() {
+			return revision;
+		}
+
+		/**
+		 * @return Returns a copy of the text to parse it in the background.
+		 */
+		String getText() {
+			return text.toString();
+		}
+
+		/**
+		 * @return Returns a snapshot of the notes, which has to be released after use.
+		 */
+		TranspositionTable.Snapshot snapshot() {
+			return model.snapshot();
+		}
+
+		/**
+		 * Returns a snapshot of the current notes. Stale notes are parsed again at once.
+		 * 
+		 * @return Returns the snapshot, which has to be released after use.
+		 */
+		TranspositionTable.Snapshot currentSnapshot() {
+			if (stale) {
+				model = new NotesModel(text);
+				stale = false;
+			}
+			return model.snapshot();
+		}
+
+		/**
+		 * Replaces the stale notes by the notes parsed in the background, unless the document has
+		 * been edited since.
+		 * 
+		 * @param parsed
+		 *            The notes parsed in the background.
+		 * @param parsedRevision
+		 *            The revision of the parsed text.
+		 */
+		void install(final NotesModel parsed, final int parsedRevision) {
+			if (stale && parsedRevision == revision) {
+				model = parsed;
+				stale = false;
+			}
+		}
+
+	}
+
+	// ESCA-JAVA0118:
+	private static class DocumentText implements CharSequence {
+
+		/**
+		 * The document to read.
+		 */
+		private final Document document;
+
+		/**
+		 * The current chunk, which is a view of the content of the document.
+		 */
+		private final Segment chunk = new Segment();
+
+		/**
+		 * The position of the current chunk in the document.
+		 */
+		private int chunkStart;
+
+		/**
+		 * 
+		 * Creates a new DocumentText.
+		 * 
+		 * @param document
+		 *            The document to read.
+		 */
+		DocumentText(final Document document) {
+			this.document = document;
+			chunk.setPartialReturn(true);
+		}
+
+		/**
+		 * Forgets the current chunk after the document has changed.
+		 */
+		void reset() {
+			chunkStart = 0;
+			chunk.count = 0;
+		}
+
+		@Override
+		public int length() {
+			return document.getLength();
+		}
+
+		@Override
+		public char charAt(final int index) {
+			if (index < chunkStart || index >= chunkStart + chunk.count) {
+				// Partial return stops at the gap of the content instead of copying the text.
+				try {
+					document.getText(index, document.getLength() - index, chunk);
+				} catch (final BadLocationException e) {
+					throw new IndexOutOfBoundsException(e.getMessage());
+				}
+				chunkStart = index;
+			}
+			return chunk.array[chunk.offset + index - chunkStart];
+		}
+
+		@Override
+		public CharSequence subSequence(final int start, final int end) {
+			return toString().substring(start, end);
+		}
+
+		@Override
+		public String toString() {
+			try {
+				return document.getText(0, document.getLength());
+			} catch (final BadLocationException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+	}
+
 	// ESCA-JAVA0118:
 	private static class ImportListener implements ActionListener {
 
@@ -411,20 +861,82 @@ public class UserInterface {
 		 */
 		private final String fileName;
 
+		/**
+		 * The notes of the editor.
+		 */
+		private final EditedNotes editedNotes;
+
 		/**
 		 * 
 		 * Creates a new ExportListener.
 		 * 
 		 * @param fileName
 		 *            The name of the text file.
+		 * @param editedNotes
+		 *            The notes of the editor, which are exported with their transpositions.
 		 */
-		ExportListener(final String fileName) {
+		ExportListener(final String fileName, final EditedNotes editedNotes) {
 			this.fileName = fileName;
+			this.editedNotes = editedNotes;
 		}
 
 		@Override
 		public void actionPerformed(final ActionEvent e) {
-			new ExportTextCommand("Testzwecke", fileName).execute();
+			final TranspositionTable.Snapshot notes = editedNotes.currentSnapshot();
+			try {
+				if (notes.size() == 0) {
+					new ExportTextCommand("", fileName).execute();
+				} else {
+					// The rows are streamed into the file one note after the other.
+					new ExportTextCommand(new TableNotes(notes), notes.size(), notes.getDistance(0), fileName)
+							.execute();
+				}
+			} catch (final IllegalArgumentException ex) {
+				new ShowInformationCommand(ex.getMessage(), "Export").execute();
+			} finally {
+				notes.release();
+			}
+		}
+
+	}
+
+	// ESCA-JAVA0118:
+	private static class TableNotes extends AbstractList<Note> {
+
+		/**
+		 * The transposed notes, one row per distance.
+		 */
+		private final NoteSequence[] rows;
+
+		/**
+		 * The number of notes per row.
+		 */
+		private final int notesPerRow;
+
+		/**
+		 * 
+		 * Creates a new TableNotes, a view of all rows of a transposition table one after the
+		 * other.
+		 * 
+		 * @param notes
+		 *            The notes and their transpositions.
+		 */
+		TableNotes(final TranspositionTable.Snapshot notes) {
+			this.rows = new NoteSequence[notes.getNumberOfRows()];
+			for (int r = 0; r < rows.length; r++) {
+				rows[r] = notes.getRow(r);
+			}
+			this.notesPerRow = notes.size();
+		}
+
+		@Override
+		public Note get(final int index) {
+			return rows[index / notesPerRow].getNote(index % notesPerRow);
+		}
+
+		@Override
+		public int size() {
+			return rows.length * notesPerRow;
 		}
 
 	}
@@ -0,0 +1,227 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.io;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * This writer encodes text into a file channel through reused buffers. <br>
+ * Text is encoded whenever the character buffer is full, so arbitrarily large output can be
+ * written without holding it in memory. Unlike a <code>PrintWriter</code> it reports every I/O
+ * error.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class ChannelTextWriter extends Writer {
+
+	/**
+	 * The number of characters which are buffered before encoding.
+	 */
+	private static final int CHAR_BUFFER_SIZE = 8192;
+
+	/**
+	 * The number of bytes which are buffered before writing.
+	 */
+	private static final int BYTE_BUFFER_SIZE = 32768;
+
+	/**
+	 * The channel to write into.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The encoder of the charset.
+	 */
+	private final CharsetEncoder encoder;
+
+	/**
+	 * When to force the content onto the storage device.
+	 */
+	private final SyncPolicy syncPolicy;
+
+	/**
+	 * The buffered characters.
+	 */
+	private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+
+	/**
+	 * The encoded bytes.
+	 */
+	private final ByteBuffer bytes = ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE);
+
+	/**
+	 * True only if the writer has been closed.
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Creates a new ChannelTextWriter.
+	 * 
+	 * @param channel
+	 *            The channel to write into.
+	 * @param charset
+	 *            The charset of the text.
+	 * @param syncPolicy
+	 *            When to force the content onto the storage device.
+	 */
+	public ChannelTextWriter(FileChannel channel, Charset charset, SyncPolicy syncPolicy) {
+		this.channel = channel;
+		this.encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.syncPolicy = syncPolicy;
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException {
+		ensureOpen();
+		int position = off;
+		final int end = off + len;
+		while (position < end) {
+			final int n = Math.min(chars.remaining(), end - position);
+			chars.put(cbuf, position, n);
+			position += n;
+			if (!chars.hasRemaining()) {
+				encode(false);
+			}
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		ensureOpen();
+		int position = off;
+		final int end = off + len;
+		while (position < end) {
+			final int n = Math.min(chars.remaining(), end - position);
+			chars.put(str, position, position + n);
+			position += n;
+			if (!chars.hasRemaining()) {
+				encode(false);
+			}
+		}
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		ensureOpen();
+		chars.put((char) c);
+		if (!chars.hasRemaining()) {
+			encode(false);
+		}
+	}
+
+	/**
+	 * Appends the characters without converting the sequence into a string.
+	 */
+	@Override
+	public Writer append(CharSequence csq) throws IOException {
+		final CharSequence s = (csq == null) ? "null" : csq;
+		return append(s, 0, s.length());
+	}
+
+	/**
+	 * Appends the characters without converting the sequence into a string.
+	 */
+	@Override
+	public Writer append(CharSequence csq, int start, int end) throws IOException {
+		final CharSequence s = (csq == null) ? "null" : csq;
+		if (s instanceof String) {
+			write((String) s, start, end - start);
+			return this;
+		}
+		for (int i = start; i < end; i++) {
+			write(s.charAt(i));
+		}
+		return this;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		ensureOpen();
+		encode(false);
+		writeBytes();
+		if (syncPolicy == SyncPolicy.ON_FLUSH) {
+			channel.force(false);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		try {
+			encode(true);
+			while (encoder.flush(bytes) == CoderResult.OVERFLOW) {
+				writeBytes();
+			}
+			writeBytes();
+			if (syncPolicy != SyncPolicy.NONE) {
+				channel.force(false);
+			}
+		} finally {
+			closed = true;
+			channel.close();
+		}
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("The writer has already been closed.");
+		}
+	}
+
+	private void encode(boolean endOfInput) throws IOException {
+		chars.flip();
+		CoderResult result = encoder.encode(chars, bytes, endOfInput);
+		while (result.isOverflow()) {
+			writeBytes();
+			result = encoder.encode(chars, bytes, endOfInput);
+		}
+		chars.compact();
+	}
+
+	private void writeBytes() throws IOException {
+		bytes.flip();
+		while (bytes.hasRemaining()) {
+			channel.write(bytes);
+		}
+		bytes.clear();
+	}
+
+}
@@ -34,6 +34,8 @@ import java.io.FileReader;
 import java.io.IOException;
 
 import org.musicia.exceptions.MusiciaIOException;
+import org.musicia.notes.util.NoteHandler;
+import org.musicia.notes.util.NoteParser;
 
 /**
  * This class provides methods to read *.txt-Files.
@@ -50,6 +52,11 @@ public class TextFileReader {
 	 */
 	private static final int DEFAULT_CAPACITY = 256;
 
+	/**
+	 * The line separator of the platform.
+	 */
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
 	/**
 	 * Reads from the given text file which has to be in the same directory.
 	 * 
@@ -68,7 +75,7 @@ public class TextFileReader {
 			String line = bufferedReader.readLine();
 
 			while (line != null) {
-				result.append(line).append(System.getProperty("line.separator"));
+				result.append(line).append(LINE_SEPARATOR);
 				line = bufferedReader.readLine();
 			}
 
@@ -84,4 +91,27 @@ public class TextFileReader {
 
 	}
 
+	/**
+	 * Parses the notes of the given text file without reading the whole file into memory.
+	 * 
+	 * @param fileName
+	 *            The name of the text file.
+	 * @param handler
+	 *            The receiver of the notes and invalid tokens.
+	 */
+	public void parseFile(final String fileName, final NoteHandler handler) {
+		try {
+			final FileReader input = new FileReader(fileName);
+			try {
+				NoteParser.parse(input, handler);
+			} finally {
+				input.close();
+			}
+		} catch (final FileNotFoundException e) {
+			throw new MusiciaIOException("File not found.", e);
+		} catch (final IOException e) {
+			throw new MusiciaIOException("An I/O error occured.", e);
+		}
+	}
+
 }
@@ -28,19 +28,20 @@
  */
 package org.musicia.io;
 
-import java.io.FileWriter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.nio.charset.Charset;
 
 import org.musicia.exceptions.MusiciaIOException;
 
 /**
- * This class provides methods to write *.txt-Files.
- * 
- * TODO Implement and test this class.
+ * This class provides methods to write *.txt-Files. <br>
+ * Large output should be written piecewise into a writer obtained by <code>openFile(...)</code>
+ * instead of being concatenated into one string.
  * 
  * @author Thomas Schulz
- * @version 1.0
+ * @version 1.1
  */
 public class TextFileWriter {
 
@@ -54,16 +55,58 @@ public class TextFileWriter {
 	 *            The name of the file.
 	 */
 	public void writeFile(String text, String fileName) {
+		writeFile(text, fileName, false, Charset.defaultCharset(), SyncPolicy.NONE);
+	}
 
+	/**
+	 * 
+	 * Writes the given content into textfile with given file name.
+	 * 
+	 * @param text
+	 *            The text to write.
+	 * @param fileName
+	 *            The name of the file.
+	 * @param append
+	 *            Whether the text is appended to an existing file.
+	 * @param charset
+	 *            The charset of the file.
+	 * @param syncPolicy
+	 *            When to force the content onto the storage device.
+	 */
+	public void writeFile(CharSequence text, String fileName, boolean append, Charset charset, SyncPolicy syncPolicy) {
+		final ChannelTextWriter writer = openFile(fileName, append, charset, syncPolicy);
 		try {
-			FileWriter outFile = new FileWriter(fileName);
-			PrintWriter out = new PrintWriter(outFile);
-
-			out.print(text);
-			out.close();
+			try {
+				writer.append(text);
+			} finally {
+				writer.close();
+			}
 		} catch (IOException e) {
 			throw new MusiciaIOException("IOException occured.", e);
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * 
+	 * Opens the textfile with given file name for writing. <br>
+	 * The caller is responsible for closing the returned writer.
+	 * 
+	 * @param fileName
+	 *            The name of the file.
+	 * @param append
+	 *            Whether the text is appended to an existing file.
+	 * @param charset
+	 *            The charset of the file.
+	 * @param syncPolicy
+	 *            When to force the content onto the storage device.
+	 * @return Returns the writer.
+	 */
+	public ChannelTextWriter openFile(String fileName, boolean append, Charset charset, SyncPolicy syncPolicy) {
+		try {
+			return new ChannelTextWriter(new FileOutputStream(fileName, append).getChannel(), charset, syncPolicy);
+		} catch (FileNotFoundException e) {
+			throw new MusiciaIOException("File could not be opened.", e);
+		}
+	}
+
+}
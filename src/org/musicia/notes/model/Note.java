@@ -28,23 +28,31 @@
  */
 package org.musicia.notes.model;
 
+import org.musicia.exceptions.MusiciaUnsupportedOperationException;
+
 /**
- * This class encapsulates the essential properties of a music note.
+ * This class encapsulates the essential properties of a music note. <br>
+ * Notes are immutable. Use <code>Note.of(...)</code> to obtain the canonical instance of a note.
  * 
  * @author Thomas Schulz
- * @version 1.0
+ * @version 1.1
  */
-public class Note {
+public final class Note {
 	
 	/**
 	 * The name of the note (e.g. "C" or "A") and the (optional) accidental of a note.
 	 */
-	NoteName noteName = new NoteName(DEFAULT_NAME, DEFAULT_ACCIDENTAL);
+	final NoteName noteName;
 
 	/**
 	 * The essential properties of a note (octave and duration).
 	 */
-	NoteProperties properties = new NoteProperties(DEFAULT_OCTAVE, DEFAULT_DURATION);
+	final NoteProperties properties;
+
+	/**
+	 * The hash code, computed once from name, octave and duration.
+	 */
+	private final int hash;
 
 	/**
 	 * The default name.
@@ -70,6 +78,7 @@ public class Note {
 	 * Creates the "middle C" note with default octave (5) and default duration (quarter note).
 	 */
 	public Note() {
+		this(DEFAULT_NAME, DEFAULT_ACCIDENTAL, DEFAULT_OCTAVE, DEFAULT_DURATION);
 	}
 
 	/**
@@ -80,7 +89,7 @@ public class Note {
 	 *            The name of the note [A-G].
 	 */
 	public Note(String name) {
-		this.noteName = new NoteName(name, DEFAULT_ACCIDENTAL);
+		this(name, DEFAULT_ACCIDENTAL, DEFAULT_OCTAVE, DEFAULT_DURATION);
 	}
 
 	/**
@@ -93,7 +102,7 @@ public class Note {
 	 *            The accidental of the note [#,b].
 	 */
 	public Note(String name, String accidental) {
-		this.noteName = new NoteName(name, accidental);
+		this(name, accidental, DEFAULT_OCTAVE, DEFAULT_DURATION);
 	}
 
 	/**
@@ -108,8 +117,7 @@ public class Note {
 	 *            The pitch of the note [C-0 until G-10 where middle C is C-5].
 	 */
 	public Note(String name, String accidental, int octave) {
-		this.noteName = new NoteName(name, accidental);
-		this.properties = new NoteProperties(octave, DEFAULT_DURATION);
+		this(name, accidental, octave, DEFAULT_DURATION);
 	}
 
 	/**
@@ -126,8 +134,7 @@ public class Note {
 	 *            The duration of the note as floating point number [e.g. 0.25 for quarter].
 	 */
 	public Note(String name, String accidental, int octave, double duration) {
-		this.noteName = new NoteName(name, accidental);
-		this.properties = new NoteProperties(octave, duration);
+		this(new NoteName(name, accidental), new NoteProperties(octave, duration));
 	}
 
 	/**
@@ -144,8 +151,7 @@ public class Note {
 	 *            The duration of the note as string [e.g. "q" for quarter].
 	 */
 	public Note(String name, String accidental, int octave, String duration) {
-		this.noteName = new NoteName(name, accidental);
-		this.properties = new NoteProperties(octave, duration);
+		this(new NoteName(name, accidental), new NoteProperties(octave, duration));
 	}
 
 	/**
@@ -162,20 +168,99 @@ public class Note {
 	 *            The duration of the note as denominator of the fraction [e.g. "4" for quarter].
 	 */
 	public Note(String name, String accidental, int octave, int duration) {
-		this.noteName = new NoteName(name, accidental);
-		this.properties = new NoteProperties(octave, 1.0 / ((double) duration));
+		this(name, accidental, octave, 1.0 / ((double) duration));
+	}
+
+	/**
+	 * Creates a new note from already existing (shared) parts.
+	 * 
+	 * @param noteName
+	 *            The name and accidental of the note.
+	 * @param properties
+	 *            The octave and duration of the note.
+	 */
+	Note(NoteName noteName, NoteProperties properties) {
+		this.noteName = noteName;
+		this.properties = properties;
+		this.hash = 31 * noteName.hashCode() + properties.hashCode();
+	}
+
+	/**
+	 * Returns the canonical note with the given name, the given accidental, default octave (5) and
+	 * default duration (0.25 for quarter note).
+	 * 
+	 * @param name
+	 *            The name of the note [A-G].
+	 * @param accidental
+	 *            The accidental of the note [#,b].
+	 * @return Returns the shared instance of the note.
+	 */
+	public static Note of(String name, String accidental) {
+		return of(name, accidental, DEFAULT_OCTAVE, DEFAULT_DURATION);
+	}
+
+	/**
+	 * Returns the canonical note with the given name, the given accidental, the given octave and
+	 * default duration (0.25 for quarter note).
+	 * 
+	 * @param name
+	 *            The name of the note [A-G].
+	 * @param accidental
+	 *            The accidental of the note [#,b].
+	 * @param octave
+	 *            The pitch of the note [C-0 until G-10 where middle C is C-5].
+	 * @return Returns the shared instance of the note.
+	 */
+	public static Note of(String name, String accidental, int octave) {
+		return of(name, accidental, octave, DEFAULT_DURATION);
+	}
+
+	/**
+	 * Returns the canonical note with the given name, the given accidental, the given octave and
+	 * the given duration. <br>
+	 * Two notes obtained by this method are equal if and only if they are identical (==). Notes
+	 * outside the range of the 128 supported pitches are not cached and created on every call.
+	 * 
+	 * @param name
+	 *            The name of the note [A-G].
+	 * @param accidental
+	 *            The accidental of the note [#,b].
+	 * @param octave
+	 *            The pitch of the note [C-0 until G-10 where middle C is C-5].
+	 * @param duration
+	 *            The duration of the note as floating point number [e.g. 0.25 for quarter].
+	 * @return Returns the shared instance of the note.
+	 */
+	public static Note of(String name, String accidental, int octave, double duration) {
+		final Note note = NotePool.lookup(name, accidental, octave, duration);
+		if (note == null) {
+			return new Note(name, accidental, octave, duration);
+		}
+		return note;
 	}
 
-	// ESCA-JAVA0131:
 	/**
 	 * Checks if two notes are equal in name, pitch and duration.
 	 * 
-	 * @param note
-	 *            The note to compare this note against.
+	 * @param obj
+	 *            The object to compare this note against.
 	 * @return Returns true only if both notes have the same name, pitch and duration.
 	 */
-	public boolean equals(Note note) {
-		return this.noteName.equals(note.noteName) && this.properties.equals(properties);
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof Note)) {
+			return false;
+		}
+		final Note note = (Note) obj;
+		return hash == note.hash && noteName.equals(note.noteName) && properties.equals(note.properties);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
 	}
 
 	/**
@@ -210,13 +295,24 @@ public class Note {
 	}
 
 	/**
-	 * Resolves the German equivalent to the given note.
+	 * German note names (e.g. "H" or "Fis") are no valid note names, so there is no German
+	 * equivalent note.
 	 * 
-	 * @return Returns the German equivalent note.
+	 * @return Never returns.
+	 * @throws MusiciaUnsupportedOperationException
+	 *             Always.
+	 * @deprecated Use {@link #getGermanName()} instead.
 	 */
 	@Deprecated
 	public Note getGermanEquivalent() {
-		return NoteName.resolveGermanEquivalent(this);
+		throw new MusiciaUnsupportedOperationException("German note names can not be represented as notes.");
+	}
+
+	/**
+	 * @return Returns the German name of this note (e.g. "H" for B or "Fis" for F#).
+	 */
+	public String getGermanName() {
+		return noteName.getGermanName();
 	}
 
 	/**
@@ -272,6 +368,13 @@ public class Note {
 		return properties.durationAsDouble;
 	}
 
+	/**
+	 * @return Returns the duration as ticks (see {@link NoteDuration}).
+	 */
+	public int getDurationInTicks() {
+		return NoteDurationTable.getTicks(properties.durationIndex);
+	}
+
 	/**
 	 * @return Returns true only if accidental is "#".
 	 */
@@ -0,0 +1,187 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.model;
+
+/**
+ * This class provides exact arithmetic on note durations measured in integer ticks. <br>
+ * <br>
+ * A whole note has 26880 ticks: 256 ticks resolve the dotted 128th note and the factor 105 (3 * 5
+ * * 7) divides them further into triplets, quintuplets and septuplets. Sums and tuplets of any
+ * supported duration are exact, so durations add up across large scores without floating point
+ * drift and without boxing.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class NoteDuration {
+
+	/**
+	 * The number of ticks of a whole note.
+	 */
+	public static final int TICKS_PER_WHOLE = 26880;
+
+	/**
+	 * The number of ticks of a quarter note.
+	 */
+	public static final int TICKS_PER_QUARTER = TICKS_PER_WHOLE / 4;
+
+	private NoteDuration() {
+	}
+
+	/**
+	 * @param name
+	 *            The name of a duration (e.g. "q" or "i.").
+	 * @return Returns the duration as ticks.
+	 */
+	public static int ofName(final String name) {
+		final int index = NoteDurationTable.lookup(name);
+		if (index < 0) {
+			throw new IllegalArgumentException(String.format("The note duration [%s] is not supported.", name));
+		}
+		return NoteDurationTable.getTicks(index);
+	}
+
+	/**
+	 * Converts the given duration to ticks, rounding to the nearest tick.
+	 * 
+	 * @param duration
+	 *            The duration as fraction of a whole note (e.g. 0.25 for a quarter note).
+	 * @return Returns the duration as ticks.
+	 */
+	public static int fromDouble(final double duration) {
+		return (int) Math.round(duration * TICKS_PER_WHOLE);
+	}
+
+	/**
+	 * @param ticks
+	 *            The duration as ticks.
+	 * @return Returns the duration as fraction of a whole note (e.g. 0.25 for a quarter note).
+	 */
+	public static double toDouble(final int ticks) {
+		return (double) ticks / TICKS_PER_WHOLE;
+	}
+
+	/**
+	 * Adds two durations (e.g. tied notes).
+	 * 
+	 * @param ticks
+	 *            The first duration as ticks.
+	 * @param otherTicks
+	 *            The second duration as ticks.
+	 * @return Returns the sum as ticks.
+	 */
+	public static int add(final int ticks, final int otherTicks) {
+		final int sum = ticks + otherTicks;
+		// overflow only if both operands have the same sign which differs from the result's sign
+		if (((ticks ^ sum) & (otherTicks ^ sum)) < 0) {
+			throw new IllegalArgumentException(String.format("The sum of [%s] and [%s] ticks overflows.", ticks,
+					otherTicks));
+		}
+		return sum;
+	}
+
+	/**
+	 * Scales a duration by a fraction exactly.
+	 * 
+	 * @param ticks
+	 *            The duration as ticks.
+	 * @param numerator
+	 *            The numerator of the factor.
+	 * @param denominator
+	 *            The denominator of the factor.
+	 * @return Returns the scaled duration as ticks.
+	 */
+	public static int scale(final int ticks, final int numerator, final int denominator) {
+		final long product = (long) ticks * numerator;
+		if (denominator <= 0 || product % denominator != 0 || product / denominator > Integer.MAX_VALUE
+				|| product / denominator < Integer.MIN_VALUE) {
+			throw new IllegalArgumentException(String.format("The duration [%s] can not be scaled by %s/%s exactly.",
+					ticks, numerator, denominator));
+		}
+		return (int) (product / denominator);
+	}
+
+	/**
+	 * @param ticks
+	 *            The duration as ticks.
+	 * @return Returns the dotted duration (one and a half times as long).
+	 */
+	public static int dotted(final int ticks) {
+		return scale(ticks, 3, 2);
+	}
+
+	/**
+	 * Computes the duration of a note in a tuplet: <code>count</code> notes in the time of
+	 * <code>inTimeOf</code> notes (e.g. 3 in the time of 2 for triplets).
+	 * 
+	 * @param ticks
+	 *            The duration as ticks.
+	 * @param count
+	 *            The number of notes in the tuplet.
+	 * @param inTimeOf
+	 *            The number of notes whose time the tuplet takes.
+	 * @return Returns the duration of one tuplet note as ticks.
+	 */
+	public static int tuplet(final int ticks, final int count, final int inTimeOf) {
+		return scale(ticks, inTimeOf, count);
+	}
+
+	/**
+	 * @param ticks
+	 *            The duration as ticks.
+	 * @return Returns the position of the duration in the {@link NoteDurationTable} or -1 if it is
+	 *         not in the table.
+	 */
+	public static int indexOf(final int ticks) {
+		return NoteDurationTable.getIndexOfTicks(ticks);
+	}
+
+	/**
+	 * Names the given duration: a table name (e.g. "q."), a triplet of a table name (e.g. "i*",
+	 * the JFugue notation) or the fraction of a whole note (e.g. "/0.3125").
+	 * 
+	 * @param ticks
+	 *            The duration as ticks.
+	 * @return Returns the name of the duration.
+	 */
+	public static String toString(final int ticks) {
+		final int index = indexOf(ticks);
+		if (index >= 0) {
+			return NoteProperties.DURATION_TABLE.getAsString(index);
+		}
+		if (ticks % 2 == 0) {
+			final int tripletIndex = indexOf(ticks / 2 * 3);
+			if (tripletIndex >= 0) {
+				return NoteProperties.DURATION_TABLE.getAsString(tripletIndex) + "*";
+			}
+		}
+		return "/" + toDouble(ticks);
+	}
+
+}
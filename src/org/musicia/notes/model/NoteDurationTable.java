@@ -28,8 +28,7 @@
  */
 package org.musicia.notes.model;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 import org.musicia.exceptions.MusiciaIllegalArgumentException;
 
@@ -38,66 +37,161 @@ import com.google.inject.Singleton;
 
 /**
  * 
- * This class provides static methods to give representations of note durations.
+ * This class provides static methods to give representations of note durations. <br>
+ * <br>
+ * Every duration is also available as integer ticks (see {@link NoteDuration}). Names are looked
+ * up in an array indexed by their characters and doubles are converted to ticks, so no lookup
+ * boxes or hashes a value.
  * 
  * @author Thomas Schulz
- * @version 1.0
+ * @version 1.1
  */
 @Singleton
 public class NoteDurationTable {
 
 	/**
-	 * The mapping from string to double.
+	 * The number of supported durations.
 	 */
-	private Map<String, Double> stringToDouble = new HashMap<String, Double>(NUMBER_OF_SUPPORTED_DURATIONS);
+	private static final int NUMBER_OF_SUPPORTED_DURATIONS = 15;
 
 	/**
-	 * The mapping from double to string.
+	 * All supported durations as string, ordered from the longest to the shortest.
 	 */
-	private Map<Double, String> doubleToString = new HashMap<Double, String>(NUMBER_OF_SUPPORTED_DURATIONS);
+	private static final String[] DURATIONS_AS_STRING = { "w", "h.", "h", "q.", "q", "i.", "i", "s.", "s", "t.", "t", "x.",
+			"x", "o.", "o" };
 
 	/**
-	 * The number of supported durations.
+	 * All supported durations as double, ordered from the longest to the shortest.
 	 */
-	private static final int NUMBER_OF_SUPPORTED_DURATIONS = 15;
+	private static final double[] DURATIONS_AS_DOUBLE = { 1.0, 0.75, 0.5, 0.375, 0.25, 0.1875, 0.125, 0.09375, 0.0625,
+			0.046875, 0.03125, 0.0234375, 0.015625, 0.01171875, 0.0078125 };
+
+	/**
+	 * All supported durations as ticks, ordered from the longest to the shortest.
+	 */
+	private static final int[] DURATIONS_AS_TICKS = new int[NUMBER_OF_SUPPORTED_DURATIONS];
+
+	/**
+	 * The flag of a dotted name in the name index.
+	 */
+	private static final int DOT = 128;
+
+	/**
+	 * The position of every name in the table, indexed by its letter plus 128 if dotted.
+	 */
+	private static final int[] NAME_INDEX = new int[2 * DOT];
+
+	static {
+		Arrays.fill(NAME_INDEX, -1);
+		for (int i = 0; i < NUMBER_OF_SUPPORTED_DURATIONS; i++) {
+			final String name = DURATIONS_AS_STRING[i];
+			NAME_INDEX[name.charAt(0) + (name.length() > 1 ? DOT : 0)] = i;
+			DURATIONS_AS_TICKS[i] = (int) (DURATIONS_AS_DOUBLE[i] * NoteDuration.TICKS_PER_WHOLE);
+		}
+	}
 
 	@Inject
 	public NoteDurationTable() {
-		buildHashMap();
 	}
 
-	private void buildHashMap() {
-		// ESCA-JAVA0076:
-		stringToDouble.put("w", 1.0);
-		stringToDouble.put("h.", 0.75);
-		stringToDouble.put("h", 0.5);
-		stringToDouble.put("q.", 0.375);
-		stringToDouble.put("q", 0.25);
-		stringToDouble.put("i.", 0.1875);
-		stringToDouble.put("i", 0.125);
-		stringToDouble.put("s.", 0.09375);
-		stringToDouble.put("s", 0.0625);
-		stringToDouble.put("t.", 0.046875);
-		stringToDouble.put("t", 0.03125);
-		stringToDouble.put("x.", 0.0234375);
-		stringToDouble.put("x", 0.015625);
-		stringToDouble.put("o.", 0.01171875);
-		stringToDouble.put("o", 0.0078125);
-		doubleToString.put(1.0, "w");
-		doubleToString.put(0.75, "h.");
-		doubleToString.put(0.5, "h");
-		doubleToString.put(0.375, "q.");
-		doubleToString.put(0.25, "q");
-		doubleToString.put(0.1875, "i.");
-		doubleToString.put(0.125, "i");
-		doubleToString.put(0.09375, "s.");
-		doubleToString.put(0.0625, "s");
-		doubleToString.put(0.046875, "t.");
-		doubleToString.put(0.03125, "t");
-		doubleToString.put(0.0234375, "x.");
-		doubleToString.put(0.015625, "x");
-		doubleToString.put(0.01171875, "o.");
-		doubleToString.put(0.0078125, "o");
+	/**
+	 * @return Returns the number of supported durations.
+	 */
+	public int getNumberOfSupportedDurations() {
+		return NUMBER_OF_SUPPORTED_DURATIONS;
+	}
+
+	/**
+	 * Returns the position of the duration in the table. The duration is rounded to whole ticks,
+	 * so computed values (e.g. sums of doubles) are found as well.
+	 * 
+	 * @param d
+	 *            The duration as double.
+	 * @return Returns the index of the duration [0 for whole until 14 for 128th].
+	 */
+	public int getIndex(double d) {
+		final int index = getIndexOfTicks(NoteDuration.fromDouble(d));
+		if (index < 0) {
+			throw new MusiciaIllegalArgumentException(String.format("The note duration [%s] is not supported.", d));
+		}
+		return index;
+	}
+
+	/**
+	 * @param s
+	 *            The duration as string.
+	 * @return Returns the index of the duration [0 for whole until 14 for 128th].
+	 */
+	public int getIndex(String s) {
+		final int index = lookup(s);
+		if (index < 0) {
+			throw new MusiciaIllegalArgumentException(String.format("The note duration [%s] is not supported.", s));
+		}
+		return index;
+	}
+
+	/**
+	 * @param ticks
+	 *            The duration as ticks.
+	 * @return Returns the index of the duration [0 for whole until 14 for 128th] or -1 if it is not
+	 *         in the table.
+	 */
+	public static int getIndexOfTicks(int ticks) {
+		// descending order: binary search from the longest duration
+		int low = 0;
+		int high = NUMBER_OF_SUPPORTED_DURATIONS - 1;
+		while (low <= high) {
+			final int middle = (low + high) >>> 1;
+			final int t = DURATIONS_AS_TICKS[middle];
+			if (t == ticks) {
+				return middle;
+			} else if (t > ticks) {
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @param s
+	 *            The duration as string.
+	 * @return Returns the index of the duration or -1 if the name is unknown.
+	 */
+	static int lookup(String s) {
+		final int length = s.length();
+		if (length == 0 || length > 2 || s.charAt(0) >= DOT || (length == 2 && s.charAt(1) != '.')) {
+			return -1;
+		}
+		return NAME_INDEX[s.charAt(0) + (length == 2 ? DOT : 0)];
+	}
+
+	/**
+	 * @param index
+	 *            The index of the duration [0 for whole until 14 for 128th].
+	 * @return Returns the duration as double.
+	 */
+	public double getAsDouble(int index) {
+		return DURATIONS_AS_DOUBLE[index];
+	}
+
+	/**
+	 * @param index
+	 *            The index of the duration [0 for whole until 14 for 128th].
+	 * @return Returns the duration as string.
+	 */
+	public String getAsString(int index) {
+		return DURATIONS_AS_STRING[index];
+	}
+
+	/**
+	 * @param index
+	 *            The index of the duration [0 for whole until 14 for 128th].
+	 * @return Returns the duration as ticks.
+	 */
+	public static int getTicks(int index) {
+		return DURATIONS_AS_TICKS[index];
 	}
 
 	/**
@@ -106,10 +200,7 @@ public class NoteDurationTable {
 	 * @return Returns the duration as double.
 	 */
 	public double getAsDouble(String s) {
-		if (stringToDouble.containsKey(s)) {
-			return stringToDouble.get(s);
-		}
-		throw new MusiciaIllegalArgumentException(String.format("The note duration [%s] is not supported.", s));
+		return DURATIONS_AS_DOUBLE[getIndex(s)];
 	}
 
 	/**
@@ -118,10 +209,7 @@ public class NoteDurationTable {
 	 * @return Returns the duration as string.
 	 */
 	public String getAsString(double d) {
-		if (doubleToString.containsKey(d)) {
-			return doubleToString.get(d);
-		}
-		throw new MusiciaIllegalArgumentException(String.format("The note duration [%s] is not supported.", d));
+		return DURATIONS_AS_STRING[getIndex(d)];
 	}
 
 }
@@ -29,27 +29,33 @@
 package org.musicia.notes.model;
 
 /**
- * This class encapsulates the name and the accidental of a note.
+ * This class encapsulates the name and the accidental of a note. <br>
+ * Instances are immutable and may be shared between notes.
  * 
  * @author Thomas Schulz
- * @version 1.0
+ * @version 1.1
  */
 class NoteName {
 
 	/**
 	 * The name of the note (e.g. "C" or "A").
 	 */
-	String name = "C";
+	final String name;
 
 	/**
 	 * The (optional) accidental of a note ("", "#" or "b").
 	 */
-	String accidental = "";
+	final String accidental;
 	
 	/**
 	 * The concatenation of name and accidental.
 	 */
-	String fullName = "C";
+	final String fullName;
+
+	/**
+	 * The constant which represents name and accidental.
+	 */
+	final NoteNameEnum value;
 	
 	/**
 	 * Creates a new note name.
@@ -60,133 +66,58 @@ class NoteName {
 	 *            The accidental of the note [#,b].
 	 */
 	NoteName(String name, String accidental) {
-		String literalAccidental = "";
-		if (accidental.equals("#")) {
-			literalAccidental = "sharp";
-		} else if (accidental.equals("b")) {
-			literalAccidental = "flat";
-		}
 		this.name = name;
 		this.accidental = accidental;
-		this.fullName = NoteNameEnum.valueOf(name + literalAccidental).toString();
+		this.value = NoteNameEnum.lookup(name, accidental);
+		if (value == null) {
+			throw new IllegalArgumentException(String.format("The note name [%s%s] is invalid.", name, accidental));
+		}
+		this.fullName = value.toString();
 	}
 
 	/**
-	 * Resolves the equivalent to the given note or returns this if note has no accidental.
+	 * Resolves the equivalent to the given note or returns this if note has no accidental. <br>
+	 * The equivalent is looked up in a table and taken from the note pool.
 	 * 
 	 * @param note
 	 *            The note to get the equivalent from.
 	 * @return Returns the equivalent note.
 	 */
 	static Note resolveEquivalent(Note note) {
-
-		if (!note.hasAccidental()) {
+		final NoteNameEnum equivalent = note.noteName.value.getEquivalent();
+		if (equivalent == note.noteName.value) {
 			return note;
 		}
-
-		Note[][] possibleEquivalents = getPossibleEquivalents(note);
-
-		// TODO Abstract from iteration.
-		for (int i = 0; i < 5; i++) {
-			for (int j = 0; j < 2; j++) {
-				if (note.equals(possibleEquivalents[i][j])) {
-					if (j == 0) {
-						return possibleEquivalents[i][1];
-					} else {
-						return possibleEquivalents[i][0];
-					}
-				}
-			}
+		final Note pooled = NotePool.get(equivalent, note.properties.octave, note.properties.durationIndex);
+		if (pooled != null) {
+			return pooled;
 		}
-
-		throw new IllegalArgumentException(String.format("Could not resolve equivalent note to [%s].", note));
-	}
-
-	// ESCA-JAVA0076:
-	private static Note[][] getPossibleEquivalents(Note note) {
-		int o = note.properties.octave;
-		double d = note.properties.durationAsDouble;
-
-		Note[][] possibleEquivalents = new Note[5][2];
-
-		possibleEquivalents[0][0] = new Note("A", "#", o, d);
-		possibleEquivalents[0][1] = new Note("B", "b", o, d);
-		possibleEquivalents[1][0] = new Note("C", "#", o, d);
-		possibleEquivalents[1][1] = new Note("D", "b", o, d);
-		possibleEquivalents[2][0] = new Note("D", "#", o, d);
-		possibleEquivalents[2][1] = new Note("E", "b", o, d);
-		possibleEquivalents[3][0] = new Note("F", "#", o, d);
-		possibleEquivalents[3][1] = new Note("G", "b", o, d);
-		possibleEquivalents[4][0] = new Note("G", "#", o, d);
-		possibleEquivalents[4][1] = new Note("A", "b", o, d);
-
-		return possibleEquivalents;
+		final String fullName = equivalent.toString();
+		return new Note(new NoteName(fullName.substring(0, 1), fullName.substring(1)), note.properties);
 	}
 
 	/**
-	 * Resolves the German equivalent to the given note or <br>
-	 * returns this if note has no accidental and is not "B".
-	 * 
-	 * @param note
-	 *            The note to get the German equivalent from.
-	 * @return Returns the German equivalent note.
+	 * @return Returns the German name (e.g. "H" for B or "Fis" for F#).
 	 */
-	static Note resolveGermanEquivalent(Note note) {
-		if (!note.hasAccidental() && (!note.noteName.fullName.equals("B"))) {
-			return note;
-		}
-
-		Note[][] possibleEquivalents = getPossibleGermanEquivalents(note);
-
-		// TODO Abstract from iteration.
-		for (int i = 0; i < 9; i++) {
-			if (note.equals(possibleEquivalents[i][0])) {
-				return possibleEquivalents[i][1];
-			}
-		}
-
-		throw new IllegalArgumentException(String.format("Could not resolve German equivalent note to [%s].", note));
+	String getGermanName() {
+		return value.getGermanName();
 	}
 
-	// ESCA-JAVA0076:
-	private static Note[][] getPossibleGermanEquivalents(Note note) {
-		int o = note.properties.octave;
-		double d = note.properties.durationAsDouble;
-
-		Note[][] possibleEquivalents = new Note[9][2];
-
-		possibleEquivalents[0][0] = new Note("A", "#", o, d);
-		possibleEquivalents[0][1] = new Note("A", "is", o, d);
-		possibleEquivalents[1][0] = new Note("B", "", o, d);
-		possibleEquivalents[1][0] = new Note("H", "", o, d);
-		possibleEquivalents[2][0] = new Note("B", "b", o, d);
-		possibleEquivalents[2][1] = new Note("b", "", o, d);
-		possibleEquivalents[3][0] = new Note("C", "#", o, d);
-		possibleEquivalents[3][1] = new Note("C", "is", o, d);
-		possibleEquivalents[4][0] = new Note("D", "b", o, d);
-		possibleEquivalents[4][1] = new Note("D", "es", o, d);
-		possibleEquivalents[5][0] = new Note("E", "b", o, d);
-		possibleEquivalents[5][1] = new Note("E", "s", o, d);
-		possibleEquivalents[6][0] = new Note("F", "#", o, d);
-		possibleEquivalents[6][1] = new Note("F", "is", o, d);
-		possibleEquivalents[7][0] = new Note("G", "#", o, d);
-		possibleEquivalents[7][1] = new Note("G", "is", o, d);
-		possibleEquivalents[8][0] = new Note("G", "b", o, d);
-		possibleEquivalents[8][1] = new Note("G", "es", o, d);
-
-		return possibleEquivalents;
-	}
-
-	// ESCA-JAVA0131:
 	/**
 	 * Checks if two NoteNames are equal.
 	 * 
-	 * @param noteName
-	 *            The noteName to compare this noteName against.
+	 * @param obj
+	 *            The object to compare this noteName against.
 	 * @return Returns true only if noteNames are equal in name and accidental.
 	 */
-	boolean equals(NoteName noteName) {
-		return this.fullName.equals(noteName.fullName);
+	@Override
+	public boolean equals(Object obj) {
+		return obj instanceof NoteName && ((NoteName) obj).value == value;
+	}
+
+	@Override
+	public int hashCode() {
+		return value.ordinal();
 	}
 
 	@Override
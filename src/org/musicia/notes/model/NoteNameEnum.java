@@ -32,25 +32,139 @@ package org.musicia.notes.model;
  * Contains all possible English note names.
  * 
  * @author Thomas Schulz
- * @version 1.0
+ * @version 1.1
  */
 enum NoteNameEnum {
 
-	A("A"), Asharp("A#"), Aflat("Ab"),
-	B("B"),	Bflat("Bb"),
-	C("C"),	Csharp("C#"),
-	D("D"),	Dsharp("D#"), Dflat("Db"),
-	E("E"), Eflat("Eb"),
-	F("F"), Fsharp("F#"),
-	G("G"), Gsharp("G#"), Gflat("Gb");
+	A("A", 9, "A"), Asharp("A#", 10, "Ais"), Aflat("Ab", 8, "As"),
+	B("B", 11, "H"), Bflat("Bb", 10, "B"),
+	C("C", 0, "C"), Csharp("C#", 1, "Cis"),
+	D("D", 2, "D"), Dsharp("D#", 3, "Dis"), Dflat("Db", 1, "Des"),
+	E("E", 4, "E"), Eflat("Eb", 3, "Es"),
+	F("F", 5, "F"), Fsharp("F#", 6, "Fis"),
+	G("G", 7, "G"), Gsharp("G#", 8, "Gis"), Gflat("Gb", 6, "Ges");
+
+	/**
+	 * The sharp (or natural) note names in the order of their half tone distance from C.
+	 */
+	private static final NoteNameEnum[] SHARP_SPELLINGS = { C, Csharp, D, Dsharp, E, F, Fsharp, G, Gsharp, A, Asharp, B };
+
+	/**
+	 * The flat (or natural) note names in the order of their half tone distance from C.
+	 */
+	private static final NoteNameEnum[] FLAT_SPELLINGS = { C, Dflat, D, Eflat, E, F, Gflat, G, Aflat, A, Bflat, B };
+
+	/**
+	 * The enharmonic equivalent of every note name indexed by ordinal (natural notes are their own
+	 * equivalent).
+	 */
+	private static final NoteNameEnum[] EQUIVALENTS = new NoteNameEnum[values().length];
+
+	static {
+		for (final NoteNameEnum n : values()) {
+			final boolean blackKey = SHARP_SPELLINGS[n.semitone] != FLAT_SPELLINGS[n.semitone];
+			EQUIVALENTS[n.ordinal()] = blackKey ? forSemitone(n.semitone, !n.isFlat()) : n;
+		}
+	}
 
 	/**
 	 * The name of a note.
 	 */
 	private String name;
 
-	NoteNameEnum(String name) {
+	/**
+	 * The German name of a note (e.g. "H" for B or "Fis" for F#).
+	 */
+	private final String germanName;
+
+	/**
+	 * The distance in half tones from the C of the same octave.
+	 */
+	private final int semitone;
+
+	NoteNameEnum(String name, int semitone, String germanName) {
 		this.name = name;
+		this.semitone = semitone;
+		this.germanName = germanName;
+	}
+
+	/**
+	 * Looks up the note name without concatenating strings.
+	 * 
+	 * @param name
+	 *            The name of the note [A-G].
+	 * @param accidental
+	 *            The accidental of the note [#,b].
+	 * @return Returns the matching note name or null if there is none.
+	 */
+	static NoteNameEnum lookup(String name, String accidental) {
+		if (name.length() != 1) {
+			return null;
+		}
+		final boolean sharp = accidental.equals("#");
+		final boolean flat = accidental.equals("b");
+		if (!sharp && !flat && accidental.length() != 0) {
+			return null;
+		}
+		switch (name.charAt(0)) {
+		case 'A':
+			return sharp ? Asharp : (flat ? Aflat : A);
+		case 'B':
+			return sharp ? null : (flat ? Bflat : B);
+		case 'C':
+			return sharp ? Csharp : (flat ? null : C);
+		case 'D':
+			return sharp ? Dsharp : (flat ? Dflat : D);
+		case 'E':
+			return sharp ? null : (flat ? Eflat : E);
+		case 'F':
+			return sharp ? Fsharp : (flat ? null : F);
+		case 'G':
+			return sharp ? Gsharp : (flat ? Gflat : G);
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the note name with the given half tone distance from C.
+	 * 
+	 * @param semitone
+	 *            The distance in half tones from C [0-11].
+	 * @param flat
+	 *            Whether a black key should be spelled flat instead of sharp.
+	 * @return Returns the note name.
+	 */
+	static NoteNameEnum forSemitone(int semitone, boolean flat) {
+		return flat ? FLAT_SPELLINGS[semitone] : SHARP_SPELLINGS[semitone];
+	}
+
+	/**
+	 * @return Returns true only if this is a flat note name.
+	 */
+	boolean isFlat() {
+		return this == Aflat || this == Bflat || this == Dflat || this == Eflat || this == Gflat;
+	}
+
+	/**
+	 * @return Returns the enharmonic equivalent (e.g. Db for C#) or this for natural notes.
+	 */
+	NoteNameEnum getEquivalent() {
+		return EQUIVALENTS[ordinal()];
+	}
+
+	/**
+	 * @return Returns the German name (e.g. "H" for B or "Fis" for F#).
+	 */
+	String getGermanName() {
+		return germanName;
+	}
+
+	/**
+	 * @return Returns the distance in half tones from the C of the same octave.
+	 */
+	int getSemitone() {
+		return semitone;
 	}
 
 	public String toString() {
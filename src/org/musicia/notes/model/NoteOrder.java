@@ -28,29 +28,25 @@
  */
 package org.musicia.notes.model;
 
-import java.util.ArrayList;
-
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 /**
- * This class provides static methods for accessing the absolute order of notes. <br>
+ * This class provides methods for accessing the absolute order of notes. <br>
+ * The index of a note is computed arithmetically from its octave and the half tone distance of
+ * its name, so no lookup depends on the number of notes. <br>
  * <b>CAUTION:</b> There are only sharp notes in this list.
  * 
  * @author Thomas Schulz
- * @version 1.0
+ * @version 1.1
  */
 @Singleton
 public class NoteOrder {
 
-	// TODO Create method that throws IllegalArgumentException.
-
-	// TODO Clean up.
-
 	/**
 	 * The absolute note order.
 	 */
-	private final ArrayList<Note> noteOrder = new ArrayList<Note>(TOTAL_NUMBER_OF_NOTES);
+	private final Note[] noteOrder = new Note[TOTAL_NUMBER_OF_NOTES];
 
 	/**
 	 * The total number of supported notes.
@@ -58,14 +54,15 @@ public class NoteOrder {
 	private static final int TOTAL_NUMBER_OF_NOTES = 128;
 
 	/**
-	 * The highest supported octave.
+	 * The number of notes per octave.
 	 */
-	private static final int HIGHEST_OCTAVE = 10;
+	private static final int NUMBER_OF_NOTES_PER_OCTAVE = 12;
 
 	/**
-	 * The number of notes per octave.
+	 * The sharp note names in the order of their half tone distance from C.
 	 */
-	private static final int NUMBER_OF_NOTES_PER_OCTAVE = 12;
+	private static final String[][] SHARP_NAMES = { { "C", "" }, { "C", "#" }, { "D", "" }, { "D", "#" }, { "E", "" },
+			{ "F", "" }, { "F", "#" }, { "G", "" }, { "G", "#" }, { "A", "" }, { "A", "#" }, { "B", "" } };
 
 	private static boolean noteExceedsSupportedRange(final int index) {
 		return noteExceedsSupportedRange(index, 0);
@@ -87,47 +84,22 @@ public class NoteOrder {
 	 * This method assigns all 128 possible (sharp) notes.
 	 */
 	private void assignNotes() {
-
-		for (int i = 0; i < HIGHEST_OCTAVE; i++) {
-			noteOrder.add(new Note("C", "", i));
-			noteOrder.add(new Note("C", "#", i));
-			noteOrder.add(new Note("D", "", i));
-			noteOrder.add(new Note("D", "#", i));
-			noteOrder.add(new Note("E", "", i));
-			noteOrder.add(new Note("F", "", i));
-			noteOrder.add(new Note("F", "#", i));
-			noteOrder.add(new Note("G", "", i));
-			noteOrder.add(new Note("G", "#", i));
-			noteOrder.add(new Note("A", "", i));
-			noteOrder.add(new Note("A", "#", i));
-			noteOrder.add(new Note("B", "", i));
+		for (int i = 0; i < TOTAL_NUMBER_OF_NOTES; i++) {
+			final String[] name = SHARP_NAMES[i % NUMBER_OF_NOTES_PER_OCTAVE];
+			noteOrder[i] = Note.of(name[0], name[1], i / NUMBER_OF_NOTES_PER_OCTAVE);
 		}
-		noteOrder.add(new Note("C", "", HIGHEST_OCTAVE));
-		noteOrder.add(new Note("C", "#", HIGHEST_OCTAVE));
-		noteOrder.add(new Note("D", "", HIGHEST_OCTAVE));
-		noteOrder.add(new Note("D", "#", HIGHEST_OCTAVE));
-		noteOrder.add(new Note("E", "", HIGHEST_OCTAVE));
-		noteOrder.add(new Note("F", "", HIGHEST_OCTAVE));
-		noteOrder.add(new Note("F", "#", HIGHEST_OCTAVE));
-		noteOrder.add(new Note("G", "", HIGHEST_OCTAVE));
 	}
 
 	/*
-	 * This method is fast because there are at most 12 iterations necessary.
+	 * The index is the octave times 12 plus the half tone distance of the note name from C.
+	 * Sharp and flat spellings of the same pitch therefore share one index.
 	 */
-	private int fastSearch(final Note note) {
-
-		if (note.getAccidental().equals("b")) {
-			return fastSearch(note.getEquivalent());
-		}
-
-		final int o = note.getOctave();
-		for (int i = NUMBER_OF_NOTES_PER_OCTAVE * o; i < NUMBER_OF_NOTES_PER_OCTAVE * (o + 1); i++) {
-			if (noteOrder.get(i).equalsName(note)) {
-				return i;
-			}
+	private static int computeIndex(final Note note) {
+		final int index = NUMBER_OF_NOTES_PER_OCTAVE * note.properties.octave + note.noteName.value.getSemitone();
+		if (noteExceedsSupportedRange(index)) {
+			throw new IllegalArgumentException(String.format("The note [%s] is invalid.", note));
 		}
-		throw new IllegalArgumentException(String.format("The note [%s] is invalid.", note));
+		return index;
 	}
 
 	/**
@@ -153,7 +125,8 @@ public class NoteOrder {
 	}
 
 	/**
-	 * Convenience method. Computes the desired transposed note by the given distance.
+	 * Convenience method. Computes the desired transposed note by the given distance. <br>
+	 * The duration of the given note is preserved.
 	 * 
 	 * @param note
 	 *            The note to transpose.
@@ -162,12 +135,16 @@ public class NoteOrder {
 	 * @return Returns a transposed note.
 	 */
 	public Note getTransposedNote(final Note note, final int distance) {
-		final int indexOfNote = fastSearch(note);
+		final int indexOfNote = computeIndex(note);
 		if (noteExceedsSupportedRange(indexOfNote, distance)) {
 			throw new IllegalArgumentException(String.format(
 					"The transposition of the note [%s] by [%s] exceeds the range of supported notes.", note, distance));
 		}
-		return noteAt(indexOfNote + distance);
+		final Note transposed = noteOrder[indexOfNote + distance];
+		if (transposed.properties.durationAsDouble == note.properties.durationAsDouble) {
+			return transposed;
+		}
+		return NotePool.lookup(transposed.noteName.value, transposed.properties.octave, note.properties.durationAsDouble);
 	}
 
 	/**
@@ -179,7 +156,7 @@ public class NoteOrder {
 	 * @return Returns the index of the note in the note order.
 	 */
 	public int indexOf(final Note note) {
-		return fastSearch(note);
+		return computeIndex(note);
 	}
 
 	/**
@@ -191,10 +168,9 @@ public class NoteOrder {
 	 */
 	public Note noteAt(final int index) {
 		if (noteExceedsSupportedRange(index)) {
-			throw new IllegalArgumentException(String.format("The index [%s] by [%s] exceeds the" + " range of supported notes.",
-					index));
+			throw new IllegalArgumentException(String.format("The index [%s] exceeds the range of supported notes.", index));
 		}
-		return noteOrder.get(index);
+		return noteOrder[index];
 	}
 
 }
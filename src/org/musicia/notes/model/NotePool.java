@@ -0,0 +1,155 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.model;
+
+/**
+ * This class holds the canonical instances of all supported notes (flyweights). <br>
+ * The pool is built once and contains every spelling of the 128 supported pitches in every
+ * supported duration. Names and properties are shared between the pooled notes.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+final class NotePool {
+
+	/**
+	 * The total number of supported notes.
+	 */
+	private static final int TOTAL_NUMBER_OF_NOTES = 128;
+
+	/**
+	 * The number of notes per octave.
+	 */
+	private static final int NUMBER_OF_NOTES_PER_OCTAVE = 12;
+
+	/**
+	 * The number of octaves [0-10].
+	 */
+	private static final int NUMBER_OF_OCTAVES = 11;
+
+	/**
+	 * The pooled notes indexed by name, octave and duration.
+	 */
+	private static final Note[][][] POOL = buildPool();
+
+	private NotePool() {
+	}
+
+	private static Note[][][] buildPool() {
+		final NoteNameEnum[] names = NoteNameEnum.values();
+		final int numberOfDurations = NoteProperties.DURATION_TABLE.getNumberOfSupportedDurations();
+
+		final NoteProperties[][] properties = new NoteProperties[NUMBER_OF_OCTAVES][numberOfDurations];
+		for (int o = 0; o < NUMBER_OF_OCTAVES; o++) {
+			for (int d = 0; d < numberOfDurations; d++) {
+				properties[o][d] = new NoteProperties(o, NoteProperties.DURATION_TABLE.getAsDouble(d));
+			}
+		}
+
+		final Note[][][] pool = new Note[names.length][NUMBER_OF_OCTAVES][numberOfDurations];
+		for (final NoteNameEnum n : names) {
+			final String fullName = n.toString();
+			final NoteName noteName = new NoteName(fullName.substring(0, 1), fullName.substring(1));
+			for (int o = 0; o < NUMBER_OF_OCTAVES; o++) {
+				if (!isSupported(n, o)) {
+					continue;
+				}
+				for (int d = 0; d < numberOfDurations; d++) {
+					pool[n.ordinal()][o][d] = new Note(noteName, properties[o][d]);
+				}
+			}
+		}
+		return pool;
+	}
+
+	private static boolean isSupported(final NoteNameEnum name, final int octave) {
+		if (octave < 0 || octave >= NUMBER_OF_OCTAVES) {
+			return false;
+		}
+		return NUMBER_OF_NOTES_PER_OCTAVE * octave + name.getSemitone() < TOTAL_NUMBER_OF_NOTES;
+	}
+
+	/**
+	 * Looks up the canonical note.
+	 * 
+	 * @param name
+	 *            The name of the note [A-G].
+	 * @param accidental
+	 *            The accidental of the note [#,b].
+	 * @param octave
+	 *            The pitch of the note [C-0 until G-10 where middle C is C-5].
+	 * @param duration
+	 *            The duration of the note as floating point number [e.g. 0.25 for quarter].
+	 * @return Returns the pooled note or null if the note is not part of the pool.
+	 */
+	static Note lookup(final String name, final String accidental, final int octave, final double duration) {
+		final NoteNameEnum n = NoteNameEnum.lookup(name, accidental);
+		if (n == null) {
+			return null;
+		}
+		return lookup(n, octave, duration);
+	}
+
+	/**
+	 * Looks up the canonical note.
+	 * 
+	 * @param name
+	 *            The name and accidental of the note.
+	 * @param octave
+	 *            The pitch of the note [C-0 until G-10 where middle C is C-5].
+	 * @param duration
+	 *            The duration of the note as floating point number [e.g. 0.25 for quarter].
+	 * @return Returns the pooled note or null if the note is not part of the pool.
+	 */
+	static Note lookup(final NoteNameEnum name, final int octave, final double duration) {
+		if (!isSupported(name, octave)) {
+			return null;
+		}
+		return get(name, octave, NoteProperties.DURATION_TABLE.getIndex(duration));
+	}
+
+	/**
+	 * Looks up the canonical note.
+	 * 
+	 * @param name
+	 *            The name and accidental of the note.
+	 * @param octave
+	 *            The pitch of the note [C-0 until G-10 where middle C is C-5].
+	 * @param durationIndex
+	 *            The position of the duration in the duration table [0-14].
+	 * @return Returns the pooled note or null if the note is not part of the pool.
+	 */
+	static Note get(final NoteNameEnum name, final int octave, final int durationIndex) {
+		if (!isSupported(name, octave)) {
+			return null;
+		}
+		return POOL[name.ordinal()][octave][durationIndex];
+	}
+
+}
@@ -28,36 +28,40 @@
  */
 package org.musicia.notes.model;
 
-import com.google.inject.Inject;
-
 /**
- * This class encapsulates the essential properties of a note.
+ * This class encapsulates the essential properties of a note. <br>
+ * Instances are immutable and may be shared between notes.
  * 
  * @author Thomas Schulz
- * @version 1.0
+ * @version 1.1
  */
 class NoteProperties {
 
 	/**
 	 * The pitch of the note [0-10].
 	 */
-	int octave = 5;
+	final int octave;
 
 	/**
 	 * This field models the duration of a note (e.g. 0.25 for a quarter note).
 	 */
-	double durationAsDouble = 0.25;
+	final double durationAsDouble;
 
 	/**
 	 * This field models the duration of a note (e.g. "q" for a quarter note).
 	 */
-	String durationAsString = "q";
+	final String durationAsString;
+
+	/**
+	 * The position of the duration in the duration table (e.g. 4 for a quarter note).
+	 */
+	final int durationIndex;
 
 	/**
-	 * The table that contains durations as string and double.
+	 * The table that contains durations as string and double. <br>
+	 * Notes are created outside of the injector, so the table is shared statically.
 	 */
-	@Inject(optional = true)
-	NoteDurationTable durationTable;
+	static final NoteDurationTable DURATION_TABLE = new NoteDurationTable();
 
 	/**
 	 * Creates new note properties.
@@ -68,9 +72,7 @@ class NoteProperties {
 	 *            The duration of the note as floating point number [0.25 for quarter].
 	 */
 	NoteProperties(int octave, double duration) {
-		this.octave = octave;
-		this.durationAsDouble = duration;
-		this.durationAsString = durationTable.getAsString(duration);
+		this(octave, DURATION_TABLE.getIndex(duration));
 	}
 
 	/**
@@ -82,21 +84,43 @@ class NoteProperties {
 	 *            The duration of the note as string ["q" for quarter].
 	 */
 	NoteProperties(int octave, String duration) {
+		this(octave, DURATION_TABLE.getIndex(duration));
+	}
+
+	/**
+	 * Creates new note properties.
+	 * 
+	 * @param octave
+	 *            The pitch of the note [C-0 until G-10 where middle C is C-5].
+	 * @param durationIndex
+	 *            The position of the duration in the duration table [4 for quarter].
+	 */
+	private NoteProperties(int octave, int durationIndex) {
 		this.octave = octave;
-		this.durationAsString = duration;
-		this.durationAsDouble = durationTable.getAsDouble(duration);
+		this.durationIndex = durationIndex;
+		this.durationAsDouble = DURATION_TABLE.getAsDouble(durationIndex);
+		this.durationAsString = DURATION_TABLE.getAsString(durationIndex);
 	}
 
-	// ESCA-JAVA0131:
 	/**
-	 * Checks if two NoteNames are equal.
+	 * Checks if two NoteProperties are equal.
 	 * 
-	 * @param properties
-	 *            The NoteProperties to compare this NoteProperties against.
-	 * @return Returns true only if noteNames are equal in octave and duration.
+	 * @param obj
+	 *            The object to compare this NoteProperties against.
+	 * @return Returns true only if both properties are equal in octave and duration.
 	 */
-	boolean equals(NoteProperties properties) {
-		return (this.octave == properties.octave && this.durationAsString.equals(properties.durationAsString));
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof NoteProperties)) {
+			return false;
+		}
+		final NoteProperties properties = (NoteProperties) obj;
+		return octave == properties.octave && durationIndex == properties.durationIndex;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * octave + durationIndex;
 	}
 
 	public String toString() {
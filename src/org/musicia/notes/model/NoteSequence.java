@@ -0,0 +1,400 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class stores a sequence of notes as packed integers. <br>
+ * <br>
+ * Every note is encoded in one <code>int</code>: <br>
+ * - bits 0-6: the absolute index of the note [0-127] (see {@link NoteOrder}) <br>
+ * - bit 7: set if a black key is spelled flat <br>
+ * - bits 8-11: the position of the duration in the {@link NoteDurationTable} [0-14] <br>
+ * <br>
+ * Use {@link #get(int)} together with the static accessors to iterate without creating objects.
+ * Views created by {@link #subSequence(int, int)} share the underlying array and are read-only.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class NoteSequence implements Iterable<Note> {
+
+	/**
+	 * The mask of the absolute index.
+	 */
+	private static final int INDEX_MASK = 0x7F;
+
+	/**
+	 * The flag of a flat spelling.
+	 */
+	private static final int FLAT_FLAG = 0x80;
+
+	/**
+	 * The shift of the duration.
+	 */
+	private static final int DURATION_SHIFT = 8;
+
+	/**
+	 * The mask of the duration (after shifting).
+	 */
+	private static final int DURATION_MASK = 0xF;
+
+	/**
+	 * The number of notes per octave.
+	 */
+	private static final int NUMBER_OF_NOTES_PER_OCTAVE = 12;
+
+	/**
+	 * The total number of supported notes.
+	 */
+	private static final int TOTAL_NUMBER_OF_NOTES = 128;
+
+	/**
+	 * The initial capacity of a sequence.
+	 */
+	private static final int DEFAULT_CAPACITY = 64;
+
+	/**
+	 * The packed notes.
+	 */
+	private int[] packedNotes;
+
+	/**
+	 * The position of the first note of this sequence in <code>packedNotes</code>.
+	 */
+	private final int offset;
+
+	/**
+	 * The number of notes in this sequence.
+	 */
+	private int size;
+
+	/**
+	 * True only if this sequence is a view of another sequence.
+	 */
+	private final boolean view;
+
+	/**
+	 * Creates a new empty note sequence.
+	 */
+	public NoteSequence() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new empty note sequence.
+	 * 
+	 * @param capacity
+	 *            The number of notes which can be added before the sequence has to grow.
+	 */
+	public NoteSequence(int capacity) {
+		this.packedNotes = new int[Math.max(capacity, 1)];
+		this.offset = 0;
+		this.size = 0;
+		this.view = false;
+	}
+
+	/**
+	 * Creates a new note sequence which contains the given notes.
+	 * 
+	 * @param notes
+	 *            The notes to store.
+	 */
+	public NoteSequence(List<Note> notes) {
+		this(notes.size());
+		for (final Note note : notes) {
+			add(note);
+		}
+	}
+
+	private NoteSequence(int[] packedNotes, int offset, int size) {
+		this.packedNotes = packedNotes;
+		this.offset = offset;
+		this.size = size;
+		this.view = true;
+	}
+
+	/**
+	 * Encodes the given note.
+	 * 
+	 * @param note
+	 *            The note to encode.
+	 * @return Returns the packed note.
+	 */
+	public static int pack(Note note) {
+		final int index = NUMBER_OF_NOTES_PER_OCTAVE * note.properties.octave + note.noteName.value.getSemitone();
+		if (index < 0 || index >= TOTAL_NUMBER_OF_NOTES) {
+			throw new IllegalArgumentException(String.format("The note [%s] is invalid.", note));
+		}
+		return pack(index, note.noteName.value.isFlat(), note.properties.durationIndex);
+	}
+
+	/**
+	 * Encodes the given note.
+	 * 
+	 * @param index
+	 *            The absolute index of the note [0-127].
+	 * @param flat
+	 *            Whether a black key should be spelled flat.
+	 * @param durationIndex
+	 *            The position of the duration in the duration table [0-14].
+	 * @return Returns the packed note.
+	 */
+	public static int pack(int index, boolean flat, int durationIndex) {
+		return (index & INDEX_MASK) | (flat ? FLAT_FLAG : 0) | ((durationIndex & DURATION_MASK) << DURATION_SHIFT);
+	}
+
+	/**
+	 * Decodes the given note.
+	 * 
+	 * @param packedNote
+	 *            The packed note.
+	 * @return Returns the canonical note.
+	 */
+	public static Note unpack(int packedNote) {
+		final int index = indexOf(packedNote);
+		final NoteNameEnum name = NoteNameEnum.forSemitone(index % NUMBER_OF_NOTES_PER_OCTAVE, isFlat(packedNote));
+		return NotePool.get(name, index / NUMBER_OF_NOTES_PER_OCTAVE, durationIndexOf(packedNote));
+	}
+
+	/**
+	 * Changes the spelling of the given note. Only black keys are affected when decoding.
+	 * 
+	 * @param packedNote
+	 *            The packed note.
+	 * @param flat
+	 *            Whether a black key should be spelled flat.
+	 * @return Returns the packed note with the given spelling.
+	 */
+	public static int respell(int packedNote, boolean flat) {
+		return (packedNote & ~FLAT_FLAG) | (flat ? FLAT_FLAG : 0);
+	}
+
+	/**
+	 * @param packedNote
+	 *            The packed note.
+	 * @return Returns the absolute index of the note [0-127].
+	 */
+	public static int indexOf(int packedNote) {
+		return packedNote & INDEX_MASK;
+	}
+
+	/**
+	 * @param packedNote
+	 *            The packed note.
+	 * @return Returns true only if a black key is spelled flat.
+	 */
+	public static boolean isFlat(int packedNote) {
+		return (packedNote & FLAT_FLAG) != 0;
+	}
+
+	/**
+	 * @param packedNote
+	 *            The packed note.
+	 * @return Returns the position of the duration in the duration table [0-14].
+	 */
+	public static int durationIndexOf(int packedNote) {
+		return (packedNote >>> DURATION_SHIFT) & DURATION_MASK;
+	}
+
+	/**
+	 * Appends the given note.
+	 * 
+	 * @param note
+	 *            The note to append.
+	 */
+	public void add(Note note) {
+		add(pack(note));
+	}
+
+	/**
+	 * Appends the given packed note.
+	 * 
+	 * @param packedNote
+	 *            The packed note to append.
+	 */
+	public void add(int packedNote) {
+		if (view) {
+			throw new UnsupportedOperationException("A view of a note sequence is read-only.");
+		}
+		if (size == packedNotes.length) {
+			packedNotes = Arrays.copyOf(packedNotes, packedNotes.length + (packedNotes.length >> 1) + 1);
+		}
+		packedNotes[size++] = packedNote;
+	}
+
+	/**
+	 * Returns the packed note at the given position.
+	 * 
+	 * @param position
+	 *            The 0-based position of the note.
+	 * @return Returns the packed note.
+	 */
+	public int get(int position) {
+		checkPosition(position);
+		return packedNotes[offset + position];
+	}
+
+	/**
+	 * Returns the note at the given position.
+	 * 
+	 * @param position
+	 *            The 0-based position of the note.
+	 * @return Returns the canonical note.
+	 */
+	public Note getNote(int position) {
+		return unpack(get(position));
+	}
+
+	private void checkPosition(int position) {
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException(String.format("The position [%s] exceeds the size [%s].", position, size));
+		}
+	}
+
+	/**
+	 * @return Returns the number of notes.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Sums up the durations of all notes exactly (see {@link NoteDuration}).
+	 * 
+	 * @return Returns the length of this sequence as ticks.
+	 */
+	public long getLengthInTicks() {
+		long result = 0L;
+		for (int i = offset; i < offset + size; i++) {
+			result += NoteDurationTable.getTicks(durationIndexOf(packedNotes[i]));
+		}
+		return result;
+	}
+
+	/**
+	 * @return Returns true only if there are no notes.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Creates a sequence which takes ownership of the given packed notes (they are not copied).
+	 * 
+	 * @param packedNotes
+	 *            The packed notes.
+	 * @return Returns the sequence.
+	 */
+	public static NoteSequence wrap(int[] packedNotes) {
+		final NoteSequence sequence = new NoteSequence(0);
+		sequence.packedNotes = packedNotes;
+		sequence.size = packedNotes.length;
+		return sequence;
+	}
+
+	/**
+	 * Returns a read-only view of a part of this sequence without copying any notes.
+	 * 
+	 * @param from
+	 *            The position of the first note (inclusive).
+	 * @param to
+	 *            The position of the last note (exclusive).
+	 * @return Returns the view.
+	 */
+	public NoteSequence subSequence(int from, int to) {
+		if (from < 0 || to > size || from > to) {
+			throw new IndexOutOfBoundsException(String.format("The range [%s, %s) exceeds the size [%s].", from, to, size));
+		}
+		return new NoteSequence(packedNotes, offset + from, to - from);
+	}
+
+	/**
+	 * Copies the packed notes into a new array.
+	 * 
+	 * @return Returns the packed notes.
+	 */
+	public int[] toArray() {
+		return Arrays.copyOfRange(packedNotes, offset, offset + size);
+	}
+
+	/**
+	 * Converts this sequence for the APIs which work with note lists.
+	 * 
+	 * @return Returns the notes of this sequence.
+	 */
+	public ArrayList<Note> toList() {
+		final ArrayList<Note> notes = new ArrayList<Note>(size);
+		for (int i = 0; i < size; i++) {
+			notes.add(unpack(packedNotes[offset + i]));
+		}
+		return notes;
+	}
+
+	/**
+	 * The returned notes are the canonical instances, so iterating does not create notes.
+	 */
+	@Override
+	public Iterator<Note> iterator() {
+		return new Iterator<Note>() {
+
+			private int position = 0;
+
+			@Override
+			public boolean hasNext() {
+				return position < size;
+			}
+
+			@Override
+			public Note next() {
+				if (position >= size) {
+					throw new NoSuchElementException();
+				}
+				return unpack(packedNotes[offset + position++]);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException("A note sequence does not support removal.");
+			}
+
+		};
+	}
+
+	@Override
+	public String toString() {
+		return toList().toString();
+	}
+
+}
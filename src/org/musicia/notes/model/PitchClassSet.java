@@ -0,0 +1,256 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.model;
+
+/**
+ * This class represents a set of pitch classes (notes regardless of their octave and spelling)
+ * as a 12-bit mask: bit 0 is C, bit 11 is B. <br>
+ * <br>
+ * All 4096 sets are created in advance, so no operation allocates.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class PitchClassSet {
+
+	/**
+	 * The number of pitch classes.
+	 */
+	private static final int NUMBER_OF_PITCH_CLASSES = 12;
+
+	/**
+	 * The number of different sets.
+	 */
+	private static final int NUMBER_OF_SETS = 1 << NUMBER_OF_PITCH_CLASSES;
+
+	/**
+	 * The mask of all pitch classes.
+	 */
+	private static final int ALL = NUMBER_OF_SETS - 1;
+
+	/**
+	 * All sets indexed by their mask.
+	 */
+	private static final PitchClassSet[] SETS = new PitchClassSet[NUMBER_OF_SETS];
+
+	static {
+		for (int mask = 0; mask < NUMBER_OF_SETS; mask++) {
+			SETS[mask] = new PitchClassSet(mask);
+		}
+	}
+
+	/**
+	 * The empty set.
+	 */
+	public static final PitchClassSet EMPTY = SETS[0];
+
+	/**
+	 * The set of all pitch classes.
+	 */
+	public static final PitchClassSet CHROMATIC = SETS[ALL];
+
+	/**
+	 * The pitch class names (sharp spelling).
+	 */
+	private static final String[] NAMES = { "C", "C#", "D", "D#", "E", "F", "F#", "G", "G#", "A", "A#", "B" };
+
+	/**
+	 * The 12-bit mask.
+	 */
+	private final int mask;
+
+	private PitchClassSet(final int mask) {
+		this.mask = mask;
+	}
+
+	/**
+	 * @param mask
+	 *            The 12-bit mask (bit 0 is C, bit 11 is B).
+	 * @return Returns the set of the given mask.
+	 */
+	public static PitchClassSet of(final int mask) {
+		if ((mask & ~ALL) != 0) {
+			throw new IllegalArgumentException(String.format("The pitch class mask [%s] is invalid.", mask));
+		}
+		return SETS[mask];
+	}
+
+	/**
+	 * @param notes
+	 *            The notes.
+	 * @return Returns the set of the pitch classes of the given notes.
+	 */
+	public static PitchClassSet of(final Iterable<Note> notes) {
+		int result = 0;
+		for (final Note note : notes) {
+			result |= 1 << note.noteName.value.getSemitone();
+		}
+		return SETS[result];
+	}
+
+	/**
+	 * @param pitchClasses
+	 *            The half tone distances from C [0-11].
+	 * @return Returns the set of the given pitch classes.
+	 */
+	public static PitchClassSet ofPitchClasses(final int... pitchClasses) {
+		int result = 0;
+		for (final int pitchClass : pitchClasses) {
+			checkPitchClass(pitchClass);
+			result |= 1 << pitchClass;
+		}
+		return SETS[result];
+	}
+
+	private static void checkPitchClass(final int pitchClass) {
+		if (pitchClass < 0 || pitchClass >= NUMBER_OF_PITCH_CLASSES) {
+			throw new IllegalArgumentException(String.format("The pitch class [%s] is invalid.", pitchClass));
+		}
+	}
+
+	/**
+	 * @return Returns the 12-bit mask (bit 0 is C, bit 11 is B).
+	 */
+	public int getMask() {
+		return mask;
+	}
+
+	/**
+	 * @return Returns the number of pitch classes.
+	 */
+	public int size() {
+		return Integer.bitCount(mask);
+	}
+
+	/**
+	 * @return Returns true only if this set contains no pitch class.
+	 */
+	public boolean isEmpty() {
+		return mask == 0;
+	}
+
+	/**
+	 * @param pitchClass
+	 *            The half tone distance from C [0-11].
+	 * @return Returns true only if this set contains the given pitch class.
+	 */
+	public boolean contains(final int pitchClass) {
+		checkPitchClass(pitchClass);
+		return (mask >>> pitchClass & 1) != 0;
+	}
+
+	/**
+	 * @param note
+	 *            The note.
+	 * @return Returns true only if this set contains the pitch class of the given note.
+	 */
+	public boolean contains(final Note note) {
+		return (mask >>> note.noteName.value.getSemitone() & 1) != 0;
+	}
+
+	/**
+	 * @param other
+	 *            Another set.
+	 * @return Returns true only if this set contains all pitch classes of the other set.
+	 */
+	public boolean containsAll(final PitchClassSet other) {
+		return (other.mask & ~mask) == 0;
+	}
+
+	/**
+	 * @param other
+	 *            Another set.
+	 * @return Returns the pitch classes of both sets.
+	 */
+	public PitchClassSet union(final PitchClassSet other) {
+		return SETS[mask | other.mask];
+	}
+
+	/**
+	 * @param other
+	 *            Another set.
+	 * @return Returns the pitch classes contained in both sets.
+	 */
+	public PitchClassSet intersection(final PitchClassSet other) {
+		return SETS[mask & other.mask];
+	}
+
+	/**
+	 * @param other
+	 *            Another set.
+	 * @return Returns the pitch classes of this set which the other set does not contain.
+	 */
+	public PitchClassSet difference(final PitchClassSet other) {
+		return SETS[mask & ~other.mask];
+	}
+
+	/**
+	 * @return Returns the pitch classes which this set does not contain.
+	 */
+	public PitchClassSet complement() {
+		return SETS[~mask & ALL];
+	}
+
+	/**
+	 * Transposes this set by rotating its mask.
+	 * 
+	 * @param distance
+	 *            The distance in half tones, may be negative.
+	 * @return Returns the transposed set.
+	 */
+	public PitchClassSet transpose(final int distance) {
+		final int shift = (distance % NUMBER_OF_PITCH_CLASSES + NUMBER_OF_PITCH_CLASSES) % NUMBER_OF_PITCH_CLASSES;
+		return SETS[(mask << shift | mask >>> NUMBER_OF_PITCH_CLASSES - shift) & ALL];
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		return obj instanceof PitchClassSet && ((PitchClassSet) obj).mask == mask;
+	}
+
+	@Override
+	public int hashCode() {
+		return mask;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder result = new StringBuilder("[");
+		for (int i = 0; i < NUMBER_OF_PITCH_CLASSES; i++) {
+			if ((mask >>> i & 1) != 0) {
+				if (result.length() > 1) {
+					result.append(", ");
+				}
+				result.append(NAMES[i]);
+			}
+		}
+		return result.append(']').toString();
+	}
+
+}
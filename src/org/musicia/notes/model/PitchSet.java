@@ -0,0 +1,271 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.model;
+
+/**
+ * This class represents a set of absolute pitches (notes regardless of their spelling) as a
+ * 128-bit mask: bit 0 is C0, bit 127 is G10.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class PitchSet {
+
+	/**
+	 * The number of notes per octave.
+	 */
+	private static final int NUMBER_OF_NOTES_PER_OCTAVE = 12;
+
+	/**
+	 * The total number of supported notes.
+	 */
+	private static final int TOTAL_NUMBER_OF_NOTES = 128;
+
+	/**
+	 * The index of C5, the octave split between the low and the high bits.
+	 */
+	private static final int C5 = 60;
+
+	/**
+	 * The mask of the pitch classes of one octave.
+	 */
+	private static final int PITCH_CLASS_MASK = 0xFFF;
+
+	/**
+	 * The empty set.
+	 */
+	public static final PitchSet EMPTY = new PitchSet(0L, 0L);
+
+	/**
+	 * The pitches C0 - D#5.
+	 */
+	private final long low;
+
+	/**
+	 * The pitches E5 - G10.
+	 */
+	private final long high;
+
+	private PitchSet(final long low, final long high) {
+		this.low = low;
+		this.high = high;
+	}
+
+	/**
+	 * @param notes
+	 *            The notes.
+	 * @return Returns the set of the pitches of the given notes.
+	 */
+	public static PitchSet of(final Iterable<Note> notes) {
+		long low = 0L;
+		long high = 0L;
+		for (final Note note : notes) {
+			final int index = indexOf(note);
+			if (index < Long.SIZE) {
+				low |= 1L << index;
+			} else {
+				high |= 1L << index;
+			}
+		}
+		return new PitchSet(low, high);
+	}
+
+	/**
+	 * @param indexes
+	 *            The absolute indexes of the pitches [0-127].
+	 * @return Returns the set of the given pitches.
+	 */
+	public static PitchSet ofIndexes(final int... indexes) {
+		long low = 0L;
+		long high = 0L;
+		for (final int index : indexes) {
+			checkIndex(index);
+			if (index < Long.SIZE) {
+				low |= 1L << index;
+			} else {
+				high |= 1L << index;
+			}
+		}
+		return new PitchSet(low, high);
+	}
+
+	private static int indexOf(final Note note) {
+		final int index = NUMBER_OF_NOTES_PER_OCTAVE * note.properties.octave + note.noteName.value.getSemitone();
+		if (index < 0 || index >= TOTAL_NUMBER_OF_NOTES) {
+			throw new IllegalArgumentException(String.format("The note [%s] is invalid.", note));
+		}
+		return index;
+	}
+
+	private static void checkIndex(final int index) {
+		if (index < 0 || index >= TOTAL_NUMBER_OF_NOTES) {
+			throw new IllegalArgumentException(String.format(
+					"The index [%s] exceeds the range of supported notes.", index));
+		}
+	}
+
+	/**
+	 * @return Returns the number of pitches.
+	 */
+	public int size() {
+		return Long.bitCount(low) + Long.bitCount(high);
+	}
+
+	/**
+	 * @return Returns true only if this set contains no pitch.
+	 */
+	public boolean isEmpty() {
+		return (low | high) == 0L;
+	}
+
+	/**
+	 * @param index
+	 *            The absolute index of the pitch [0-127].
+	 * @return Returns true only if this set contains the given pitch.
+	 */
+	public boolean contains(final int index) {
+		checkIndex(index);
+		return ((index < Long.SIZE ? low : high) >>> index & 1L) != 0L;
+	}
+
+	/**
+	 * @param note
+	 *            The note.
+	 * @return Returns true only if this set contains the pitch of the given note.
+	 */
+	public boolean contains(final Note note) {
+		return contains(indexOf(note));
+	}
+
+	/**
+	 * @param other
+	 *            Another set.
+	 * @return Returns true only if this set contains all pitches of the other set.
+	 */
+	public boolean containsAll(final PitchSet other) {
+		return (other.low & ~low) == 0L && (other.high & ~high) == 0L;
+	}
+
+	/**
+	 * @param other
+	 *            Another set.
+	 * @return Returns the pitches of both sets.
+	 */
+	public PitchSet union(final PitchSet other) {
+		return new PitchSet(low | other.low, high | other.high);
+	}
+
+	/**
+	 * @param other
+	 *            Another set.
+	 * @return Returns the pitches contained in both sets.
+	 */
+	public PitchSet intersection(final PitchSet other) {
+		return new PitchSet(low & other.low, high & other.high);
+	}
+
+	/**
+	 * @param other
+	 *            Another set.
+	 * @return Returns the pitches of this set which the other set does not contain.
+	 */
+	public PitchSet difference(final PitchSet other) {
+		return new PitchSet(low & ~other.low, high & ~other.high);
+	}
+
+	/**
+	 * Transposes this set by shifting its mask. Pitches leaving the range of supported notes are
+	 * dropped.
+	 * 
+	 * @param distance
+	 *            The distance in half tones, may be negative.
+	 * @return Returns the transposed set.
+	 */
+	public PitchSet transpose(final int distance) {
+		if (distance >= TOTAL_NUMBER_OF_NOTES || distance <= -TOTAL_NUMBER_OF_NOTES) {
+			return EMPTY;
+		} else if (distance >= Long.SIZE) {
+			return new PitchSet(0L, low << distance - Long.SIZE);
+		} else if (distance > 0) {
+			return new PitchSet(low << distance, high << distance | low >>> Long.SIZE - distance);
+		} else if (distance <= -Long.SIZE) {
+			return new PitchSet(high >>> -distance - Long.SIZE, 0L);
+		} else if (distance < 0) {
+			return new PitchSet(low >>> -distance | high << Long.SIZE + distance, high >>> -distance);
+		}
+		return this;
+	}
+
+	/**
+	 * @return Returns the pitch classes of this set.
+	 */
+	public PitchClassSet toPitchClassSet() {
+		int mask = 0;
+		// octaves 0 - 4 are in the low bits, octave 5 is split, octaves 6 - 10 are in the high bits
+		for (int index = 0; index < C5; index += NUMBER_OF_NOTES_PER_OCTAVE) {
+			mask |= (int) (low >>> index);
+		}
+		mask |= (int) (low >>> C5 | high << Long.SIZE - C5);
+		final int c6 = C5 + NUMBER_OF_NOTES_PER_OCTAVE - Long.SIZE;
+		for (int index = c6; index < Long.SIZE; index += NUMBER_OF_NOTES_PER_OCTAVE) {
+			mask |= (int) (high >>> index);
+		}
+		return PitchClassSet.of(mask & PITCH_CLASS_MASK);
+	}
+
+	@Override
+	public boolean equals(final Object obj) {
+		if (!(obj instanceof PitchSet)) {
+			return false;
+		}
+		final PitchSet other = (PitchSet) obj;
+		return other.low == low && other.high == high;
+	}
+
+	@Override
+	public int hashCode() {
+		final long bits = low * 31 + high;
+		return (int) (bits ^ bits >>> Integer.SIZE);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder result = new StringBuilder("[");
+		for (int index = 0; index < TOTAL_NUMBER_OF_NOTES; index++) {
+			if (((index < Long.SIZE ? low : high) >>> index & 1L) != 0L) {
+				if (result.length() > 1) {
+					result.append(", ");
+				}
+				result.append(index);
+			}
+		}
+		return result.append(']').toString();
+	}
+
+}
@@ -0,0 +1,226 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.util;
+
+import org.musicia.notes.model.NoteSequence;
+
+/**
+ * This class transposes whole arrays of notes by several distances at once. <br>
+ * <br>
+ * The range of the input is checked once per distance, so the inner loops consist of a single
+ * addition per note and can be vectorized by the JIT compiler. Results are returned as a matrix
+ * with one row per distance.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class BatchTransposer {
+
+	/**
+	 * The total number of supported notes.
+	 */
+	private static final int TOTAL_NUMBER_OF_NOTES = 128;
+
+	/**
+	 * The number of notes per octave.
+	 */
+	private static final int NUMBER_OF_NOTES_PER_OCTAVE = 12;
+
+	/**
+	 * The major keys (by half tone distance from C) which are written with flats: F, Bb, Eb, Ab
+	 * and Db. F#/Gb is written with sharps like in the right half of the circle of fifth.
+	 */
+	private static final boolean[] FLAT_KEYS = { false, true, false, true, false, true, false, false, true, false, true,
+			false };
+
+	private BatchTransposer() {
+	}
+
+	/**
+	 * Transposes the given absolute note indexes by every given distance.
+	 * 
+	 * @param indexes
+	 *            The absolute indexes of the notes [0-127].
+	 * @param distances
+	 *            The transposition distances.
+	 * @return Returns the transposed indexes, one row per distance.
+	 */
+	public static int[][] transpose(final int[] indexes, final int[] distances) {
+		final int[][] result = new int[distances.length][indexes.length];
+		if (indexes.length == 0) {
+			return result;
+		}
+		final int min = min(indexes);
+		final int max = max(indexes);
+		for (int d = 0; d < distances.length; d++) {
+			final int distance = distances[d];
+			checkRange(min, max, distance);
+			final int[] row = result[d];
+			for (int i = 0; i < indexes.length; i++) {
+				row[i] = indexes[i] + distance;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Transposes the given packed notes (see {@link NoteSequence}) by every given distance. <br>
+	 * Durations are preserved, black keys of each row are spelled as given.
+	 * 
+	 * @param packedNotes
+	 *            The packed notes.
+	 * @param distances
+	 *            The transposition distances.
+	 * @param flatSpellings
+	 *            For every distance whether black keys are spelled flat.
+	 * @return Returns the transposed packed notes, one row per distance.
+	 */
+	public static int[][] transposePacked(final int[] packedNotes, final int[] distances, final boolean[] flatSpellings) {
+		final int[][] result = new int[distances.length][packedNotes.length];
+		checkPackedRange(packedNotes, distances);
+		for (int d = 0; d < distances.length; d++) {
+			transposeRow(packedNotes, result[d], 0, packedNotes.length, distances[d], flatSpellings[d]);
+		}
+		return result;
+	}
+
+	/**
+	 * Transposes a part of the given packed notes by one distance. The range must have been
+	 * checked before.
+	 * 
+	 * @param packedNotes
+	 *            The packed notes.
+	 * @param row
+	 *            Where to store the transposed notes (at the same positions).
+	 * @param from
+	 *            The first position (inclusive).
+	 * @param to
+	 *            The last position (exclusive).
+	 * @param distance
+	 *            The transposition distance.
+	 * @param flat
+	 *            Whether black keys are spelled flat.
+	 */
+	static void transposeRow(final int[] packedNotes, final int[] row, final int from, final int to, final int distance,
+			final boolean flat) {
+		// The index occupies the lowest bits and stays within its range, so no carry occurs.
+		for (int i = from; i < to; i++) {
+			row[i] = NoteSequence.respell(packedNotes[i] + distance, flat);
+		}
+	}
+
+	/**
+	 * Checks that all packed notes stay within the supported range for every distance.
+	 * 
+	 * @param packedNotes
+	 *            The packed notes.
+	 * @param distances
+	 *            The transposition distances.
+	 */
+	static void checkPackedRange(final int[] packedNotes, final int[] distances) {
+		if (packedNotes.length == 0) {
+			return;
+		}
+		int min = TOTAL_NUMBER_OF_NOTES;
+		int max = -1;
+		for (final int packedNote : packedNotes) {
+			final int index = NoteSequence.indexOf(packedNote);
+			min = Math.min(min, index);
+			max = Math.max(max, index);
+		}
+		for (final int distance : distances) {
+			checkRange(min, max, distance);
+		}
+	}
+
+	/**
+	 * Computes the spelling of every target key. A piece in the key of <code>tonic</code> is
+	 * transposed into the key <code>tonic + distance</code>; keys with flats in their signature
+	 * are spelled flat.
+	 * 
+	 * @param tonic
+	 *            The absolute index (or half tone distance from C) of the root of the original key.
+	 * @param distances
+	 *            The transposition distances.
+	 * @return Returns for every distance whether black keys are spelled flat.
+	 */
+	public static boolean[] spellingsForKey(final int tonic, final int[] distances) {
+		final boolean[] flatSpellings = new boolean[distances.length];
+		for (int d = 0; d < distances.length; d++) {
+			final int target = ((tonic + distances[d]) % NUMBER_OF_NOTES_PER_OCTAVE + NUMBER_OF_NOTES_PER_OCTAVE)
+					% NUMBER_OF_NOTES_PER_OCTAVE;
+			flatSpellings[d] = FLAT_KEYS[target];
+		}
+		return flatSpellings;
+	}
+
+	/**
+	 * Transposes the notes of the given sequence into the keys of all distances.
+	 * 
+	 * @param notes
+	 *            The notes to transpose.
+	 * @param tonic
+	 *            The absolute index (or half tone distance from C) of the root of the original key.
+	 * @param distances
+	 *            The transposition distances.
+	 * @return Returns one sequence per distance.
+	 */
+	public static NoteSequence[] transpose(final NoteSequence notes, final int tonic, final int[] distances) {
+		final int[][] rows = transposePacked(notes.toArray(), distances, spellingsForKey(tonic, distances));
+		final NoteSequence[] result = new NoteSequence[rows.length];
+		for (int d = 0; d < rows.length; d++) {
+			result[d] = NoteSequence.wrap(rows[d]);
+		}
+		return result;
+	}
+
+	private static void checkRange(final int min, final int max, final int distance) {
+		if (min + distance < 0 || max + distance >= TOTAL_NUMBER_OF_NOTES) {
+			throw new IllegalArgumentException(String.format(
+					"The transposition by [%s] exceeds the range of supported notes.", distance));
+		}
+	}
+
+	private static int min(final int[] values) {
+		int min = values[0];
+		for (final int value : values) {
+			min = Math.min(min, value);
+		}
+		return min;
+	}
+
+	private static int max(final int[] values) {
+		int max = values[0];
+		for (final int value : values) {
+			max = Math.max(max, value);
+		}
+		return max;
+	}
+
+}
@@ -33,6 +33,7 @@ import java.util.List;
 
 import org.musicia.notes.model.Note;
 import org.musicia.notes.model.NoteOrder;
+import org.musicia.notes.model.PitchClassSet;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -61,19 +62,34 @@ public class CircleOfFifth {
 	private List<Note> minorCircle = new ArrayList<Note>(NOTES_PER_OCTAVE + 1);
 
 	/**
-	 * A is the root note of the minor circle.
+	 * The pitch classes of the major keys in the order of the major circle.
+	 */
+	private final PitchClassSet[] majorKeys = new PitchClassSet[NOTES_PER_OCTAVE + 1];
+
+	/**
+	 * The pitch classes of the minor keys in the order of the minor circle.
+	 */
+	private final PitchClassSet[] minorKeys = new PitchClassSet[NOTES_PER_OCTAVE + 1];
+
+	/**
+	 * The absolute note order.
 	 */
-	@Inject private NoteOrder order;
+	private final NoteOrder order;
 
 	/**
 	 * C is the root note of the major circle.
 	 */
-	private static final Note C = new Note("C");
+	private static final Note C = Note.of("C", "");
 
 	/**
 	 * A is the root note of the minor circle.
 	 */
-	private static final Note A = new Note("A");
+	private static final Note A = Note.of("A", "");
+
+	/**
+	 * The pitch classes of C major and A minor.
+	 */
+	private static final PitchClassSet C_MAJOR = PitchClassSet.ofPitchClasses(0, 2, 4, 5, 7, 9, 11);
 
 	/**
 	 * The distance of a fifth in half tones.
@@ -85,11 +101,22 @@ public class CircleOfFifth {
 	 */
 	private static final int NOTES_PER_OCTAVE = 12;
 
+	/**
+	 * Creates a new circle of fifth with its own note order. All notes are of the 5th octave.
+	 */
+	public CircleOfFifth() {
+		this(new NoteOrder());
+	}
+
 	/**
 	 * Creates a new circle of fifth. All notes are of the 5th octave.
+	 * 
+	 * @param order
+	 *            The absolute note order.
 	 */
 	@Inject
-	public CircleOfFifth() {
+	public CircleOfFifth(final NoteOrder order) {
+		this.order = order;
 		buildCircle();
 	}
 
@@ -125,10 +152,10 @@ public class CircleOfFifth {
 			currentMinor = order.getTransposedNote(currentMinor, FIFTH);
 			// preserve octave
 			if (currentMajor.getOctave() != C.getOctave()) {
-				currentMajor = new Note(currentMajor.getName(), currentMajor.getAccidental(), C.getOctave());
+				currentMajor = Note.of(currentMajor.getName(), currentMajor.getAccidental(), C.getOctave());
 			}
 			if (currentMinor.getOctave() != A.getOctave()) {
-				currentMinor = new Note(currentMinor.getName(), currentMinor.getAccidental(), A.getOctave());
+				currentMinor = Note.of(currentMinor.getName(), currentMinor.getAccidental(), A.getOctave());
 			}
 			i++;
 		}
@@ -138,6 +165,12 @@ public class CircleOfFifth {
 		
 		minorCircle.addAll(rightHalfMinor);
 		minorCircle.addAll(leftHalfMinor);
+
+		// each step on the circle adds a fifth (or removes a fourth) to the key of C major / A minor
+		for (i = 0; i < majorKeys.length; i++) {
+			majorKeys[i] = C_MAJOR.transpose(order.indexOf(majorCircle.get(i)) - order.indexOf(C));
+			minorKeys[i] = C_MAJOR.transpose(order.indexOf(minorCircle.get(i)) - order.indexOf(A));
+		}
 	}
 
 	/**
@@ -154,4 +187,22 @@ public class CircleOfFifth {
 		return new ArrayList<Note>(minorCircle);
 	}
 
+	/**
+	 * @param position
+	 *            The position in the major circle [0-12].
+	 * @return Returns the pitch classes of the major key at the given position.
+	 */
+	public PitchClassSet getMajorKey(final int position) {
+		return majorKeys[position];
+	}
+
+	/**
+	 * @param position
+	 *            The position in the minor circle [0-12].
+	 * @return Returns the pitch classes of the minor key at the given position.
+	 */
+	public PitchClassSet getMinorKey(final int position) {
+		return minorKeys[position];
+	}
+
 }
@@ -0,0 +1,401 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.util;
+
+import java.util.Arrays;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+
+/**
+ * This class keeps the notes of an edited text up to date without parsing the whole text again. <br>
+ * <br>
+ * The tokens of the text are stored with their positions. After an edit only the tokens touching
+ * the edited range are parsed again, and the following tokens are moved. The returned
+ * {@link Change} tells which notes have been replaced, so results derived from the notes can be
+ * updated in the same way (see {@link TranspositionTable}). Instances are not thread safe.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class IncrementalNoteParser {
+
+	/**
+	 * Marks a token which is not a note.
+	 */
+	private static final int INVALID = -1;
+
+	/**
+	 * The initial number of token slots.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * The start positions of the tokens (inclusive).
+	 */
+	private int[] starts = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The end positions of the tokens (exclusive).
+	 */
+	private int[] ends = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The packed notes of the tokens or {@link #INVALID}.
+	 */
+	private int[] packedNotes = new int[INITIAL_CAPACITY];
+
+	/**
+	 * The number of tokens.
+	 */
+	private int tokens;
+
+	/**
+	 * The number of invalid tokens.
+	 */
+	private int invalidTokens;
+
+	/**
+	 * The length of the text.
+	 */
+	private int length;
+
+	/**
+	 * The parsed tokens of an edited range.
+	 */
+	private final Tokens parsed = new Tokens();
+
+	/**
+	 * Parses single tokens.
+	 */
+	private final NoteLexer lexer = new NoteLexer(parsed);
+
+	/**
+	 * Parses the given text completely.
+	 * 
+	 * @param text
+	 *            The text.
+	 * @return Returns the change which replaces all previous notes.
+	 */
+	public Change reset(final CharSequence text) {
+		return edit(text, 0, length, text.length());
+	}
+
+	/**
+	 * Updates the notes after an edit. Removing and inserting at the same position may be reported
+	 * as one edit.
+	 * 
+	 * @param text
+	 *            The whole text after the edit.
+	 * @param offset
+	 *            The position of the edit.
+	 * @param removedLength
+	 *            The number of removed characters.
+	 * @param insertedLength
+	 *            The number of inserted characters.
+	 * @return Returns the change of the notes.
+	 */
+	public Change edit(final CharSequence text, final int offset, final int removedLength, final int insertedLength) {
+		if (offset < 0 || removedLength < 0 || insertedLength < 0 || offset + removedLength > length
+				|| text.length() != length - removedLength + insertedLength) {
+			throw new IllegalArgumentException(String.format(
+					"The edit at [%s] removing [%s] and inserting [%s] characters does not match the text.", offset,
+					removedLength, insertedLength));
+		}
+		final int oldEnd = offset + removedLength;
+		final int delta = insertedLength - removedLength;
+
+		// The tokens touching the edit; the characters around them are unchanged whitespace.
+		final int first = firstEndingAtOrAfter(offset);
+		final int last = firstStartingAfter(oldEnd);
+		int regionStart = offset;
+		int regionEnd = oldEnd;
+		if (first < last) {
+			regionStart = Math.min(offset, starts[first]);
+			regionEnd = Math.max(oldEnd, ends[last - 1]);
+		}
+		regionEnd += delta;
+
+		final int firstNote = countNotes(0, first);
+		final int removedNotes = countNotes(first, last);
+		invalidTokens -= last - first - removedNotes;
+
+		parsed.clear();
+		parse(text, regionStart, regionEnd);
+		replace(first, last, delta);
+
+		length = text.length();
+		return new Change(firstNote, removedNotes, parsed.getNotes());
+	}
+
+	/**
+	 * @return Returns the number of parsed notes.
+	 */
+	public int getNumberOfNotes() {
+		return tokens - invalidTokens;
+	}
+
+	/**
+	 * @return Returns the number of tokens which are not notes.
+	 */
+	public int getNumberOfInvalidTokens() {
+		return invalidTokens;
+	}
+
+	/**
+	 * @return Returns a copy of the parsed notes.
+	 */
+	public NoteSequence getNotes() {
+		final NoteSequence notes = new NoteSequence(getNumberOfNotes());
+		for (int i = 0; i < tokens; i++) {
+			if (packedNotes[i] != INVALID) {
+				notes.add(packedNotes[i]);
+			}
+		}
+		return notes;
+	}
+
+	private void parse(final CharSequence text, final int from, final int to) {
+		int i = from;
+		while (i < to) {
+			while (i < to && NoteLexer.isWhitespace(text.charAt(i))) {
+				i++;
+			}
+			if (i == to) {
+				break;
+			}
+			final int start = i;
+			while (i < to && !NoteLexer.isWhitespace(text.charAt(i))) {
+				lexer.feed(text.charAt(i));
+				i++;
+			}
+			lexer.finish();
+			parsed.setLastPosition(start, i);
+		}
+	}
+
+	/*
+	 * Replaces the tokens [first, last) by the parsed tokens and moves the following tokens.
+	 */
+	private void replace(final int first, final int last, final int delta) {
+		final int newTokens = tokens - (last - first) + parsed.size;
+		if (newTokens > starts.length) {
+			final int capacity = Math.max(newTokens, 2 * starts.length);
+			starts = Arrays.copyOf(starts, capacity);
+			ends = Arrays.copyOf(ends, capacity);
+			packedNotes = Arrays.copyOf(packedNotes, capacity);
+		}
+		final int tail = tokens - last;
+		final int newLast = first + parsed.size;
+		System.arraycopy(starts, last, starts, newLast, tail);
+		System.arraycopy(ends, last, ends, newLast, tail);
+		System.arraycopy(packedNotes, last, packedNotes, newLast, tail);
+		for (int i = newLast; i < newLast + tail; i++) {
+			starts[i] += delta;
+			ends[i] += delta;
+		}
+		System.arraycopy(parsed.starts, 0, starts, first, parsed.size);
+		System.arraycopy(parsed.ends, 0, ends, first, parsed.size);
+		System.arraycopy(parsed.packedNotes, 0, packedNotes, first, parsed.size);
+		tokens = newTokens;
+		invalidTokens += parsed.invalid;
+	}
+
+	private int countNotes(final int from, final int to) {
+		int notes = 0;
+		for (int i = from; i < to; i++) {
+			if (packedNotes[i] != INVALID) {
+				notes++;
+			}
+		}
+		return notes;
+	}
+
+	private int firstEndingAtOrAfter(final int position) {
+		int low = 0;
+		int high = tokens;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (ends[mid] < position) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private int firstStartingAfter(final int position) {
+		int low = 0;
+		int high = tokens;
+		while (low < high) {
+			final int mid = (low + high) >>> 1;
+			if (starts[mid] <= position) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * This class describes how the notes have changed: the notes from the first note on have been
+	 * replaced by the inserted notes.
+	 */
+	public static final class Change {
+
+		/**
+		 * The position of the first replaced note.
+		 */
+		private final int firstNote;
+
+		/**
+		 * The number of removed notes.
+		 */
+		private final int removedNotes;
+
+		/**
+		 * The inserted packed notes.
+		 */
+		private final int[] insertedNotes;
+
+		Change(final int firstNote, final int removedNotes, final int[] insertedNotes) {
+			this.firstNote = firstNote;
+			this.removedNotes = removedNotes;
+			this.insertedNotes = insertedNotes;
+		}
+
+		/**
+		 * @return Returns the position of the first replaced note.
+		 */
+		public int getFirstNote() {
+			return firstNote;
+		}
+
+		/**
+		 * @return Returns the number of removed notes.
+		 */
+		public int getRemovedNotes() {
+			return removedNotes;
+		}
+
+		/**
+		 * @return Returns a copy of the inserted packed notes.
+		 */
+		public int[] getInsertedNotes() {
+			return insertedNotes.clone();
+		}
+
+		int[] insertedNotes() {
+			return insertedNotes;
+		}
+
+		/**
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return String.format("Change[%s, -%s, +%s]", firstNote, removedNotes, insertedNotes.length);
+		}
+
+	}
+
+	// ESCA-JAVA0118:
+	private static class Tokens implements NoteHandler {
+
+		/**
+		 * The start positions of the tokens.
+		 */
+		private int[] starts = new int[INITIAL_CAPACITY];
+
+		/**
+		 * The end positions of the tokens.
+		 */
+		private int[] ends = new int[INITIAL_CAPACITY];
+
+		/**
+		 * The packed notes of the tokens or {@link IncrementalNoteParser#INVALID}.
+		 */
+		private int[] packedNotes = new int[INITIAL_CAPACITY];
+
+		/**
+		 * The number of tokens.
+		 */
+		private int size;
+
+		/**
+		 * The number of invalid tokens.
+		 */
+		private int invalid;
+
+		void clear() {
+			size = 0;
+			invalid = 0;
+		}
+
+		@Override
+		public void handleNote(final Note note) {
+			add(NoteSequence.pack(note));
+		}
+
+		@Override
+		public void handleInvalidToken(final InvalidToken token) {
+			add(INVALID);
+			invalid++;
+		}
+
+		private void add(final int packedNote) {
+			if (size == starts.length) {
+				starts = Arrays.copyOf(starts, 2 * size);
+				ends = Arrays.copyOf(ends, 2 * size);
+				packedNotes = Arrays.copyOf(packedNotes, 2 * size);
+			}
+			packedNotes[size++] = packedNote;
+		}
+
+		void setLastPosition(final int start, final int end) {
+			starts[size - 1] = start;
+			ends[size - 1] = end;
+		}
+
+		int[] getNotes() {
+			final int[] notes = new int[size - invalid];
+			int n = 0;
+			for (int i = 0; i < size; i++) {
+				if (packedNotes[i] != INVALID) {
+					notes[n++] = packedNotes[i];
+				}
+			}
+			return notes;
+		}
+
+	}
+
+}
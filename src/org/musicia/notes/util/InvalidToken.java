@@ -0,0 +1,135 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.util;
+
+/**
+ * This class describes a token which could not be parsed as a note.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class InvalidToken {
+
+	/**
+	 * The text of the token (or its beginning if the token is longer than it).
+	 */
+	private final String text;
+
+	/**
+	 * The number of characters of the token.
+	 */
+	private final int length;
+
+	/**
+	 * The 1-based line of the first character of the token.
+	 */
+	private final int line;
+
+	/**
+	 * The 1-based column of the first character of the token.
+	 */
+	private final int column;
+
+	/**
+	 * Creates a new InvalidToken.
+	 * 
+	 * @param text
+	 *            The text of the token.
+	 * @param line
+	 *            The 1-based line of the first character of the token.
+	 * @param column
+	 *            The 1-based column of the first character of the token.
+	 */
+	public InvalidToken(String text, int line, int column) {
+		this(text, text.length(), line, column);
+	}
+
+	/**
+	 * Creates a new InvalidToken of which only the beginning is known.
+	 * 
+	 * @param text
+	 *            The beginning of the token.
+	 * @param length
+	 *            The number of characters of the whole token.
+	 * @param line
+	 *            The 1-based line of the first character of the token.
+	 * @param column
+	 *            The 1-based column of the first character of the token.
+	 */
+	public InvalidToken(String text, int length, int line, int column) {
+		this.text = text;
+		this.length = length;
+		this.line = line;
+		this.column = column;
+	}
+
+	/**
+	 * @return Returns the text of the token (or its beginning if the token is longer than it).
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * @return Returns the number of characters of the token.
+	 */
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return Returns whether the text is only the beginning of the token.
+	 */
+	public boolean isTruncated() {
+		return length > text.length();
+	}
+
+	/**
+	 * @return Returns the 1-based line of the first character of the token.
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	/**
+	 * @return Returns the 1-based column of the first character of the token.
+	 */
+	public int getColumn() {
+		return column;
+	}
+
+	@Override
+	public String toString() {
+		if (isTruncated()) {
+			return String.format("[%s...] (%s characters) at line %s, column %s", text, length, line, column);
+		}
+		return String.format("[%s] at line %s, column %s", text, line, column);
+	}
+
+}
@@ -0,0 +1,132 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+
+import org.musicia.exceptions.MusiciaIOException;
+import org.musicia.notes.model.Note;
+
+/**
+ * This class iterates over the notes of a reader. <br>
+ * The reader is consumed chunk by chunk when more notes are requested, so only the notes of one
+ * chunk are held in memory. Invalid tokens are skipped.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+class NoteIterator implements Iterator<Note>, NoteHandler {
+
+	/**
+	 * The reader to parse.
+	 */
+	private final Reader reader;
+
+	/**
+	 * The reused buffer of characters.
+	 */
+	private final char[] buffer;
+
+	/**
+	 * The lexer which sends parsed notes to this iterator.
+	 */
+	private final NoteLexer lexer = new NoteLexer(this);
+
+	/**
+	 * The parsed notes which have not been returned yet.
+	 */
+	private final LinkedList<Note> pending = new LinkedList<Note>();
+
+	/**
+	 * True only if the reader is exhausted.
+	 */
+	private boolean finished = false;
+
+	/**
+	 * Creates a new NoteIterator.
+	 * 
+	 * @param reader
+	 *            The reader to parse.
+	 * @param bufferSize
+	 *            The number of characters to read at once.
+	 */
+	NoteIterator(Reader reader, int bufferSize) {
+		this.reader = reader;
+		this.buffer = new char[bufferSize];
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (pending.isEmpty() && !finished) {
+			readChunk();
+		}
+		return !pending.isEmpty();
+	}
+
+	private void readChunk() {
+		try {
+			final int read = reader.read(buffer);
+			if (read == -1) {
+				lexer.finish();
+				finished = true;
+			} else {
+				lexer.feed(buffer, 0, read);
+			}
+		} catch (final IOException e) {
+			throw new MusiciaIOException("An I/O error occured.", e);
+		}
+	}
+
+	@Override
+	public Note next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return pending.removeFirst();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Parsed notes cannot be removed.");
+	}
+
+	@Override
+	public void handleNote(final Note note) {
+		pending.addLast(note);
+	}
+
+	@Override
+	public void handleInvalidToken(final InvalidToken token) {
+	}
+
+}
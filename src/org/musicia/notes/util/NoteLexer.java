@@ -0,0 +1,333 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.util;
+
+import org.musicia.notes.model.Note;
+
+/**
+ * This class splits text into notes character by character. <br>
+ * <br>
+ * Tokens are separated by whitespace. A valid token consists of a note name [A-G], an optional
+ * accidental ("#" for A, C, D, F and G, "b" for A, B, D, E and G) and an optional octave [0-10].
+ * Notes of octave 10 are only valid up to G. Notes without octave get the default octave (5). <br>
+ * <br>
+ * The input is only read once and may be fed in arbitrary chunks; a token may span several
+ * chunks. Call {@link #finish()} after the last chunk. Only the first {@link #MAX_TOKEN_TEXT}
+ * characters of a token are kept, so the lexer needs constant memory however long a token is.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class NoteLexer {
+
+	/**
+	 * Waiting for the first character of a token.
+	 */
+	private static final int START = 0;
+
+	/**
+	 * The note name has been read.
+	 */
+	private static final int NAME = 1;
+
+	/**
+	 * The accidental has been read.
+	 */
+	private static final int ACCIDENTAL = 2;
+
+	/**
+	 * The first digit of the octave has been read.
+	 */
+	private static final int OCTAVE = 3;
+
+	/**
+	 * The octave 10 has been read.
+	 */
+	private static final int OCTAVE_10 = 4;
+
+	/**
+	 * The current token is invalid.
+	 */
+	private static final int INVALID = 5;
+
+	/**
+	 * The names of the notes A-G.
+	 */
+	private static final String[] NAMES = { "A", "B", "C", "D", "E", "F", "G" };
+
+	/**
+	 * The half tone distance of the notes A-G from C.
+	 */
+	private static final int[] SEMITONES = { 9, 11, 0, 2, 4, 5, 7 };
+
+	/**
+	 * The notes which may be sharp: A, C, D, F, G.
+	 */
+	private static final boolean[] MAY_BE_SHARP = { true, false, true, true, false, true, true };
+
+	/**
+	 * The notes which may be flat: A, B, D, E, G.
+	 */
+	private static final boolean[] MAY_BE_FLAT = { true, true, false, true, true, false, true };
+
+	/**
+	 * The highest half tone distance from C which is valid in octave 10 (G).
+	 */
+	private static final int HIGHEST_SEMITONE_OF_OCTAVE_10 = 7;
+
+	/**
+	 * The default octave.
+	 */
+	private static final int DEFAULT_OCTAVE = 5;
+
+	/**
+	 * The maximum number of characters of an invalid token which are reported. Longer tokens are
+	 * only counted, so a stream without whitespace does not fill the heap.
+	 */
+	public static final int MAX_TOKEN_TEXT = 64;
+
+	/**
+	 * The receiver of the parsed notes.
+	 */
+	private final NoteHandler handler;
+
+	/**
+	 * The beginning of the current token (only needed to report invalid tokens).
+	 */
+	private final StringBuilder token = new StringBuilder(MAX_TOKEN_TEXT);
+
+	/**
+	 * The number of characters of the current token.
+	 */
+	private int tokenLength;
+
+	/**
+	 * The state of the lexer.
+	 */
+	private int state = START;
+
+	/**
+	 * The index of the note name of the current token [0-6 for A-G].
+	 */
+	private int name;
+
+	/**
+	 * The accidental of the current token.
+	 */
+	private String accidental;
+
+	/**
+	 * The half tone distance of the current token from C.
+	 */
+	private int semitone;
+
+	/**
+	 * The octave of the current token.
+	 */
+	private int octave;
+
+	/**
+	 * The current line.
+	 */
+	private int line = 1;
+
+	/**
+	 * The current column.
+	 */
+	private int column = 1;
+
+	/**
+	 * The line where the current token starts.
+	 */
+	private int tokenLine;
+
+	/**
+	 * The column where the current token starts.
+	 */
+	private int tokenColumn;
+
+	/**
+	 * True only while the lexer is inside a token.
+	 */
+	private boolean inToken = false;
+
+	/**
+	 * Creates a new NoteLexer.
+	 * 
+	 * @param handler
+	 *            The receiver of the parsed notes.
+	 */
+	public NoteLexer(NoteHandler handler) {
+		this.handler = handler;
+	}
+
+	/**
+	 * Processes the given characters.
+	 * 
+	 * @param chars
+	 *            The characters to process.
+	 */
+	public void feed(CharSequence chars) {
+		final int length = chars.length();
+		for (int i = 0; i < length; i++) {
+			feed(chars.charAt(i));
+		}
+	}
+
+	/**
+	 * Processes the given characters.
+	 * 
+	 * @param chars
+	 *            The buffer which contains the characters.
+	 * @param offset
+	 *            The position of the first character to process.
+	 * @param length
+	 *            The number of characters to process.
+	 */
+	public void feed(char[] chars, int offset, int length) {
+		final int end = offset + length;
+		for (int i = offset; i < end; i++) {
+			feed(chars[i]);
+		}
+	}
+
+	/**
+	 * Processes the given character.
+	 * 
+	 * @param c
+	 *            The character to process.
+	 */
+	public void feed(char c) {
+		if (isWhitespace(c)) {
+			if (inToken) {
+				endToken();
+			}
+			if (c == '\n') {
+				line++;
+				column = 1;
+			} else {
+				column++;
+			}
+			return;
+		}
+		if (!inToken) {
+			inToken = true;
+			tokenLine = line;
+			tokenColumn = column;
+			token.setLength(0);
+			tokenLength = 0;
+		}
+		if (tokenLength < MAX_TOKEN_TEXT) {
+			token.append(c);
+		}
+		tokenLength++;
+		column++;
+		switch (state) {
+		case START:
+			if (c >= 'A' && c <= 'G') {
+				name = c - 'A';
+				semitone = SEMITONES[name];
+				accidental = "";
+				octave = DEFAULT_OCTAVE;
+				state = NAME;
+			} else {
+				state = INVALID;
+			}
+			break;
+		case NAME:
+			if (c == '#' && MAY_BE_SHARP[name]) {
+				accidental = "#";
+				semitone++;
+				state = ACCIDENTAL;
+			} else if (c == 'b' && MAY_BE_FLAT[name]) {
+				accidental = "b";
+				semitone--;
+				state = ACCIDENTAL;
+			} else {
+				readFirstDigit(c);
+			}
+			break;
+		case ACCIDENTAL:
+			readFirstDigit(c);
+			break;
+		case OCTAVE:
+			if (octave == 1 && c == '0' && semitone <= HIGHEST_SEMITONE_OF_OCTAVE_10) {
+				octave = 10;
+				state = OCTAVE_10;
+			} else {
+				state = INVALID;
+			}
+			break;
+		default:
+			state = INVALID;
+			break;
+		}
+	}
+
+	private void readFirstDigit(char c) {
+		if (c >= '0' && c <= '9') {
+			octave = c - '0';
+			state = OCTAVE;
+		} else {
+			state = INVALID;
+		}
+	}
+
+	/**
+	 * Completes the last token. Must be called after the last character has been fed.
+	 */
+	public void finish() {
+		if (inToken) {
+			endToken();
+		}
+	}
+
+	private void endToken() {
+		if (state == INVALID) {
+			handler.handleInvalidToken(new InvalidToken(token.toString(), tokenLength, tokenLine, tokenColumn));
+		} else {
+			handler.handleNote(Note.of(NAMES[name], accidental, octave));
+		}
+		inToken = false;
+		state = START;
+	}
+
+	/**
+	 * Tells whether a character separates tokens. These are the same characters as the regular
+	 * expression "\s".
+	 * 
+	 * @param c
+	 *            The character.
+	 * @return Returns whether the character separates tokens.
+	 */
+	public static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+}
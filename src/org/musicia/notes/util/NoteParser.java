@@ -28,24 +28,36 @@
  */
 package org.musicia.notes.util;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+import org.musicia.exceptions.MusiciaIOException;
 import org.musicia.notes.model.Note;
 
 /**
- * This class provides methods to parse notes from a string with regular expressions.
+ * This class provides methods to parse notes from a string. <br>
+ * The string is read once by a {@link NoteLexer}; tokens which are no valid notes are skipped and
+ * can be inspected by <code>getInvalidTokens()</code>. <br>
+ * Large inputs should be parsed with the streaming methods, which never hold the whole input in
+ * memory.
  * 
  * TODO Implement parsing durations.
  * 
  * @author Thomas Schulz
- * @version 1.0
+ * @version 1.1
  */
 public class NoteParser {
-	
-	// FIXME Parsing of notes of octave higher than 9 throws exception.
+
+	/**
+	 * The number of characters which are read at once by the streaming methods.
+	 */
+	private static final int BUFFER_SIZE = 8192;
 
 	/**
 	 * The notes to parse.
@@ -56,45 +68,16 @@ public class NoteParser {
 	 * The parsed notes according to the pattern.
 	 */
 	private List<Note> parsedNotes;
-	
-	/**
-	 * How many notes have been parsed.
-	 */
-	private int number_of_notes_parsed = 0;
-
-	/**
-	 * All valid sharp note names.
-	 */
-	private static final String VALID_SHARP_NOTE_NAMES_REGEXP = "[ACDFG][#]?";
 
 	/**
-	 * All valid flat note names.
+	 * The tokens which are no valid notes.
 	 */
-	private static final String VALID_FLAT_NOTE_NAMES_REGEXP = "[ABDEG][b]?";
-
-	/**
-	 * The regular expression for at least one whitespace.
-	 */
-	private static final String AT_LEAST_ONE_WHITESPACE = "\\s+";
-
-	/**
-	 * The regular expression for valid notes. <b>
-	 * with #: A, C, D, F, G
-	 * with b: A, B, D, E, G
-	 */
-	private static final Pattern VALID_NOTE_NAMES = Pattern.compile(VALID_SHARP_NOTE_NAMES_REGEXP + "|"
-			+ VALID_FLAT_NOTE_NAMES_REGEXP);
-
-	/**
-	 * The regular expression for valid notes plus octave from 0 to 9.
-	 */
-	private static final Pattern VALID_NOTES_TILL_OCTAVE_9 = Pattern.compile(VALID_SHARP_NOTE_NAMES_REGEXP + "[0-9]|"
-			+ VALID_FLAT_NOTE_NAMES_REGEXP + "[0-9]");
-
+	private List<InvalidToken> invalidTokens;
+	
 	/**
-	 * The regular expression for valid notes of octave 11 (no G# / Ab, A, A# / Bb , B).
+	 * How many notes have been parsed.
 	 */
-	private static final Pattern VALID_NOTES_OF_OCTAVE_10 = Pattern.compile("[CDF][#]?[1]{1}?[0]{1}?|[EDG][b]?[1]{1}?[0]{1}?");
+	private int number_of_notes_parsed = 0;
 
 	/**
 	 * Creates a new note parser without any notes to parse. <b>
@@ -115,47 +98,75 @@ public class NoteParser {
 	}
 
 	private void parseNotes() {
-		// TODO Clean up.
-		String[] potentialNotes = notesToParse.split(AT_LEAST_ONE_WHITESPACE);
 		parsedNotes = new ArrayList<Note>();
-		for (String potentialNote : potentialNotes) {
-			Matcher m1 = VALID_NOTE_NAMES.matcher(potentialNote);
-			Matcher m2 = VALID_NOTES_TILL_OCTAVE_9.matcher(potentialNote);
-			Matcher m3 = VALID_NOTES_OF_OCTAVE_10.matcher(potentialNote);
-			if (m1.matches()) {
-				String name = potentialNote.substring(0, 1);
-				String accidental = potentialNote.substring(1);
-				parsedNotes.add(new Note(name, accidental));
-				number_of_notes_parsed++;
-			} else if (m2.matches()) {
-				if (potentialNote.length() == 2) {
-					String name = potentialNote.substring(0, 1);
-					String accidental = "";
-					String octave = potentialNote.substring(1);
-					parsedNotes.add(new Note(name, accidental, Integer.parseInt(octave)));
-				} else {
-					String name = potentialNote.substring(0, 1);
-					String accidental = potentialNote.substring(1, 2);
-					String octave = potentialNote.substring(2);
-					parsedNotes.add(new Note(name, accidental, Integer.parseInt(octave)));
-				}
-				number_of_notes_parsed++;
-			} else if (m3.matches()) {
-				if (potentialNote.length() == 3) {
-					String name = potentialNote.substring(0, 1);
-					String accidental = "";
-					String octave = potentialNote.substring(1);
-					parsedNotes.add(new Note(name, accidental, Integer.parseInt(octave)));
-				} else {
-					String name = potentialNote.substring(0, 1);
-					String accidental = potentialNote.substring(1, 2);
-					String octave = potentialNote.substring(2);
-					parsedNotes.add(new Note(name, accidental, Integer.parseInt(octave)));
-				}
+		invalidTokens = new ArrayList<InvalidToken>();
+		final NoteLexer lexer = new NoteLexer(new NoteHandler() {
+
+			@Override
+			public void handleNote(final Note note) {
+				parsedNotes.add(note);
 				number_of_notes_parsed++;
 			}
+
+			@Override
+			public void handleInvalidToken(final InvalidToken token) {
+				invalidTokens.add(token);
+			}
+
+		});
+		lexer.feed(notesToParse);
+		lexer.finish();
+	}
+
+	/**
+	 * Parses the given reader chunk by chunk and passes every note to the handler. <br>
+	 * The reader is not closed.
+	 * 
+	 * @param reader
+	 *            The reader to parse.
+	 * @param handler
+	 *            The receiver of the notes and invalid tokens.
+	 */
+	public static void parse(final Reader reader, final NoteHandler handler) {
+		final NoteLexer lexer = new NoteLexer(handler);
+		final char[] buffer = new char[BUFFER_SIZE];
+		try {
+			int read = reader.read(buffer);
+			while (read != -1) {
+				lexer.feed(buffer, 0, read);
+				read = reader.read(buffer);
+			}
+		} catch (final IOException e) {
+			throw new MusiciaIOException("An I/O error occured.", e);
 		}
+		lexer.finish();
+	}
 
+	/**
+	 * Parses the given channel chunk by chunk and passes every note to the handler. <br>
+	 * The channel is not closed.
+	 * 
+	 * @param channel
+	 *            The channel to parse.
+	 * @param charset
+	 *            The charset of the channel.
+	 * @param handler
+	 *            The receiver of the notes and invalid tokens.
+	 */
+	public static void parse(final ReadableByteChannel channel, final Charset charset, final NoteHandler handler) {
+		parse(Channels.newReader(channel, charset.newDecoder(), BUFFER_SIZE), handler);
+	}
+
+	/**
+	 * Returns an iterator over the notes of the given reader. <br>
+	 * The reader is read lazily while iterating; invalid tokens are skipped.
+	 * 
+	 * @param reader
+	 *            The reader to parse.
+	 * @return Returns the iterator over the parsed notes.
+	 */
+	public static Iterator<Note> iterator(final Reader reader) {
+		return new NoteIterator(reader, BUFFER_SIZE);
 	}
 
 	/**
@@ -178,6 +189,13 @@ public class NoteParser {
 	public List<Note> getParsedNotes() {
 		return new ArrayList<Note>(parsedNotes);
 	}
+
+	/**
+	 * @return Returns the tokens which are no valid notes, together with their position.
+	 */
+	public List<InvalidToken> getInvalidTokens() {
+		return new ArrayList<InvalidToken>(invalidTokens);
+	}
 	
 	/**
 	 * @return Returns the number of parsed notes.
@@ -28,17 +28,22 @@
  */
 package org.musicia.notes.util;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.musicia.exceptions.MusiciaIOException;
 import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
 
 /**
  * 
- * This class is responsible for printing notes as a proper string representation.
+ * This class is responsible for printing notes as a proper string representation. <br>
+ * Every representation can either be returned as a string or be appended to an
+ * <code>Appendable</code> (e.g. a writer), which avoids building large strings.
  * 
  * @author Thomas Schulz
- * @version 1.0
+ * @version 1.1
  */
 public class NotePrinter {
 
@@ -48,9 +53,19 @@ public class NotePrinter {
 	private List<Note> notesToPrint;
 
 	/**
-	 * The initial capacity of a StringBuilder.
+	 * The line separator of the platform.
 	 */
-	private static final int DEFAULT_CAPACITY = 256;
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+	/**
+	 * The estimated number of characters per printed note (e.g. "C#10q ").
+	 */
+	private static final int CHARACTERS_PER_NOTE = 6;
+
+	/**
+	 * The estimated number of characters per line index (e.g. "-11: ").
+	 */
+	private static final int CHARACTERS_PER_INDEX = 5;
 
 	/**
 	 * 
@@ -63,6 +78,17 @@ public class NotePrinter {
 		this.notesToPrint = new ArrayList<Note>(notesToPrint);
 	}
 
+	/**
+	 * 
+	 * Creates a new NotePrinter.
+	 * 
+	 * @param notesToPrint
+	 *            The packed notes to print.
+	 */
+	public NotePrinter(NoteSequence notesToPrint) {
+		this.notesToPrint = notesToPrint.toList();
+	}
+
 	/**
 	 * @param notesToPrint
 	 *            The notes to print.
@@ -87,25 +113,21 @@ public class NotePrinter {
 	 * @return The note names.
 	 */
 	public String printNoteNames(int notesPerLine) {
-		StringBuilder sb = new StringBuilder(DEFAULT_CAPACITY);
-		if (notesPerLine == -1) {
-			for (Note note : notesToPrint) {
-				sb.append(note.getFullName()).append(" ");
-			}
-		} else {
-			int notesPrinted = 0;
-			for (Note note : notesToPrint) {
-				if (notesPrinted % notesPerLine != 0 || notesPrinted == 0) {
-					sb.append(note.getFullName()).append(" ");
-					notesPrinted++;
-				} else {
-					sb.append(System.getProperty("line.separator"));
-					sb.append(note.getFullName()).append(" ");
-					notesPrinted++;
-				}
-			}
-		}
-		return sb.toString().trim();
+		final StringBuilder sb = new StringBuilder(estimateCapacity(notesPerLine, false));
+		print(sb, notesPerLine, false, 0, false);
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the notesToPrint formatted like <code>printNoteNames(notesPerLine)</code>.
+	 * 
+	 * @param out
+	 *            Where to append the note names.
+	 * @param notesPerLine
+	 *            The number of notes to print before line break.
+	 */
+	public void printNoteNames(Appendable out, int notesPerLine) {
+		print(out, notesPerLine, false, 0, false);
 	}
 
 	/**
@@ -119,34 +141,27 @@ public class NotePrinter {
 	 * @return The note names.
 	 */
 	public String printIndexedNoteNames(int notesPerLine, int start) {
-		StringBuilder sb = new StringBuilder(DEFAULT_CAPACITY);
-		int i = start;
-		if (notesPerLine == -1) {
-			for (Note note : notesToPrint) {
-				sb.append(i).append(": ").append(note.getFullName()).append(" ");
-				i++;
-			}
-		} else {
-			sb.append(i).append(": ");
-			i++;
-			int notesPrinted = 0;
-			for (Note note : notesToPrint) {
-				if (notesPrinted % notesPerLine != 0 || notesPrinted == 0) {
-					sb.append(note.getFullName()).append(" ");
-					notesPrinted++;
-				} else {
-					sb.append(System.getProperty("line.separator")).append(i).append(": ");
-					sb.append(note.getFullName()).append(" ");
-					notesPrinted++;
-					i++;
-				}
-			}
-		}
-		return sb.toString().trim();
+		final StringBuilder sb = new StringBuilder(estimateCapacity(notesPerLine, true));
+		print(sb, notesPerLine, true, start, false);
+		return sb.toString();
 	}
 
 	/**
-	 * Returns a formatted String which contains the notesToPrint. <br>
+	 * Appends the notesToPrint formatted like <code>printIndexedNoteNames(notesPerLine, start)</code>.
+	 * 
+	 * @param out
+	 *            Where to append the note names.
+	 * @param notesPerLine
+	 *            The number of notes to print before line break.
+	 * @param start
+	 *            Where to start the enumeration.
+	 */
+	public void printIndexedNoteNames(Appendable out, int notesPerLine, int start) {
+		print(out, notesPerLine, true, start, false);
+	}
+
+	/**
+	 * Returns a formatted String which contains the notesToPrint with octave and duration. <br>
 	 * If <code>notesPerLine</code> is -1 then no line break will be made.
 	 * 
 	 * @param notesPerLine
@@ -154,29 +169,25 @@ public class NotePrinter {
 	 * @return The note names.
 	 */
 	public String printFullyQualifiedNoteNames(int notesPerLine) {
-		StringBuilder sb = new StringBuilder(DEFAULT_CAPACITY);
-		if (notesPerLine == -1) {
-			for (Note note : notesToPrint) {
-				sb.append(note.getFullName()).append(" ");
-			}
-		} else {
-			int notesPrinted = 0;
-			for (Note note : notesToPrint) {
-				if (notesPrinted % notesPerLine != 0 || notesPrinted == 0) {
-					sb.append(note.getFullName()).append(" ");
-					notesPrinted++;
-				} else {
-					sb.append(System.getProperty("line.separator"));
-					sb.append(note.getFullName()).append(" ");
-					notesPrinted++;
-				}
-			}
-		}
-		return sb.toString().trim();
+		final StringBuilder sb = new StringBuilder(estimateCapacity(notesPerLine, false));
+		print(sb, notesPerLine, false, 0, true);
+		return sb.toString();
 	}
 
 	/**
-	 * Returns an indexed String which contains the notesToPrint. <br>
+	 * Appends the notesToPrint formatted like <code>printFullyQualifiedNoteNames(notesPerLine)</code>.
+	 * 
+	 * @param out
+	 *            Where to append the note names.
+	 * @param notesPerLine
+	 *            The number of notes to print before line break.
+	 */
+	public void printFullyQualifiedNoteNames(Appendable out, int notesPerLine) {
+		print(out, notesPerLine, false, 0, true);
+	}
+
+	/**
+	 * Returns an indexed String which contains the notesToPrint with octave and duration. <br>
 	 * If <code>notesPerLine</code> is -1 then no line break will be made.
 	 * 
 	 * @param notesPerLine
@@ -186,28 +197,92 @@ public class NotePrinter {
 	 * @return The note names.
 	 */
 	public String printIndexedFullyQualifiedNoteNames(int notesPerLine, int start) {
-		StringBuilder sb = new StringBuilder(DEFAULT_CAPACITY);
-		int i = start;
-		if (notesPerLine == -1) {
-			for (Note note : notesToPrint) {
-				sb.append(i).append(": ").append(note.toString()).append(" ");
-				i++;
-			}
-		} else {
-			sb.append(i).append(": ");
-			int notesPrinted = 0;
-			for (Note note : notesToPrint) {
-				if (notesPrinted % notesPerLine != 0 || notesPrinted == 0) {
-					sb.append(note.toString()).append(" ");
-					notesPrinted++;
-				} else {
-					sb.append(System.getProperty("line.separator")).append(i).append(": ");
-					sb.append(note.toString()).append(" ");
+		final StringBuilder sb = new StringBuilder(estimateCapacity(notesPerLine, true));
+		print(sb, notesPerLine, true, start, true);
+		return sb.toString();
+	}
+
+	/**
+	 * Appends the notesToPrint formatted like
+	 * <code>printIndexedFullyQualifiedNoteNames(notesPerLine, start)</code>.
+	 * 
+	 * @param out
+	 *            Where to append the note names.
+	 * @param notesPerLine
+	 *            The number of notes to print before line break.
+	 * @param start
+	 *            Where to start the enumeration.
+	 */
+	public void printIndexedFullyQualifiedNoteNames(Appendable out, int notesPerLine, int start) {
+		print(out, notesPerLine, true, start, true);
+	}
+
+	private int estimateCapacity(int notesPerLine, boolean indexed) {
+		final int size = notesToPrint.size();
+		final int lines = (notesPerLine > 0) ? (size / notesPerLine + 1) : 1;
+		final int indexes = indexed ? ((notesPerLine == -1) ? size : lines) : 0;
+		return size * CHARACTERS_PER_NOTE + lines * LINE_SEPARATOR.length() + indexes * CHARACTERS_PER_INDEX;
+	}
+
+	/**
+	 * Prints the notes separated by a blank. <br>
+	 * If <code>notesPerLine</code> is -1 every note gets its own index, otherwise every line.
+	 * 
+	 * @param out
+	 *            Where to append the notes.
+	 * @param notesPerLine
+	 *            The number of notes to print before line break.
+	 * @param indexed
+	 *            Whether the notes (or lines) are enumerated.
+	 * @param start
+	 *            Where to start the enumeration.
+	 * @param fullyQualified
+	 *            Whether octave and duration are printed.
+	 */
+	private void print(Appendable out, int notesPerLine, boolean indexed, int start, boolean fullyQualified) {
+		try {
+			int i = start;
+			if (notesPerLine == -1) {
+				boolean first = true;
+				for (final Note note : notesToPrint) {
+					if (!first) {
+						out.append(' ');
+					}
+					first = false;
+					if (indexed) {
+						out.append(String.valueOf(i++)).append(": ");
+					}
+					appendNote(out, note, fullyQualified);
+				}
+			} else {
+				if (indexed) {
+					out.append(String.valueOf(i++)).append(':');
+				}
+				int notesPrinted = 0;
+				for (final Note note : notesToPrint) {
+					if (notesPrinted == 0) {
+						if (indexed) {
+							out.append(' ');
+						}
+					} else if (notesPrinted % notesPerLine != 0) {
+						out.append(' ');
+					} else {
+						out.append(' ').append(LINE_SEPARATOR);
+						if (indexed) {
+							out.append(String.valueOf(i++)).append(": ");
+						}
+					}
+					appendNote(out, note, fullyQualified);
 					notesPrinted++;
-					i++;
 				}
 			}
+		} catch (final IOException e) {
+			throw new MusiciaIOException("The notes could not be printed.", e);
 		}
-		return sb.toString().trim();
 	}
+
+	private static void appendNote(Appendable out, Note note, boolean fullyQualified) throws IOException {
+		out.append(fullyQualified ? note.toString() : note.getFullName());
+	}
+
 }
@@ -33,14 +33,17 @@ import java.util.List;
 
 import org.musicia.notes.model.Note;
 import org.musicia.notes.model.NoteOrder;
+import org.musicia.notes.model.NoteSequence;
 
 import com.google.inject.Inject;
 
 /**
- * This class provides the functionality to transpose notes.
+ * This class provides the functionality to transpose notes. <br>
+ * Lists of notes are transposed by the {@link BatchTransposer}; transposed notes are spelled
+ * with sharps like the {@link NoteOrder}.
  * 
  * @author Thomas Schulz
- * @version 1.1
+ * @version 1.2
  */
 public class NoteTransposer {
 
@@ -59,7 +62,7 @@ public class NoteTransposer {
 	/**
 	 * The absolute note order.
 	 */
-	@Inject private NoteOrder noteOrder;
+	@Inject private NoteOrder noteOrder = new NoteOrder();
 
 	/**
 	 * Creates a new note transposer.
@@ -81,6 +84,16 @@ public class NoteTransposer {
 		this.notesToTranspose.addAll(notesToTranspose);
 	}
 
+	/**
+	 * Creates a new note transposer.
+	 * 
+	 * @param notesToTranspose
+	 *            The packed notes to transpose.
+	 */
+	public NoteTransposer(final NoteSequence notesToTranspose) {
+		this.notesToTranspose.addAll(notesToTranspose.toList());
+	}
+
 	/**
 	 * Transposes the given note by the given distance.
 	 * 
@@ -95,18 +108,28 @@ public class NoteTransposer {
 	}
 
 	/**
-	 * Transposes the given notes by the given distances.
+	 * Transposes the given notes by the given distances. <br>
+	 * The result replaces the transposed notes of a previous call.
 	 * 
 	 * @param distances
 	 *            The transposition distances.
 	 * @return ArrayList<String> containing the transposed notes.
 	 */
 	public ArrayList<Note> getTransposedNotes(final List<Integer> distances) {
-		for (Integer distance : distances) {
-			for (final Note note : notesToTranspose) {
-				transposedNotes.add(noteOrder.getTransposedNote(note, distance));
+		final int[] d = new int[distances.size()];
+		for (int i = 0; i < d.length; i++) {
+			d[i] = distances.get(i);
+		}
+		final int[] packedNotes = new NoteSequence(notesToTranspose).toArray();
+		final int[][] rows = BatchTransposer.transposePacked(packedNotes, d, new boolean[d.length]);
+
+		final ArrayList<Note> result = new ArrayList<Note>(d.length * packedNotes.length);
+		for (final int[] row : rows) {
+			for (final int packedNote : row) {
+				result.add(NoteSequence.unpack(packedNote));
 			}
 		}
+		transposedNotes = result;
 		return new ArrayList<Note>(transposedNotes);
 	}
 
@@ -0,0 +1,341 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * This class transposes large amounts of notes in parallel. <br>
+ * <br>
+ * The work is split by distance and by chunks of notes and executed by a fixed pool of daemon
+ * threads. The service holds no state besides the pool, so one instance can be shared by all
+ * threads. The order of the results is the same as the order of
+ * {@link NoteTransposer#getTransposedNotes(List)}.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+@Singleton
+public class TranspositionService {
+
+	/**
+	 * The number of notes which are transposed by one task.
+	 */
+	private static final int CHUNK_SIZE = 65536;
+
+	/**
+	 * The threads which transpose the notes.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Creates a new TranspositionService with one thread per available processor.
+	 */
+	@Inject
+	public TranspositionService() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates a new TranspositionService.
+	 * 
+	 * @param threads
+	 *            The number of threads.
+	 */
+	public TranspositionService(final int threads) {
+		this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread t = new Thread(r, "Musicia-Transposition");
+				t.setDaemon(true);
+				return t;
+			}
+
+		});
+	}
+
+	/**
+	 * Transposes the given notes by the given distances. Transposed notes are spelled with sharps.
+	 * <br>
+	 * Packing, transposing and unpacking are all split into chunks, so only copying the notes
+	 * into an array runs on the calling thread.
+	 * 
+	 * @param notes
+	 *            The notes to transpose.
+	 * @param distances
+	 *            The transposition distances.
+	 * @return Returns the transposed notes, grouped by distance, as a fixed-size list.
+	 */
+	public List<Note> transpose(final List<Note> notes, final List<Integer> distances) {
+		final int[] d = new int[distances.size()];
+		for (int i = 0; i < d.length; i++) {
+			d[i] = distances.get(i);
+		}
+		final Note[] source = notes.toArray(new Note[notes.size()]);
+		final int[] packedNotes = new int[source.length];
+
+		final List<Future<?>> packTasks = new ArrayList<Future<?>>();
+		for (int from = 0; from < source.length; from += CHUNK_SIZE) {
+			packTasks.add(executor.submit(new PackTask(source, packedNotes, from, Math.min(from + CHUNK_SIZE,
+					source.length))));
+		}
+		await(packTasks);
+		BatchTransposer.checkPackedRange(packedNotes, d);
+
+		final Note[] result = new Note[d.length * source.length];
+		final List<Future<?>> tasks = new ArrayList<Future<?>>();
+		for (int i = 0; i < d.length; i++) {
+			for (int from = 0; from < source.length; from += CHUNK_SIZE) {
+				tasks.add(executor.submit(new TransposeNotesTask(packedNotes, result, i * source.length, from, Math.min(
+						from + CHUNK_SIZE, source.length), d[i])));
+			}
+		}
+		await(tasks);
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * Transposes the given packed notes by the given distances in parallel. <br>
+	 * The result equals the result of {@link BatchTransposer#transposePacked(int[], int[], boolean[])}.
+	 * 
+	 * @param packedNotes
+	 *            The packed notes.
+	 * @param distances
+	 *            The transposition distances.
+	 * @param flatSpellings
+	 *            For every distance whether black keys are spelled flat.
+	 * @return Returns the transposed packed notes, one row per distance.
+	 */
+	public int[][] transposePacked(final int[] packedNotes, final int[] distances, final boolean[] flatSpellings) {
+		BatchTransposer.checkPackedRange(packedNotes, distances);
+		final int[][] result = new int[distances.length][packedNotes.length];
+
+		final List<Future<?>> tasks = new ArrayList<Future<?>>();
+		for (int d = 0; d < distances.length; d++) {
+			for (int from = 0; from < packedNotes.length; from += CHUNK_SIZE) {
+				tasks.add(executor.submit(new TransposeTask(packedNotes, result[d], from, Math.min(from + CHUNK_SIZE,
+						packedNotes.length), distances[d], flatSpellings[d])));
+			}
+		}
+		await(tasks);
+		return result;
+	}
+
+	/**
+	 * Waits until all given tasks are done. Runtime exceptions of a task (e.g. an invalid note) are
+	 * rethrown unchanged.
+	 * 
+	 * @param tasks
+	 *            The submitted tasks.
+	 */
+	private static void await(final List<Future<?>> tasks) {
+		try {
+			for (final Future<?> task : tasks) {
+				task.get();
+			}
+		} catch (final InterruptedException e) {
+			for (final Future<?> task : tasks) {
+				task.cancel(true);
+			}
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("The transposition has been interrupted.", e);
+		} catch (final ExecutionException e) {
+			for (final Future<?> task : tasks) {
+				task.cancel(true);
+			}
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException("The transposition failed.", e.getCause());
+		}
+	}
+
+	/**
+	 * Stops the threads of this service. Running transpositions are completed.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	// ESCA-JAVA0118:
+	private static class TransposeTask implements Runnable {
+
+		/**
+		 * The packed notes.
+		 */
+		private final int[] packedNotes;
+
+		/**
+		 * Where to store the transposed notes.
+		 */
+		private final int[] row;
+
+		/**
+		 * The first position (inclusive).
+		 */
+		private final int from;
+
+		/**
+		 * The last position (exclusive).
+		 */
+		private final int to;
+
+		/**
+		 * The transposition distance.
+		 */
+		private final int distance;
+
+		/**
+		 * Whether black keys are spelled flat.
+		 */
+		private final boolean flat;
+
+		TransposeTask(final int[] packedNotes, final int[] row, final int from, final int to, final int distance,
+				final boolean flat) {
+			this.packedNotes = packedNotes;
+			this.row = row;
+			this.from = from;
+			this.to = to;
+			this.distance = distance;
+			this.flat = flat;
+		}
+
+		@Override
+		public void run() {
+			BatchTransposer.transposeRow(packedNotes, row, from, to, distance, flat);
+		}
+
+	}
+
+	// ESCA-JAVA0118:
+	private static class PackTask implements Runnable {
+
+		/**
+		 * The notes to pack.
+		 */
+		private final Note[] notes;
+
+		/**
+		 * Where to store the packed notes.
+		 */
+		private final int[] packedNotes;
+
+		/**
+		 * The first position (inclusive).
+		 */
+		private final int from;
+
+		/**
+		 * The last position (exclusive).
+		 */
+		private final int to;
+
+		PackTask(final Note[] notes, final int[] packedNotes, final int from, final int to) {
+			this.notes = notes;
+			this.packedNotes = packedNotes;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public void run() {
+			for (int i = from; i < to; i++) {
+				packedNotes[i] = NoteSequence.pack(notes[i]);
+			}
+		}
+
+	}
+
+	// ESCA-JAVA0118:
+	private static class TransposeNotesTask implements Runnable {
+
+		/**
+		 * The packed notes.
+		 */
+		private final int[] packedNotes;
+
+		/**
+		 * Where to store the transposed notes.
+		 */
+		private final Note[] result;
+
+		/**
+		 * The position in the result which belongs to the first note.
+		 */
+		private final int offset;
+
+		/**
+		 * The first position (inclusive).
+		 */
+		private final int from;
+
+		/**
+		 * The last position (exclusive).
+		 */
+		private final int to;
+
+		/**
+		 * The transposition distance.
+		 */
+		private final int distance;
+
+		TransposeNotesTask(final int[] packedNotes, final Note[] result, final int offset, final int from, final int to,
+				final int distance) {
+			this.packedNotes = packedNotes;
+			this.result = result;
+			this.offset = offset;
+			this.from = from;
+			this.to = to;
+			this.distance = distance;
+		}
+
+		@Override
+		public void run() {
+			for (int i = from; i < to; i++) {
+				result[offset + i] = NoteSequence.unpack(NoteSequence.respell(packedNotes[i] + distance, false));
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,323 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.notes.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.musicia.notes.model.NoteSequence;
+
+/**
+ * This class keeps the transpositions of a sequence of notes by several distances. <br>
+ * <br>
+ * When notes are replaced, only the columns of the replaced notes are transposed again; the other
+ * columns are moved. Transposed notes are spelled with sharps. Notes which would leave the range of
+ * supported notes are counted per distance, and their rows cannot be read until they are removed.
+ * Instances are not thread safe, but a {@link Snapshot} may be handed to another thread.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class TranspositionTable {
+
+	/**
+	 * The number of supported notes.
+	 */
+	private static final int TOTAL_NUMBER_OF_NOTES = 128;
+
+	/**
+	 * The transposition distances.
+	 */
+	private final int[] distances;
+
+	/**
+	 * The notes to transpose.
+	 */
+	private int[] source = new int[0];
+
+	/**
+	 * The transposed notes, one row per distance.
+	 */
+	private int[][] rows;
+
+	/**
+	 * The number of notes leaving the range, per distance.
+	 */
+	private final int[] outOfRange;
+
+	/**
+	 * The number of notes.
+	 */
+	private int size;
+
+	/**
+	 * The snapshot of the current notes or null.
+	 */
+	private Snapshot snapshot;
+
+	/**
+	 * Creates a new empty TranspositionTable.
+	 * 
+	 * @param distances
+	 *            The transposition distances.
+	 */
+	public TranspositionTable(final int... distances) {
+		this.distances = distances.clone();
+		this.rows = new int[distances.length][0];
+		this.outOfRange = new int[distances.length];
+	}
+
+	/**
+	 * Applies a change of an {@link IncrementalNoteParser}.
+	 * 
+	 * @param change
+	 *            The change.
+	 */
+	public void apply(final IncrementalNoteParser.Change change) {
+		replace(change.getFirstNote(), change.getRemovedNotes(), change.insertedNotes());
+	}
+
+	/**
+	 * Replaces notes and transposes the inserted notes.
+	 * 
+	 * @param from
+	 *            The position of the first replaced note.
+	 * @param removed
+	 *            The number of removed notes.
+	 * @param inserted
+	 *            The inserted packed notes.
+	 */
+	public void replace(final int from, final int removed, final int[] inserted) {
+		if (from < 0 || removed < 0 || from + removed > size) {
+			throw new IndexOutOfBoundsException(String.format("The notes [%s, %s) do not exist.", from, from
+					+ removed));
+		}
+		for (int i = from; i < from + removed; i++) {
+			count(source[i], -1);
+		}
+		final int newSize = size - removed + inserted.length;
+		// Notes which are read by a snapshot are copied instead of changed.
+		final boolean shared = snapshot != null && snapshot.isInUse();
+		snapshot = null;
+		if (newSize > source.length || shared) {
+			final int capacity = Math.max(newSize, newSize > source.length ? 2 * source.length : source.length);
+			source = Arrays.copyOf(source, capacity);
+			for (int d = 0; d < rows.length; d++) {
+				rows[d] = Arrays.copyOf(rows[d], capacity);
+			}
+		}
+		final int tail = size - from - removed;
+		final int newTail = from + inserted.length;
+		System.arraycopy(source, from + removed, source, newTail, tail);
+		System.arraycopy(inserted, 0, source, from, inserted.length);
+		for (int d = 0; d < rows.length; d++) {
+			final int[] row = rows[d];
+			System.arraycopy(row, from + removed, row, newTail, tail);
+			for (int i = from; i < newTail; i++) {
+				final int index = NoteSequence.indexOf(source[i]) + distances[d];
+				row[i] = index >= 0 && index < TOTAL_NUMBER_OF_NOTES ? NoteSequence.respell(source[i] + distances[d],
+						false) : -1;
+			}
+		}
+		for (final int packedNote : inserted) {
+			count(packedNote, 1);
+		}
+		size = newSize;
+	}
+
+	/**
+	 * @return Returns the number of notes.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return Returns the number of distances.
+	 */
+	public int getNumberOfRows() {
+		return distances.length;
+	}
+
+	/**
+	 * @param row
+	 *            The row.
+	 * @return Returns the transposition distance of the row.
+	 */
+	public int getDistance(final int row) {
+		return distances[row];
+	}
+
+	/**
+	 * Returns a copy of the transposed notes of one distance.
+	 * 
+	 * @param row
+	 *            The row.
+	 * @return Returns the transposed notes.
+	 */
+	public NoteSequence getRow(final int row) {
+		if (outOfRange[row] > 0) {
+			throw new IllegalArgumentException(String.format(
+					"The transposition by [%s] exceeds the range of supported notes.", distances[row]));
+		}
+		return NoteSequence.wrap(Arrays.copyOf(rows[row], size));
+	}
+
+	/**
+	 * Returns a read-only view of the current notes and their transpositions without copying them.
+	 * The table copies its notes before the next change while the snapshot is in use, so the
+	 * snapshot may be read by another thread until it is released.
+	 * 
+	 * @return Returns the snapshot, which has to be released after use.
+	 */
+	public Snapshot snapshot() {
+		if (snapshot == null) {
+			snapshot = new Snapshot(source, rows.clone(), distances, outOfRange.clone(), size);
+		}
+		snapshot.acquire();
+		return snapshot;
+	}
+
+	private void count(final int packedNote, final int sign) {
+		final int index = NoteSequence.indexOf(packedNote);
+		for (int d = 0; d < distances.length; d++) {
+			final int transposed = index + distances[d];
+			if (transposed < 0 || transposed >= TOTAL_NUMBER_OF_NOTES) {
+				outOfRange[d] += sign;
+			}
+		}
+	}
+
+	/**
+	 * This class is an immutable view of a {@link TranspositionTable} at one point in time.
+	 */
+	public static final class Snapshot {
+
+		/**
+		 * The notes.
+		 */
+		private final int[] source;
+
+		/**
+		 * The transposed notes, one row per distance.
+		 */
+		private final int[][] rows;
+
+		/**
+		 * The transposition distances.
+		 */
+		private final int[] distances;
+
+		/**
+		 * The number of notes leaving the range, per distance.
+		 */
+		private final int[] outOfRange;
+
+		/**
+		 * The number of notes.
+		 */
+		private final int size;
+
+		/**
+		 * The number of users which have not released the snapshot yet.
+		 */
+		private final AtomicInteger users = new AtomicInteger();
+
+		Snapshot(final int[] source, final int[][] rows, final int[] distances, final int[] outOfRange, final int size) {
+			this.source = source;
+			this.rows = rows;
+			this.distances = distances;
+			this.outOfRange = outOfRange;
+			this.size = size;
+		}
+
+		/**
+		 * @return Returns the notes.
+		 */
+		public NoteSequence getNotes() {
+			return NoteSequence.wrap(source).subSequence(0, size);
+		}
+
+		/**
+		 * @return Returns the number of notes.
+		 */
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return Returns the number of distances.
+		 */
+		public int getNumberOfRows() {
+			return distances.length;
+		}
+
+		/**
+		 * @param row
+		 *            The row.
+		 * @return Returns the transposition distance of the row.
+		 */
+		public int getDistance(final int row) {
+			return distances[row];
+		}
+
+		/**
+		 * Returns the transposed notes of one distance.
+		 * 
+		 * @param row
+		 *            The row.
+		 * @return Returns the transposed notes.
+		 */
+		public NoteSequence getRow(final int row) {
+			if (outOfRange[row] > 0) {
+				throw new IllegalArgumentException(String.format(
+						"The transposition by [%s] exceeds the range of supported notes.", distances[row]));
+			}
+			return NoteSequence.wrap(rows[row]).subSequence(0, size);
+		}
+
+		/**
+		 * Tells the table that this user does not read the snapshot anymore. The snapshot must not
+		 * be used afterwards.
+		 */
+		public void release() {
+			users.decrementAndGet();
+		}
+
+		void acquire() {
+			users.incrementAndGet();
+		}
+
+		boolean isInUse() {
+			return users.get() > 0;
+		}
+
+	}
+
+}
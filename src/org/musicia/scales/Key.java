@@ -0,0 +1,138 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.scales;
+
+import java.util.List;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.notes.model.PitchClassSet;
+
+/**
+ * This class describes a key: a scale pattern on a tonic.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class Key {
+
+	/**
+	 * The number of pitch classes.
+	 */
+	private static final int NUMBER_OF_PITCH_CLASSES = 12;
+
+	/**
+	 * The index of the tonic C5.
+	 */
+	private static final int C5 = 60;
+
+	/**
+	 * The position of a quarter note in the duration table.
+	 */
+	private static final int QUARTER = 4;
+
+	/**
+	 * The scale pattern.
+	 */
+	private final ScalePattern pattern;
+
+	/**
+	 * The tonic (in the 5th octave).
+	 */
+	private final Note tonic;
+
+	/**
+	 * The pitch classes of this key.
+	 */
+	private final PitchClassSet pitchClasses;
+
+	/**
+	 * Creates a new Key.
+	 * 
+	 * @param pattern
+	 *            The scale pattern.
+	 * @param tonicPitchClass
+	 *            The half tone distance of the tonic from C [0-11].
+	 * @param flat
+	 *            Whether a black tonic is spelled flat.
+	 */
+	Key(final ScalePattern pattern, final int tonicPitchClass, final boolean flat) {
+		this.pattern = pattern;
+		tonic = NoteSequence.unpack(NoteSequence.pack(C5 + tonicPitchClass, flat, QUARTER));
+		pitchClasses = PitchClassSet.of(pattern.getMask()).transpose(tonicPitchClass);
+	}
+
+	/**
+	 * @return Returns the scale pattern of this key.
+	 */
+	public ScalePattern getPattern() {
+		return pattern;
+	}
+
+	/**
+	 * @return Returns the tonic of this key in the 5th octave.
+	 */
+	public Note getTonic() {
+		return tonic;
+	}
+
+	/**
+	 * @return Returns the half tone distance of the tonic from C [0-11].
+	 */
+	public int getTonicPitchClass() {
+		return NoteSequence.indexOf(NoteSequence.pack(tonic)) % NUMBER_OF_PITCH_CLASSES;
+	}
+
+	/**
+	 * @return Returns the pitch classes of this key as a 12-bit mask (bit 0 is C, bit 11 is B).
+	 */
+	public int getMask() {
+		return pitchClasses.getMask();
+	}
+
+	/**
+	 * @return Returns the pitch classes of this key.
+	 */
+	public PitchClassSet getPitchClassSet() {
+		return pitchClasses;
+	}
+
+	/**
+	 * @return Returns the scale of this key starting with the tonic.
+	 */
+	public List<Note> getScale() {
+		return pattern.spell(tonic);
+	}
+
+	@Override
+	public String toString() {
+		return tonic.getFullName() + " " + pattern.getName();
+	}
+
+}
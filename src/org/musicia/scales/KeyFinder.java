@@ -0,0 +1,286 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.scales;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.notes.model.PitchClassSet;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * This class finds the keys matching a set of notes. <br>
+ * <br>
+ * Every key (each registered scale pattern on each of the 12 tonics) and every set of notes is
+ * reduced to a 12-bit mask of pitch classes, so a key is scored with two bit counts: the pitch
+ * classes inside the key minus the pitch classes outside of it. Ties prefer the key whose tonic is
+ * the first note, then a key whose tonic is played at all, then the key with fewer unplayed notes
+ * and finally the earlier registered pattern. The best key of each of the 4096 masks and each
+ * tonic hint is computed in advance.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+@Singleton
+public class KeyFinder {
+
+	/**
+	 * The number of pitch classes.
+	 */
+	private static final int NUMBER_OF_PITCH_CLASSES = 12;
+
+	/**
+	 * The number of different pitch class masks.
+	 */
+	private static final int NUMBER_OF_MASKS = 1 << NUMBER_OF_PITCH_CLASSES;
+
+	/**
+	 * No tonic hint.
+	 */
+	private static final int NO_HINT = -1;
+
+	/**
+	 * All keys, ordered by the registration of their pattern and by their tonic.
+	 */
+	private final Key[] keys;
+
+	/**
+	 * The position of the best key for each tonic hint (none first) and pitch class mask.
+	 */
+	private final short[] bestKeys = new short[(NUMBER_OF_PITCH_CLASSES + 1) * NUMBER_OF_MASKS];
+
+	/**
+	 * Creates a new KeyFinder with the predefined scale patterns.
+	 */
+	public KeyFinder() {
+		this(new ScalePatternRegistry());
+	}
+
+	/**
+	 * Creates a new KeyFinder for the patterns registered so far. Patterns with the same pitch
+	 * classes as an earlier pattern (e.g. Ionian and Major) are skipped.
+	 * 
+	 * @param registry
+	 *            The registry of scale patterns.
+	 */
+	@Inject
+	public KeyFinder(final ScalePatternRegistry registry) {
+		final List<Key> result = new ArrayList<Key>();
+		final List<Integer> masks = new ArrayList<Integer>();
+		for (final ScalePattern pattern : registry.getPatterns()) {
+			if (masks.contains(pattern.getMask())) {
+				continue;
+			}
+			masks.add(pattern.getMask());
+			for (int tonic = 0; tonic < NUMBER_OF_PITCH_CLASSES; tonic++) {
+				// A black tonic is spelled with fewer accidentals (F# on a tie).
+				final boolean flat = pattern.countAccidentals(tonic, true) < pattern.countAccidentals(tonic, false);
+				result.add(new Key(pattern, tonic, flat));
+			}
+		}
+		keys = result.toArray(new Key[result.size()]);
+		for (int hint = NO_HINT; hint < NUMBER_OF_PITCH_CLASSES; hint++) {
+			for (int mask = 0; mask < NUMBER_OF_MASKS; mask++) {
+				bestKeys[(hint + 1) * NUMBER_OF_MASKS + mask] = (short) findBest(mask, hint);
+			}
+		}
+	}
+
+	/**
+	 * Computes the pitch class mask of the given notes.
+	 * 
+	 * @param notes
+	 *            The notes.
+	 * @return Returns a 12-bit mask (bit 0 is C, bit 11 is B).
+	 */
+	public static int maskOf(final Iterable<Note> notes) {
+		return PitchClassSet.of(notes).getMask();
+	}
+
+	/**
+	 * Computes the pitch class mask of the given packed notes (see {@link NoteSequence}).
+	 * 
+	 * @param packedNotes
+	 *            The packed notes.
+	 * @param from
+	 *            The first position (inclusive).
+	 * @param to
+	 *            The last position (exclusive).
+	 * @return Returns a 12-bit mask (bit 0 is C, bit 11 is B).
+	 */
+	public static int maskOf(final int[] packedNotes, final int from, final int to) {
+		int mask = 0;
+		for (int i = from; i < to; i++) {
+			mask |= 1 << pitchClassOf(packedNotes[i]);
+		}
+		return mask;
+	}
+
+	private static int pitchClassOf(final int packedNote) {
+		return NoteSequence.indexOf(packedNote) % NUMBER_OF_PITCH_CLASSES;
+	}
+
+	/*
+	 * Orders keys by fit, tonic hint, played tonic and fewer unplayed notes. Higher is better.
+	 */
+	private static int score(final int keyMask, final int tonic, final int mask, final int tonicHint) {
+		final int fit = Integer.bitCount(mask & keyMask) - Integer.bitCount(mask & ~keyMask);
+		final int hint = tonic == tonicHint ? 1 : 0;
+		final int played = (mask >>> tonic & 1);
+		final int unplayed = Integer.bitCount(keyMask & ~mask);
+		return (fit + NUMBER_OF_PITCH_CLASSES) << 6 | hint << 5 | played << 4 | NUMBER_OF_PITCH_CLASSES - unplayed;
+	}
+
+	private int findBest(final int mask, final int tonicHint) {
+		int best = 0;
+		int bestScore = Integer.MIN_VALUE;
+		for (int i = 0; i < keys.length; i++) {
+			final int score = score(keys[i].getMask(), i % NUMBER_OF_PITCH_CLASSES, mask, tonicHint);
+			if (score > bestScore) {
+				best = i;
+				bestScore = score;
+			}
+		}
+		return best;
+	}
+
+	private static void checkMask(final int mask) {
+		if (mask < 0 || mask >= NUMBER_OF_MASKS) {
+			throw new IllegalArgumentException(String.format("The pitch class mask [%s] is invalid.", mask));
+		}
+	}
+
+	private static void checkTonicHint(final int tonicHint) {
+		if (tonicHint < NO_HINT || tonicHint >= NUMBER_OF_PITCH_CLASSES) {
+			throw new IllegalArgumentException(String.format("The tonic hint [%s] is invalid.", tonicHint));
+		}
+	}
+
+	/**
+	 * @return Returns all keys in the order of their position.
+	 */
+	public List<Key> getKeys() {
+		return Arrays.asList(keys.clone());
+	}
+
+	/**
+	 * @param position
+	 *            The position of the key.
+	 * @return Returns the key at the given position.
+	 */
+	public Key getKey(final int position) {
+		return keys[position];
+	}
+
+	/**
+	 * Finds the best key of the given pitch classes without any allocation.
+	 * 
+	 * @param mask
+	 *            The 12-bit pitch class mask.
+	 * @return Returns the position of the best key (see {@link #getKey(int)}).
+	 */
+	public int findKey(final int mask) {
+		checkMask(mask);
+		return bestKeys[mask];
+	}
+
+	/**
+	 * Finds the best key of the given pitch classes without any allocation.
+	 * 
+	 * @param mask
+	 *            The 12-bit pitch class mask.
+	 * @param tonicHint
+	 *            The pitch class which is preferred as tonic (e.g. of the first note), -1 for none.
+	 * @return Returns the position of the best key (see {@link #getKey(int)}).
+	 */
+	public int findKey(final int mask, final int tonicHint) {
+		checkMask(mask);
+		checkTonicHint(tonicHint);
+		return bestKeys[(tonicHint + 1) * NUMBER_OF_MASKS + mask];
+	}
+
+	/**
+	 * Finds the best key of the given notes. The first note is preferred as tonic.
+	 * 
+	 * @param notes
+	 *            The notes.
+	 * @return Returns the best key.
+	 */
+	public Key findKey(final List<Note> notes) {
+		return keys[findKey(maskOf(notes), tonicHintOf(notes))];
+	}
+
+	/**
+	 * Ranks all keys for the given notes. The first note is preferred as tonic.
+	 * 
+	 * @param notes
+	 *            The notes.
+	 * @return Returns the keys ordered from the best to the worst match.
+	 */
+	public List<KeyMatch> rank(final List<Note> notes) {
+		return rank(maskOf(notes), tonicHintOf(notes));
+	}
+
+	/**
+	 * Ranks all keys for the given pitch classes.
+	 * 
+	 * @param mask
+	 *            The 12-bit pitch class mask.
+	 * @param tonicHint
+	 *            The pitch class which is preferred as tonic (e.g. of the first note), -1 for none.
+	 * @return Returns the keys ordered from the best to the worst match.
+	 */
+	public List<KeyMatch> rank(final int mask, final int tonicHint) {
+		checkMask(mask);
+		checkTonicHint(tonicHint);
+		// score in the upper bits, position in the lower bits: sorting keeps the order of ties
+		final long[] order = new long[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			final long score = score(keys[i].getMask(), i % NUMBER_OF_PITCH_CLASSES, mask, tonicHint);
+			order[i] = -score << Integer.SIZE | i;
+		}
+		Arrays.sort(order);
+		final List<KeyMatch> result = new ArrayList<KeyMatch>(keys.length);
+		for (final long entry : order) {
+			final Key key = keys[(int) entry];
+			result.add(new KeyMatch(key, Integer.bitCount(mask & key.getMask()), Integer.bitCount(mask & ~key.getMask())));
+		}
+		return result;
+	}
+
+	private static int tonicHintOf(final List<Note> notes) {
+		return notes.isEmpty() ? NO_HINT : pitchClassOf(NoteSequence.pack(notes.get(0)));
+	}
+
+}
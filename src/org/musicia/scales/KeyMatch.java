@@ -0,0 +1,103 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.scales;
+
+/**
+ * This class describes how well a set of notes fits into a key.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class KeyMatch {
+
+	/**
+	 * The key.
+	 */
+	private final Key key;
+
+	/**
+	 * The number of pitch classes in the key.
+	 */
+	private final int matches;
+
+	/**
+	 * The number of pitch classes outside of the key.
+	 */
+	private final int misses;
+
+	/**
+	 * Creates a new KeyMatch.
+	 * 
+	 * @param key
+	 *            The key.
+	 * @param matches
+	 *            The number of pitch classes in the key.
+	 * @param misses
+	 *            The number of pitch classes outside of the key.
+	 */
+	KeyMatch(final Key key, final int matches, final int misses) {
+		this.key = key;
+		this.matches = matches;
+		this.misses = misses;
+	}
+
+	/**
+	 * @return Returns the key.
+	 */
+	public Key getKey() {
+		return key;
+	}
+
+	/**
+	 * @return Returns the number of pitch classes in the key.
+	 */
+	public int getMatches() {
+		return matches;
+	}
+
+	/**
+	 * @return Returns the number of pitch classes outside of the key.
+	 */
+	public int getMisses() {
+		return misses;
+	}
+
+	/**
+	 * @return Returns the number of matches minus the number of misses.
+	 */
+	public int getFit() {
+		return matches - misses;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s (%s/%s)", key, matches, matches + misses);
+	}
+
+}
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteOrder;
 import org.musicia.notes.util.CircleOfFifth;
 
 import com.google.inject.Inject;
@@ -53,7 +54,7 @@ public class MinorScale extends Scale {
 	 * The circle of fifth.
 	 */
 	@Inject(optional = true)
-	private CircleOfFifth circleOf5th;
+	private CircleOfFifth circleOf5th = DEFAULT_CIRCLE_OF_FIFTH;
 
 	/**
 	 * 
@@ -66,6 +67,23 @@ public class MinorScale extends Scale {
 		this.rootNote = rootNote;
 	}
 
+	/**
+	 * 
+	 * Creates a new MinorScale with the given note order and circle of fifth.
+	 * 
+	 * @param rootNote
+	 *            The root note of this minor scale.
+	 * @param chromatics
+	 *            The absolute note order.
+	 * @param circleOf5th
+	 *            The circle of fifth.
+	 */
+	MinorScale(final Note rootNote, final NoteOrder chromatics, final CircleOfFifth circleOf5th) {
+		super(chromatics);
+		this.rootNote = rootNote;
+		this.circleOf5th = circleOf5th;
+	}
+
 	@Override
 	protected Note getRootNote() {
 		return rootNote;
@@ -0,0 +1,92 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.scales;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.musicia.notes.model.Note;
+
+/**
+ * This class provides a scale of any {@link ScalePattern}.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class PatternScale extends Scale {
+
+	/**
+	 * The root of the scale.
+	 */
+	private final Note rootNote;
+
+	/**
+	 * The pattern of the scale.
+	 */
+	private final ScalePattern pattern;
+
+	/**
+	 * Creates a new PatternScale.
+	 * 
+	 * @param rootNote
+	 *            The root note of this scale.
+	 * @param pattern
+	 *            The pattern of this scale.
+	 */
+	public PatternScale(final Note rootNote, final ScalePattern pattern) {
+		this.rootNote = rootNote;
+		this.pattern = pattern;
+	}
+
+	@Override
+	protected Note getRootNote() {
+		return rootNote;
+	}
+
+	@Override
+	protected List<Integer> getScalePattern() {
+		return pattern.getIntervals();
+	}
+
+	@Override
+	protected ScalePattern getPattern() {
+		return pattern;
+	}
+
+	@Override
+	protected boolean shouldUseCircleOfFifth() {
+		return false;
+	}
+
+	@Override
+	protected List<Note> getCorrectCircleOfFifth() {
+		return Collections.emptyList();
+	}
+
+}
@@ -31,9 +31,11 @@ package org.musicia.scales;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.musicia.exceptions.MusiciaUnsupportedOperationException;
 import org.musicia.notes.model.Note;
 import org.musicia.notes.model.NoteOrder;
+import org.musicia.notes.model.PitchClassSet;
+import org.musicia.notes.model.PitchSet;
+import org.musicia.notes.util.CircleOfFifth;
 
 import com.google.inject.Inject;
 
@@ -50,13 +52,33 @@ public abstract class Scale {
 	 * The absolute note order.
 	 */
 	@Inject(optional = true)
-	private NoteOrder chromatics;
+	private NoteOrder chromatics = DEFAULT_CHROMATICS;
 
 	/**
 	 * The notes of the major scale.
 	 */
 	private final ArrayList<Note> scale = new ArrayList<Note>(NUMBER_OF_NOTES_PER_SCALE);
 
+	/**
+	 * The pitch classes of the scale.
+	 */
+	private PitchClassSet pitchClasses = PitchClassSet.EMPTY;
+
+	/**
+	 * The absolute pitches of the scale.
+	 */
+	private PitchSet pitches = PitchSet.EMPTY;
+
+	/**
+	 * The note order of scales which are not created by the injector.
+	 */
+	private static final NoteOrder DEFAULT_CHROMATICS = new NoteOrder();
+
+	/**
+	 * The circle of fifth of scales which are not created by the injector.
+	 */
+	static final CircleOfFifth DEFAULT_CIRCLE_OF_FIFTH = new CircleOfFifth(DEFAULT_CHROMATICS);
+
 	/**
 	 * The start index of the left half of the circle of fifth.
 	 */
@@ -67,22 +89,50 @@ public abstract class Scale {
 	 */
 	private static final int NUMBER_OF_NOTES_PER_SCALE = 8;
 
+	/**
+	 * Creates a new scale which uses the default note order unless injected.
+	 */
+	protected Scale() {
+	}
+
+	/**
+	 * Creates a new scale.
+	 * 
+	 * @param chromatics
+	 *            The absolute note order.
+	 */
+	Scale(final NoteOrder chromatics) {
+		this.chromatics = chromatics;
+	}
+
+	private void ensureScale() {
+		if (scale.isEmpty()) {
+			buildScale();
+			pitchClasses = PitchClassSet.of(scale);
+			pitches = PitchSet.of(scale);
+		}
+	}
+
 	private void buildScale() {
 		if (shouldUseCircleOfFifth()) {
 			final Note rootNote = getRootNote();
 			final List<Note> correctCircle = getCorrectCircleOfFifth();
 			final List<Integer> indexes = getIndexes(chromatics.indexOf(rootNote));
 
+			// The scale is built from the first matching position; F#/Gb (and D#/Eb in minor)
+			// appear in both halves of the circle.
 			int i;
 			for (i = 0; i < START_INDEX_OF_LEFT_CIRCLE; i++) {
 				if (rootNote.equalsName(correctCircle.get(i))) {
 					for (final Integer in : indexes) {
 						scale.add(chromatics.noteAt(in));
 					}
+					return;
 				} else if (rootNote.equalsName(correctCircle.get(i).getEquivalent())) {
 					for (final Integer in : indexes) {
 						scale.add(chromatics.noteAt(in).getEquivalent());
 					}
+					return;
 				}
 			}
 			for (i = START_INDEX_OF_LEFT_CIRCLE; i < 13; i++) {
@@ -90,15 +140,16 @@ public abstract class Scale {
 					for (final Integer in : indexes) {
 						scale.add(chromatics.noteAt(in).getEquivalent());
 					}
+					return;
 				} else if (rootNote.equalsName(correctCircle.get(i).getEquivalent())) {
 					for (final Integer in : indexes) {
 						scale.add(chromatics.noteAt(in));
 					}
+					return;
 				}
 			}
 		} else {
-			throw new MusiciaUnsupportedOperationException(
-					"Please implement method to compute scales without the circle of fifth.");
+			scale.addAll(getPattern().spell(getRootNote()));
 		}
 	}
 
@@ -110,9 +161,39 @@ public abstract class Scale {
 	 * @return Returns the note at the given position of this scale.
 	 */
 	public Note get(final int position) {
+		ensureScale();
 		return scale.get(position - 1);
 	}
 
+	/**
+	 * Checks whether the pitch class of the given note belongs to this scale, regardless of
+	 * octave and spelling.
+	 * 
+	 * @param note
+	 *            The note.
+	 * @return Returns true only if this scale contains the pitch class of the note.
+	 */
+	public boolean contains(final Note note) {
+		ensureScale();
+		return pitchClasses.contains(note);
+	}
+
+	/**
+	 * @return Returns the pitch classes of this scale.
+	 */
+	public PitchClassSet getPitchClassSet() {
+		ensureScale();
+		return pitchClasses;
+	}
+
+	/**
+	 * @return Returns the absolute pitches of this scale.
+	 */
+	public PitchSet getPitchSet() {
+		ensureScale();
+		return pitches;
+	}
+
 	/**
 	 * @return Returns the specific circle of fifth which should be used to define this scale.
 	 */
@@ -141,6 +222,19 @@ public abstract class Scale {
 		return result;
 	}
 
+	/**
+	 * @return Returns the pattern which spells this scale without the circle of fifth. By default
+	 *         each interval of {@link #getScalePattern()} moves on to the next note letter.
+	 */
+	protected ScalePattern getPattern() {
+		final List<Integer> intervals = getScalePattern();
+		final int[] result = new int[intervals.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = intervals.get(i);
+		}
+		return new ScalePattern(getClass().getSimpleName(), result);
+	}
+
 	/**
 	 * @return Returns the root note of this scale.
 	 */
@@ -150,9 +244,7 @@ public abstract class Scale {
 	 * @return Returns the list of notes representing this scale.
 	 */
 	public ArrayList<Note> getScale() {
-		if (scale.isEmpty()) {
-			buildScale();
-		}
+		ensureScale();
 		return new ArrayList<Note>(scale);
 	}
 
@@ -162,7 +254,8 @@ public abstract class Scale {
 	protected abstract List<Integer> getScalePattern();
 
 	/**
-	 * @return Returns true only if the circle of fifth should be used for this scale.
+	 * @return Returns true only if the circle of fifth should be used for this scale, otherwise the
+	 *         scale is spelled by its pattern (see {@link #getPattern()}).
 	 */
 	protected abstract boolean shouldUseCircleOfFifth();
 
@@ -0,0 +1,153 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.scales;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteOrder;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.notes.util.CircleOfFifth;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * This class holds every major and minor scale of every root note. <br>
+ * <br>
+ * All scales are built once when the catalog is created: for each of the 17 spellings of
+ * {@link org.musicia.notes.model.Note} and for each octave as long as the scale stays within the
+ * 128 supported notes. The returned lists are immutable and shared, a lookup takes constant time.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+@Singleton
+public class ScaleCatalog {
+
+	/**
+	 * The total number of supported notes.
+	 */
+	private static final int TOTAL_NUMBER_OF_NOTES = 128;
+
+	/**
+	 * The flag of a flat spelling in the key of a root note.
+	 */
+	private static final int FLAT = 128;
+
+	/**
+	 * The position of a quarter note in the duration table (the duration of scale notes).
+	 */
+	private static final int QUARTER = 4;
+
+	/**
+	 * The major scales indexed by the key of their root note.
+	 */
+	private final List<List<Note>> majorScales = new ArrayList<List<Note>>(2 * TOTAL_NUMBER_OF_NOTES);
+
+	/**
+	 * The minor scales indexed by the key of their root note.
+	 */
+	private final List<List<Note>> minorScales = new ArrayList<List<Note>>(2 * TOTAL_NUMBER_OF_NOTES);
+
+	/**
+	 * Creates a new ScaleCatalog with its own note order and circle of fifth.
+	 */
+	public ScaleCatalog() {
+		this(new NoteOrder());
+	}
+
+	private ScaleCatalog(final NoteOrder chromatics) {
+		this(chromatics, new CircleOfFifth(chromatics));
+	}
+
+	/**
+	 * Creates a new ScaleCatalog.
+	 * 
+	 * @param chromatics
+	 *            The absolute note order.
+	 * @param circleOf5th
+	 *            The circle of fifth.
+	 */
+	@Inject
+	public ScaleCatalog(final NoteOrder chromatics, final CircleOfFifth circleOf5th) {
+		for (int key = 0; key < 2 * TOTAL_NUMBER_OF_NOTES; key++) {
+			final Note root = NoteSequence.unpack(NoteSequence.pack(key % TOTAL_NUMBER_OF_NOTES, key >= FLAT, QUARTER));
+			majorScales.add(buildScale(new MajorScale(root, chromatics, circleOf5th)));
+			minorScales.add(buildScale(new MinorScale(root, chromatics, circleOf5th)));
+		}
+	}
+
+	private static List<Note> buildScale(final Scale scale) {
+		try {
+			return Collections.unmodifiableList(scale.getScale());
+		} catch (final IllegalArgumentException e) {
+			// The scale exceeds the range of supported notes.
+			return null;
+		}
+	}
+
+	/*
+	 * Every spelling of a root note has its own key: the absolute index plus 128 for flats.
+	 */
+	private static int keyOf(final Note rootNote) {
+		final int packedNote = NoteSequence.pack(rootNote);
+		return NoteSequence.indexOf(packedNote) + (NoteSequence.isFlat(packedNote) ? FLAT : 0);
+	}
+
+	private static List<Note> lookup(final List<List<Note>> scales, final Note rootNote) {
+		final List<Note> scale = scales.get(keyOf(rootNote));
+		if (scale == null) {
+			throw new IllegalArgumentException(String.format(
+					"The scale of the note [%s] exceeds the range of supported notes.", rootNote));
+		}
+		return scale;
+	}
+
+	/**
+	 * @param rootNote
+	 *            The root note of the scale.
+	 * @return Returns the immutable major scale of the given root note.
+	 */
+	public List<Note> getMajorScale(final Note rootNote) {
+		return lookup(majorScales, rootNote);
+	}
+
+	/**
+	 * @param rootNote
+	 *            The root note of the scale.
+	 * @return Returns the immutable minor scale of the given root note.
+	 */
+	public List<Note> getMinorScale(final Note rootNote) {
+		return lookup(minorScales, rootNote);
+	}
+
+}
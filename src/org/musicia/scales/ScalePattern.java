@@ -0,0 +1,284 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.scales;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+
+/**
+ * This class describes a scale by its intervals and the letters of its notes. <br>
+ * <br>
+ * A scale is spelled by stepping through the note letters: each note gets the letter of the root
+ * note moved by its letter step, and the accidental is the difference between the wanted pitch and
+ * the natural pitch of that letter. Spellings without a note name (e.g. E# or Cb) fall back to the
+ * enharmonic name in the direction of the accidental. The circle of fifth is not needed and every
+ * note is spelled in constant time.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class ScalePattern {
+
+	/**
+	 * The number of notes per octave.
+	 */
+	private static final int NUMBER_OF_NOTES_PER_OCTAVE = 12;
+
+	/**
+	 * The number of note letters (C, D, E, F, G, A, B).
+	 */
+	private static final int NUMBER_OF_LETTERS = 7;
+
+	/**
+	 * The total number of supported notes.
+	 */
+	private static final int TOTAL_NUMBER_OF_NOTES = 128;
+
+	/**
+	 * The semitones of the natural notes indexed by their letter.
+	 */
+	private static final int[] NATURAL_SEMITONES = { 0, 2, 4, 5, 7, 9, 11 };
+
+	/**
+	 * The letter of every note spelled sharp (first octave) and flat (second octave).
+	 */
+	private static final int[] LETTERS = { 0, 0, 1, 1, 2, 3, 3, 4, 4, 5, 5, 6, 0, 1, 1, 2, 2, 3, 4, 4, 5, 5, 6, 6 };
+
+	/**
+	 * The name of this pattern.
+	 */
+	private final String name;
+
+	/**
+	 * The distances of the notes to the root note in semitones, starting with 0.
+	 */
+	private final int[] semitones;
+
+	/**
+	 * The distances of the note letters to the letter of the root note, starting with 0.
+	 */
+	private final int[] letters;
+
+	/**
+	 * Creates a new pattern of a seven note scale. Each interval moves on to the next letter.
+	 * 
+	 * @param name
+	 *            The name of the scale.
+	 * @param intervals
+	 *            The 7 intervals of the scale in semitones.
+	 */
+	public ScalePattern(final String name, final int... intervals) {
+		this(name, intervals, new int[] { 1, 1, 1, 1, 1, 1, 1 });
+	}
+
+	/**
+	 * Creates a new ScalePattern.
+	 * 
+	 * @param name
+	 *            The name of the scale.
+	 * @param intervals
+	 *            The intervals of the scale in semitones.
+	 * @param letterSteps
+	 *            The number of letters each interval moves on.
+	 */
+	public ScalePattern(final String name, final int[] intervals, final int[] letterSteps) {
+		if (intervals.length == 0 || intervals.length != letterSteps.length) {
+			throw new IllegalArgumentException(String.format(
+					"The scale [%s] needs one letter step per interval.", name));
+		}
+		this.name = name;
+		semitones = new int[intervals.length + 1];
+		letters = new int[intervals.length + 1];
+		for (int i = 0; i < intervals.length; i++) {
+			if (intervals[i] < 0 || letterSteps[i] < 0) {
+				throw new IllegalArgumentException(String.format("The scale [%s] must ascend.", name));
+			}
+			semitones[i + 1] = semitones[i] + intervals[i];
+			letters[i + 1] = letters[i] + letterSteps[i];
+		}
+	}
+
+	/**
+	 * @return Returns the name of this pattern.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Returns the number of notes of a scale including the octave of the root note.
+	 */
+	public int size() {
+		return semitones.length;
+	}
+
+	/**
+	 * @return Returns the intervals of this pattern in semitones.
+	 */
+	public List<Integer> getIntervals() {
+		final List<Integer> result = new ArrayList<Integer>(semitones.length - 1);
+		for (int i = 1; i < semitones.length; i++) {
+			result.add(semitones[i] - semitones[i - 1]);
+		}
+		return result;
+	}
+
+	/**
+	 * Spells the scale of the given root note.
+	 * 
+	 * @param rootNote
+	 *            The root note of the scale.
+	 * @return Returns the notes of the scale, which have the duration of the root note.
+	 */
+	public List<Note> spell(final Note rootNote) {
+		final int[] packedScale = new int[semitones.length];
+		spell(NoteSequence.pack(rootNote), packedScale, 0);
+		final List<Note> result = new ArrayList<Note>(packedScale.length);
+		for (final int packedNote : packedScale) {
+			result.add(NoteSequence.unpack(packedNote));
+		}
+		return result;
+	}
+
+	/**
+	 * Spells the scale of the given packed root note into the given array.
+	 * 
+	 * @param packedRootNote
+	 *            The packed root note of the scale (see {@link NoteSequence#pack(Note)}).
+	 * @param target
+	 *            The array receiving the packed notes of the scale.
+	 * @param offset
+	 *            The position of the root note in the target array.
+	 * @return Returns the number of written notes.
+	 */
+	public int spell(final int packedRootNote, final int[] target, final int offset) {
+		final int rootIndex = NoteSequence.indexOf(packedRootNote);
+		if (rootIndex + semitones[semitones.length - 1] >= TOTAL_NUMBER_OF_NOTES) {
+			throw new IllegalArgumentException(String.format("The scale [%s] of the note [%s] exceeds the range "
+					+ "of supported notes.", name, NoteSequence.unpack(packedRootNote)));
+		}
+		final int rootSemitone = rootIndex % NUMBER_OF_NOTES_PER_OCTAVE;
+		final int rootLetter = letterOf(rootSemitone, NoteSequence.isFlat(packedRootNote));
+		final int durationIndex = NoteSequence.durationIndexOf(packedRootNote);
+		for (int i = 0; i < semitones.length; i++) {
+			// below zero the note is spelled flat, natural notes ignore the flag
+			final boolean flat = accidentalOf(rootSemitone, rootLetter, i) < 0;
+			target[offset + i] = NoteSequence.pack(rootIndex + semitones[i], flat, durationIndex);
+		}
+		return semitones.length;
+	}
+
+	/**
+	 * @return Returns the pitch classes of this pattern on the root note C as a 12-bit mask (bit 0
+	 *         is C, bit 11 is B).
+	 */
+	public int getMask() {
+		int mask = 0;
+		for (final int semitone : semitones) {
+			mask |= 1 << semitone % NUMBER_OF_NOTES_PER_OCTAVE;
+		}
+		return mask;
+	}
+
+	/**
+	 * Counts the accidentals of the scale of the given root note. A note needing an accidental
+	 * without name (e.g. Cb) is counted, so are double accidentals.
+	 * 
+	 * @param rootSemitone
+	 *            The half tone distance of the root note from C [0-11].
+	 * @param flat
+	 *            Whether a black root note is spelled flat.
+	 * @return Returns the number of accidentals.
+	 */
+	int countAccidentals(final int rootSemitone, final boolean flat) {
+		final int rootLetter = letterOf(rootSemitone, flat);
+		int result = 0;
+		for (int i = 0; i < semitones.length - 1; i++) {
+			result += Math.abs(accidentalOf(rootSemitone, rootLetter, i));
+		}
+		return result;
+	}
+
+	/**
+	 * Moves the given note by an interval which is given in half tones and in letters, e.g. a minor
+	 * third is 3 half tones and 2 letters, so D moves to F and E moves to G.
+	 * 
+	 * @param packedNote
+	 *            The packed note (see {@link NoteSequence#pack(Note)}).
+	 * @param semitones
+	 *            The distance in half tones, may be negative.
+	 * @param letterSteps
+	 *            The distance in letters, may be negative.
+	 * @return Returns the packed note spelled by its letter.
+	 */
+	public static int transpose(final int packedNote, final int semitones, final int letterSteps) {
+		final int index = NoteSequence.indexOf(packedNote) + semitones;
+		if (index < 0 || index >= TOTAL_NUMBER_OF_NOTES) {
+			throw new IllegalArgumentException(String.format("The index [%s] exceeds the range of supported notes.",
+					index));
+		}
+		final int letter = ((letterOf(packedNote) + letterSteps) % NUMBER_OF_LETTERS + NUMBER_OF_LETTERS)
+				% NUMBER_OF_LETTERS;
+		final int accidental = (index % NUMBER_OF_NOTES_PER_OCTAVE - NATURAL_SEMITONES[letter]
+				+ NUMBER_OF_NOTES_PER_OCTAVE + 6) % NUMBER_OF_NOTES_PER_OCTAVE - 6;
+		return NoteSequence.pack(index, accidental < 0, NoteSequence.durationIndexOf(packedNote));
+	}
+
+	/**
+	 * @param packedNote
+	 *            The packed note (see {@link NoteSequence#pack(Note)}).
+	 * @return Returns the letter of the note: 0 is C, 6 is B.
+	 */
+	public static int letterOf(final int packedNote) {
+		return letterOf(NoteSequence.indexOf(packedNote) % NUMBER_OF_NOTES_PER_OCTAVE, NoteSequence.isFlat(packedNote));
+	}
+
+	private static int letterOf(final int semitone, final boolean flat) {
+		return LETTERS[semitone + (flat ? NUMBER_OF_NOTES_PER_OCTAVE : 0)];
+	}
+
+	/*
+	 * The accidental in [-6, 5] which turns the letter of the note at the given position into its
+	 * pitch.
+	 */
+	private int accidentalOf(final int rootSemitone, final int rootLetter, final int position) {
+		final int semitone = (rootSemitone + semitones[position]) % NUMBER_OF_NOTES_PER_OCTAVE;
+		final int natural = NATURAL_SEMITONES[(rootLetter + letters[position]) % NUMBER_OF_LETTERS];
+		return (semitone - natural + NUMBER_OF_NOTES_PER_OCTAVE + 6) % NUMBER_OF_NOTES_PER_OCTAVE - 6;
+	}
+
+	@Override
+	public String toString() {
+		return name + " " + getIntervals();
+	}
+
+}
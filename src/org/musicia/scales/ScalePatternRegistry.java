@@ -0,0 +1,133 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.scales;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.musicia.notes.model.Note;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * This class holds the known scale patterns by name. <br>
+ * <br>
+ * It starts with the church modes, harmonic and melodic minor, the pentatonics, the blues and the
+ * whole tone scale. Further scales are added with {@link #register(ScalePattern)}.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+@Singleton
+public class ScalePatternRegistry {
+
+	/**
+	 * The patterns by their lower case name in the order of registration.
+	 */
+	private final Map<String, ScalePattern> patterns = new LinkedHashMap<String, ScalePattern>();
+
+	/**
+	 * Creates a new ScalePatternRegistry with the predefined patterns.
+	 */
+	@Inject
+	public ScalePatternRegistry() {
+		register(new ScalePattern("Major", 2, 2, 1, 2, 2, 2, 1));
+		register(new ScalePattern("Minor", 2, 1, 2, 2, 1, 2, 2));
+		register(new ScalePattern("Ionian", 2, 2, 1, 2, 2, 2, 1));
+		register(new ScalePattern("Dorian", 2, 1, 2, 2, 2, 1, 2));
+		register(new ScalePattern("Phrygian", 1, 2, 2, 2, 1, 2, 2));
+		register(new ScalePattern("Lydian", 2, 2, 2, 1, 2, 2, 1));
+		register(new ScalePattern("Mixolydian", 2, 2, 1, 2, 2, 1, 2));
+		register(new ScalePattern("Aeolian", 2, 1, 2, 2, 1, 2, 2));
+		register(new ScalePattern("Locrian", 1, 2, 2, 1, 2, 2, 2));
+		register(new ScalePattern("Harmonic Minor", 2, 1, 2, 2, 1, 3, 1));
+		register(new ScalePattern("Melodic Minor", 2, 1, 2, 2, 2, 2, 1));
+		register(new ScalePattern("Major Pentatonic", new int[] { 2, 2, 3, 2, 3 }, new int[] { 1, 1, 2, 1, 2 }));
+		register(new ScalePattern("Minor Pentatonic", new int[] { 3, 2, 2, 3, 2 }, new int[] { 2, 1, 1, 2, 1 }));
+		register(new ScalePattern("Blues", new int[] { 3, 2, 1, 1, 3, 2 }, new int[] { 2, 1, 1, 0, 2, 1 }));
+		register(new ScalePattern("Whole Tone", new int[] { 2, 2, 2, 2, 2, 2 }, new int[] { 1, 1, 1, 1, 1, 2 }));
+	}
+
+	private static String keyOf(final String name) {
+		return name.trim().toLowerCase(Locale.ENGLISH);
+	}
+
+	/**
+	 * Adds the given pattern to this registry.
+	 * 
+	 * @param pattern
+	 *            The pattern to add.
+	 */
+	public synchronized void register(final ScalePattern pattern) {
+		final String key = keyOf(pattern.getName());
+		if (patterns.containsKey(key)) {
+			throw new IllegalArgumentException(String.format("The scale [%s] is already registered.",
+					pattern.getName()));
+		}
+		patterns.put(key, pattern);
+	}
+
+	/**
+	 * @param name
+	 *            The name of the scale, case is ignored.
+	 * @return Returns the pattern of the given name.
+	 */
+	public synchronized ScalePattern get(final String name) {
+		final ScalePattern pattern = patterns.get(keyOf(name));
+		if (pattern == null) {
+			throw new IllegalArgumentException(String.format("The scale [%s] is unknown.", name));
+		}
+		return pattern;
+	}
+
+	/**
+	 * @return Returns all registered patterns in the order of registration.
+	 */
+	public synchronized List<ScalePattern> getPatterns() {
+		return new ArrayList<ScalePattern>(patterns.values());
+	}
+
+	/**
+	 * Creates the scale of the given name and root note.
+	 * 
+	 * @param name
+	 *            The name of the scale, case is ignored.
+	 * @param rootNote
+	 *            The root note of the scale.
+	 * @return Returns the scale.
+	 */
+	public Scale getScale(final String name, final Note rootNote) {
+		return new PatternScale(rootNote, get(name));
+	}
+
+}
@@ -0,0 +1,75 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+/**
+ * This interface describes the audio line written by the {@link RealtimeSynth}. <br>
+ * <br>
+ * It contains the part of {@link javax.sound.sampled.SourceDataLine} the synthesizer needs, so the
+ * render loop can be run against other lines, for example in tests.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public interface AudioLine {
+
+	/**
+	 * Starts the output of the line.
+	 */
+	void start();
+
+	/**
+	 * Stops the output of the line.
+	 */
+	void stop();
+
+	/**
+	 * @return Returns the size of the buffer of the line in bytes.
+	 */
+	int getBufferSize();
+
+	/**
+	 * @return Returns the number of bytes which can be written without blocking.
+	 */
+	int available();
+
+	/**
+	 * Writes 16 bit mono PCM data to the line, blocking until all data has been written.
+	 * 
+	 * @param data
+	 *            The data.
+	 * @param offset
+	 *            The first byte to write.
+	 * @param length
+	 *            The number of bytes to write.
+	 * @return Returns the number of written bytes.
+	 */
+	int write(byte[] data, int offset, int length);
+
+}
@@ -0,0 +1,143 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+/**
+ * This class describes the volume of a synthesized note over time (attack, decay, sustain,
+ * release). <br>
+ * <br>
+ * The level rises linearly from 0 to 1 during the attack, falls linearly to the sustain level
+ * during the decay and is held until the note ends. After the end the level falls linearly to 0
+ * during the release. Instances are immutable.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class Envelope {
+
+	/**
+	 * A short attack and release for plucked or keyed sounds.
+	 */
+	public static final Envelope DEFAULT = new Envelope(0.01, 0.1, 0.7, 0.1);
+
+	/**
+	 * The attack time in seconds.
+	 */
+	private final double attack;
+
+	/**
+	 * The decay time in seconds.
+	 */
+	private final double decay;
+
+	/**
+	 * The sustain level (0 - 1).
+	 */
+	private final double sustain;
+
+	/**
+	 * The release time in seconds.
+	 */
+	private final double release;
+
+	/**
+	 * Creates a new Envelope.
+	 * 
+	 * @param attack
+	 *            The attack time in seconds.
+	 * @param decay
+	 *            The decay time in seconds.
+	 * @param sustain
+	 *            The sustain level (0 - 1).
+	 * @param release
+	 *            The release time in seconds.
+	 */
+	public Envelope(final double attack, final double decay, final double sustain, final double release) {
+		if (!(attack >= 0 && decay >= 0 && release >= 0)) {
+			throw new IllegalArgumentException("The times of an envelope must not be negative.");
+		}
+		if (!(sustain >= 0 && sustain <= 1)) {
+			throw new IllegalArgumentException(String.format("The sustain level [%s] is invalid.", sustain));
+		}
+		this.attack = attack;
+		this.decay = decay;
+		this.sustain = sustain;
+		this.release = release;
+	}
+
+	/**
+	 * @return Returns the attack time in seconds.
+	 */
+	public double getAttack() {
+		return attack;
+	}
+
+	/**
+	 * @return Returns the decay time in seconds.
+	 */
+	public double getDecay() {
+		return decay;
+	}
+
+	/**
+	 * @return Returns the sustain level (0 - 1).
+	 */
+	public double getSustain() {
+		return sustain;
+	}
+
+	/**
+	 * @return Returns the release time in seconds.
+	 */
+	public double getRelease() {
+		return release;
+	}
+
+	/**
+	 * @param sampleRate
+	 *            The sample rate in frames per second.
+	 * @return Returns the release time in frames.
+	 */
+	public int getReleaseFrames(final int sampleRate) {
+		return toFrames(release, sampleRate);
+	}
+
+	static int toFrames(final double seconds, final int sampleRate) {
+		return (int) Math.round(seconds * sampleRate);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("Envelope[A=%s, D=%s, S=%s, R=%s]", attack, decay, sustain, release);
+	}
+
+}
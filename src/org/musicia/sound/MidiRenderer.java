@@ -0,0 +1,210 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.Track;
+
+import org.musicia.exceptions.MusiciaIOException;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+
+import com.google.inject.Inject;
+
+/**
+ * This class renders notes offline into a MIDI sequence or a Standard MIDI File. <br>
+ * <br>
+ * No synthesizer, sequencer or other device is opened, so rendering works on headless machines.
+ * The notes are played one after another on the first channel; the absolute index of a note is
+ * its MIDI key (C5 is 60). Instances are immutable and may render from several threads at once.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class MidiRenderer {
+
+	/**
+	 * The default tempo in beats (quarter notes) per minute.
+	 */
+	public static final int DEFAULT_TEMPO = 120;
+
+	/**
+	 * The default resolution in ticks per quarter note.
+	 */
+	public static final int DEFAULT_PPQ = 480;
+
+	/**
+	 * The type of the tempo meta message.
+	 */
+	private static final int TEMPO = 0x51;
+
+	/**
+	 * The number of microseconds per minute.
+	 */
+	private static final int MICROSECONDS_PER_MINUTE = 60000000;
+
+	/**
+	 * The Standard MIDI File type with a single track.
+	 */
+	private static final int SINGLE_TRACK_FILE = 0;
+
+	/**
+	 * The tempo in beats (quarter notes) per minute.
+	 */
+	private final int tempo;
+
+	/**
+	 * The resolution in ticks per quarter note.
+	 */
+	private final int ppq;
+
+	/**
+	 * Creates a new MidiRenderer with 120 beats per minute and 480 ticks per quarter note.
+	 */
+	@Inject
+	public MidiRenderer() {
+		this(DEFAULT_TEMPO, DEFAULT_PPQ);
+	}
+
+	/**
+	 * Creates a new MidiRenderer.
+	 * 
+	 * @param tempo
+	 *            The tempo in beats (quarter notes) per minute.
+	 * @param ppq
+	 *            The resolution in ticks per quarter note.
+	 */
+	public MidiRenderer(final int tempo, final int ppq) {
+		if (tempo <= 0 || tempo > MICROSECONDS_PER_MINUTE) {
+			throw new IllegalArgumentException(String.format("The tempo [%s] is invalid.", tempo));
+		}
+		if (ppq <= 0 || ppq > Short.MAX_VALUE) {
+			throw new IllegalArgumentException(String.format("The resolution [%s] is invalid.", ppq));
+		}
+		this.tempo = tempo;
+		this.ppq = ppq;
+	}
+
+	/**
+	 * @return Returns the tempo in beats (quarter notes) per minute.
+	 */
+	public int getTempo() {
+		return tempo;
+	}
+
+	/**
+	 * @return Returns the resolution in ticks per quarter note.
+	 */
+	public int getPpq() {
+		return ppq;
+	}
+
+	/**
+	 * Renders the given notes into a sequence with one track.
+	 * 
+	 * @param notes
+	 *            The notes to render.
+	 * @return Returns the sequence.
+	 */
+	public Sequence render(final Iterable<Note> notes) {
+		final Sequence sequence = createSequence();
+		new MidiTrackBuilder(sequence.getTracks()[0], ppq).addAll(notes);
+		return sequence;
+	}
+
+	/**
+	 * Renders the given packed notes into a sequence with one track.
+	 * 
+	 * @param notes
+	 *            The notes to render.
+	 * @return Returns the sequence.
+	 */
+	public Sequence render(final NoteSequence notes) {
+		final Sequence sequence = createSequence();
+		new MidiTrackBuilder(sequence.getTracks()[0], ppq).addAll(notes);
+		return sequence;
+	}
+
+	/**
+	 * Renders the given notes into the bytes of a Standard MIDI File.
+	 * 
+	 * @param notes
+	 *            The notes to render.
+	 * @return Returns the bytes of the file.
+	 */
+	public byte[] renderFile(final Iterable<Note> notes) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		write(render(notes), out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Writes the given sequence as Standard MIDI File. The stream is not closed.
+	 * 
+	 * @param sequence
+	 *            The sequence to write.
+	 * @param out
+	 *            The stream to write to.
+	 */
+	public static void write(final Sequence sequence, final OutputStream out) {
+		final int[] types = MidiSystem.getMidiFileTypes(sequence);
+		final int type = types.length > 0 && types[0] == SINGLE_TRACK_FILE ? SINGLE_TRACK_FILE : 1;
+		try {
+			MidiSystem.write(sequence, type, out);
+		} catch (final IOException e) {
+			throw new MusiciaIOException("An I/O error occured.", e);
+		}
+	}
+
+	private Sequence createSequence() {
+		try {
+			final Sequence sequence = new Sequence(Sequence.PPQ, ppq);
+			final Track track = sequence.createTrack();
+			final int microsecondsPerQuarter = MICROSECONDS_PER_MINUTE / tempo;
+			final byte[] data = { (byte) (microsecondsPerQuarter >>> 16), (byte) (microsecondsPerQuarter >>> 8),
+					(byte) microsecondsPerQuarter };
+			final MetaMessage message = new MetaMessage();
+			message.setMessage(TEMPO, data, data.length);
+			track.add(new MidiEvent(message, 0L));
+			return sequence;
+		} catch (final InvalidMidiDataException e) {
+			// the tempo and the resolution are checked by the constructor
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,212 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteDuration;
+import org.musicia.notes.model.NoteDurationTable;
+import org.musicia.notes.model.NoteSequence;
+
+/**
+ * This class appends notes one after another to a MIDI track. <br>
+ * <br>
+ * The note on and note off messages are created straight from the index and the duration of the
+ * notes, so no notes are formatted to strings and parsed again. The absolute index of a note is its
+ * MIDI key (C5 is 60). Instances are not thread safe.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class MidiTrackBuilder {
+
+	/**
+	 * The default velocity of the notes.
+	 */
+	public static final int DEFAULT_VELOCITY = 64;
+
+	/**
+	 * The track to append to.
+	 */
+	private final Track track;
+
+	/**
+	 * The resolution of the track in ticks per quarter note.
+	 */
+	private final int ppq;
+
+	/**
+	 * The channel of the notes.
+	 */
+	private final int channel;
+
+	/**
+	 * The velocity of the notes.
+	 */
+	private final int velocity;
+
+	/**
+	 * The start of the next note in ticks of {@link NoteDuration}. The MIDI ticks are derived from
+	 * this total, so rounding errors do not add up.
+	 */
+	private long total;
+
+	/**
+	 * Creates a new MidiTrackBuilder on the first channel which starts at tick 0.
+	 * 
+	 * @param track
+	 *            The track to append to.
+	 * @param ppq
+	 *            The resolution of the track in ticks per quarter note.
+	 */
+	public MidiTrackBuilder(final Track track, final int ppq) {
+		this(track, ppq, 0, DEFAULT_VELOCITY);
+	}
+
+	/**
+	 * Creates a new MidiTrackBuilder which starts at tick 0.
+	 * 
+	 * @param track
+	 *            The track to append to.
+	 * @param ppq
+	 *            The resolution of the track in ticks per quarter note.
+	 * @param channel
+	 *            The channel of the notes (0 - 15).
+	 * @param velocity
+	 *            The velocity of the notes (0 - 127).
+	 */
+	public MidiTrackBuilder(final Track track, final int ppq, final int channel, final int velocity) {
+		if (ppq <= 0) {
+			throw new IllegalArgumentException(String.format("The resolution [%s] is invalid.", ppq));
+		}
+		if (channel < 0 || channel > 15) {
+			throw new IllegalArgumentException(String.format("The channel [%s] is invalid.", channel));
+		}
+		if (velocity < 0 || velocity > 127) {
+			throw new IllegalArgumentException(String.format("The velocity [%s] is invalid.", velocity));
+		}
+		this.track = track;
+		this.ppq = ppq;
+		this.channel = channel;
+		this.velocity = velocity;
+	}
+
+	/**
+	 * @return Returns the tick of the next note.
+	 */
+	public long getTick() {
+		return toMidiTicks(total);
+	}
+
+	/**
+	 * Appends the given note.
+	 * 
+	 * @param note
+	 *            The note to append.
+	 * @return Returns this builder.
+	 */
+	public MidiTrackBuilder add(final Note note) {
+		return add(NoteSequence.indexOf(NoteSequence.pack(note)), note.getDurationInTicks());
+	}
+
+	/**
+	 * Appends the given packed note.
+	 * 
+	 * @param packedNote
+	 *            The packed note to append.
+	 * @return Returns this builder.
+	 */
+	public MidiTrackBuilder add(final int packedNote) {
+		return add(NoteSequence.indexOf(packedNote), NoteDurationTable.getTicks(NoteSequence
+				.durationIndexOf(packedNote)));
+	}
+
+	/**
+	 * Appends all given notes.
+	 * 
+	 * @param notes
+	 *            The notes to append.
+	 * @return Returns this builder.
+	 */
+	public MidiTrackBuilder addAll(final Iterable<Note> notes) {
+		for (final Note note : notes) {
+			add(note);
+		}
+		return this;
+	}
+
+	/**
+	 * Appends all given packed notes.
+	 * 
+	 * @param notes
+	 *            The packed notes to append.
+	 * @return Returns this builder.
+	 */
+	public MidiTrackBuilder addAll(final NoteSequence notes) {
+		for (int i = 0; i < notes.size(); i++) {
+			add(notes.get(i));
+		}
+		return this;
+	}
+
+	/**
+	 * Appends a note.
+	 * 
+	 * @param key
+	 *            The MIDI key (0 - 127).
+	 * @param durationInTicks
+	 *            The duration in ticks of {@link NoteDuration}.
+	 * @return Returns this builder.
+	 */
+	public MidiTrackBuilder add(final int key, final int durationInTicks) {
+		final long start = toMidiTicks(total);
+		final long end = toMidiTicks(total + durationInTicks);
+		try {
+			final ShortMessage on = new ShortMessage();
+			on.setMessage(ShortMessage.NOTE_ON, channel, key, velocity);
+			track.add(new MidiEvent(on, start));
+			final ShortMessage off = new ShortMessage();
+			off.setMessage(ShortMessage.NOTE_OFF, channel, key, 0);
+			track.add(new MidiEvent(off, end));
+		} catch (final InvalidMidiDataException e) {
+			throw new IllegalArgumentException(String.format("The key [%s] is invalid.", key), e);
+		}
+		total += durationInTicks;
+		return this;
+	}
+
+	private long toMidiTicks(final long ticks) {
+		return ticks * ppq / NoteDuration.TICKS_PER_QUARTER;
+	}
+
+}
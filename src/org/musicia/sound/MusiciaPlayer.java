@@ -50,8 +50,11 @@ import java.util.ArrayList;
  * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
  *
  */
+import javax.sound.midi.Sequence;
+
 import org.jfugue.Player;
 import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
 
 /**
  * This class provides methods to play nice sounds.
@@ -62,10 +65,20 @@ import org.musicia.notes.model.Note;
 public class MusiciaPlayer extends Player {
 
 	/**
-	 * The stored notes to play.
+	 * The renderer of the stored notes.
+	 */
+	private static final MidiRenderer RENDERER = new MidiRenderer();
+
+	/**
+	 * The stored formatted notes to play or null if they are not formatted yet.
 	 */
 	private String notesToPlay = "";
 
+	/**
+	 * The stored notes rendered to MIDI events or null if the formatted notes are played.
+	 */
+	private Sequence sequence;
+
 	/**
 	 * A list of notes.
 	 */
@@ -112,22 +125,74 @@ public class MusiciaPlayer extends Player {
 		setNotesNoPlay();
 	}
 
+	/**
+	 * Creates a new MusiciaPlayer and stores the given packed notes to play.
+	 * 
+	 * @param notes
+	 *            The packed notes to play.
+	 */
+	public MusiciaPlayer(NoteSequence notes) {
+		listOfNotes.addAll(notes.toList());
+		setNotesNoPlay();
+	}
+
 	/**
 	 * Plays the stored notes.
 	 */
 	public void play() {
-		if (!notesToPlay.isEmpty()) {
+		if (sequence != null) {
+			if (!listOfNotes.isEmpty()) {
+				super.play(sequence);
+			}
+		} else if (!notesToPlay.isEmpty()) {
 			super.play(notesToPlay);
 		}
 	}
 
+	/**
+	 * Queues the stored notes on the given service and returns immediately.
+	 * 
+	 * @param service
+	 *            The service to play on.
+	 * @param listener
+	 *            The listener to notify on completion or null.
+	 * @return Returns the queued request.
+	 */
+	public PlaybackRequest play(PlaybackService service, PlaybackListener listener) {
+		return service.play(sequence != null ? sequence : RENDERER.render(listOfNotes), listener);
+	}
+
+	/**
+	 * Streams the stored notes to the given real-time synthesizer and returns immediately.
+	 * 
+	 * @param synth
+	 *            The synthesizer to play on.
+	 */
+	public void play(RealtimeSynth synth) {
+		synth.play(listOfNotes);
+	}
+
 	/**
 	 * @return Returns the notes to play.
 	 */
 	public String getNotesToPlay() {
+		if (notesToPlay == null) {
+			notesToPlay = formatNotes();
+		}
 		return notesToPlay;
 	}
 
+	/**
+	 * Renders the stored notes offline without opening a synthesizer.
+	 * 
+	 * @param renderer
+	 *            The renderer to use.
+	 * @return Returns the rendered sequence.
+	 */
+	public Sequence toSequence(MidiRenderer renderer) {
+		return renderer.render(listOfNotes);
+	}
+
 	/**
 	 * @param listOfNotes
 	 *            The listOfNotes to play.
@@ -138,7 +203,13 @@ public class MusiciaPlayer extends Player {
 	}
 
 	private void setNotesNoPlay() {
-		StringBuffer chainedNotes = new StringBuffer(256);
+		// The notes are only formatted on demand.
+		notesToPlay = null;
+		sequence = RENDERER.render(listOfNotes);
+	}
+
+	private String formatNotes() {
+		StringBuilder chainedNotes = new StringBuilder(256);
 		for (Note note : listOfNotes) {
 			if (note.isFlat()) {
 				// The super class only accepts sharp notes.
@@ -148,7 +219,7 @@ public class MusiciaPlayer extends Player {
 			}
 			chainedNotes.append(" ");
 		}
-		notesToPlay = chainedNotes.toString().trim();
+		return chainedNotes.toString().trim();
 	}
 
 }
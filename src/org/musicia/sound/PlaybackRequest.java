@@ -0,0 +1,239 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sound.midi.Sequence;
+
+/**
+ * This class represents one sequence queued for playback by the {@link PlaybackService}. <br>
+ * <br>
+ * Requests are created by the service and may be cancelled and repositioned from any thread.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class PlaybackRequest {
+
+	/**
+	 * The states of a request.
+	 */
+	public enum State {
+		/**
+		 * Waiting in the queue
+		 */
+		QUEUED,
+		/**
+		 * Being played
+		 */
+		PLAYING,
+		/**
+		 * Played to the end
+		 */
+		FINISHED,
+		/**
+		 * Cancelled before or while playing
+		 */
+		CANCELLED,
+		/**
+		 * Failed to play
+		 */
+		FAILED
+	}
+
+	/**
+	 * Marks that no position has been requested.
+	 */
+	static final long NO_SEEK = -1L;
+
+	/**
+	 * The service which plays this request.
+	 */
+	private final PlaybackService service;
+
+	/**
+	 * The sequence to play.
+	 */
+	private final Sequence sequence;
+
+	/**
+	 * The listener to notify or null.
+	 */
+	private final PlaybackListener listener;
+
+	/**
+	 * Released when the request has been completed.
+	 */
+	private final CountDownLatch completion = new CountDownLatch(1);
+
+	/**
+	 * The current state.
+	 */
+	private State state = State.QUEUED;
+
+	/**
+	 * The error of a failed request.
+	 */
+	private Exception error;
+
+	/**
+	 * Whether the request should stop playing.
+	 */
+	private volatile boolean cancelRequested;
+
+	/**
+	 * The tick to jump to or {@link #NO_SEEK}.
+	 */
+	private final AtomicLong seekTick = new AtomicLong(NO_SEEK);
+
+	PlaybackRequest(final PlaybackService service, final Sequence sequence, final PlaybackListener listener) {
+		this.service = service;
+		this.sequence = sequence;
+		this.listener = listener;
+	}
+
+	/**
+	 * @return Returns the sequence to play.
+	 */
+	public Sequence getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return Returns the current state.
+	 */
+	public synchronized State getState() {
+		return state;
+	}
+
+	/**
+	 * @return Returns the error of a failed request or null.
+	 */
+	public synchronized Exception getError() {
+		return error;
+	}
+
+	/**
+	 * @return Returns whether the request has been finished, cancelled or has failed.
+	 */
+	public synchronized boolean isDone() {
+		return state != State.QUEUED && state != State.PLAYING;
+	}
+
+	/**
+	 * Cancels the request. A queued request is removed from the queue, a playing request is
+	 * stopped. Completed requests are not changed.
+	 */
+	public void cancel() {
+		cancelRequested = true;
+		if (service.dequeue(this)) {
+			complete(State.CANCELLED, null);
+		} else {
+			service.wakeUp();
+		}
+	}
+
+	/**
+	 * Jumps to the given position. A queued request starts at this position.
+	 * 
+	 * @param tick
+	 *            The position in ticks of the sequence.
+	 */
+	public void seek(final long tick) {
+		if (tick < 0) {
+			throw new IllegalArgumentException(String.format("The position [%s] is invalid.", tick));
+		}
+		seekTick.set(tick);
+		service.wakeUp();
+	}
+
+	/**
+	 * Waits until the request has been completed and the listener has been notified.
+	 * 
+	 * @param timeout
+	 *            The maximum time to wait in milliseconds.
+	 * @return Returns whether the request has been completed.
+	 * @throws InterruptedException
+	 *             If the current thread has been interrupted.
+	 */
+	public boolean await(final long timeout) throws InterruptedException {
+		return completion.await(timeout, TimeUnit.MILLISECONDS);
+	}
+
+	boolean isCancelRequested() {
+		return cancelRequested;
+	}
+
+	/*
+	 * Returns the requested position and resets it.
+	 */
+	long takeSeekTick() {
+		return seekTick.getAndSet(NO_SEEK);
+	}
+
+	/*
+	 * Moves a queued request to playing and returns whether it may be played.
+	 */
+	synchronized boolean start() {
+		if (state != State.QUEUED || cancelRequested) {
+			return false;
+		}
+		state = State.PLAYING;
+		return true;
+	}
+
+	void complete(final State finalState, final Exception e) {
+		synchronized (this) {
+			if (isDone()) {
+				return;
+			}
+			state = finalState;
+			error = e;
+		}
+		try {
+			if (listener != null) {
+				listener.playbackCompleted(this);
+			}
+		} finally {
+			completion.countDown();
+		}
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("PlaybackRequest[%s]", getState());
+	}
+
+}
@@ -0,0 +1,306 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaEventListener;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.MidiUnavailableException;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.Sequencer;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * This class plays sequences one after another without blocking the calling thread. <br>
+ * <br>
+ * All requests share one sequencer which is opened on the first request and kept open until
+ * {@link #shutdown(long)}. Requests wait in a bounded queue and are played by a single daemon thread;
+ * {@link #play(Sequence, PlaybackListener)} fails instead of blocking when the queue is full.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+@Singleton
+public class PlaybackService {
+
+	/**
+	 * The default number of requests which may wait in the queue.
+	 */
+	public static final int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * How often a playing request checks the sequencer in milliseconds.
+	 */
+	private static final long POLL_INTERVAL = 50L;
+
+	/**
+	 * The type of the end of track meta message.
+	 */
+	private static final int END_OF_TRACK = 0x2F;
+
+	/**
+	 * The thread which plays the requests.
+	 */
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Notified when a playing request should wake up.
+	 */
+	private final Object monitor = new Object();
+
+	/**
+	 * The shared sequencer or null if the default sequencer has not been opened yet. <br>
+	 * Only used by the playback thread.
+	 */
+	private Sequencer sequencer;
+
+	/**
+	 * The request being played or null.
+	 */
+	private volatile PlaybackRequest current;
+
+	/**
+	 * Creates a new PlaybackService which plays on the default sequencer.
+	 */
+	@Inject
+	public PlaybackService() {
+		this(null, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new PlaybackService.
+	 * 
+	 * @param sequencer
+	 *            The sequencer to play on or null for the default sequencer.
+	 * @param capacity
+	 *            The number of requests which may wait in the queue.
+	 */
+	public PlaybackService(final Sequencer sequencer, final int capacity) {
+		this.sequencer = sequencer;
+		this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(
+				capacity), new ThreadFactory() {
+
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread t = new Thread(r, "Musicia-Playback");
+				t.setDaemon(true);
+				return t;
+			}
+
+		});
+	}
+
+	/**
+	 * Queues the given sequence for playback and returns immediately.
+	 * 
+	 * @param sequence
+	 *            The sequence to play.
+	 * @param listener
+	 *            The listener to notify on completion or null.
+	 * @return Returns the queued request.
+	 */
+	public PlaybackRequest play(final Sequence sequence, final PlaybackListener listener) {
+		final PlaybackRequest request = new PlaybackRequest(this, sequence, listener);
+		try {
+			executor.execute(new PlaybackTask(request));
+		} catch (final RejectedExecutionException e) {
+			throw new IllegalStateException("The playback queue is full or the service has been shut down.", e);
+		}
+		return request;
+	}
+
+	/**
+	 * @return Returns the request being played or null.
+	 */
+	public PlaybackRequest getCurrentRequest() {
+		return current;
+	}
+
+	/**
+	 * @return Returns the number of requests waiting in the queue.
+	 */
+	public int getQueueSize() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * Cancels the playing and all queued requests.
+	 */
+	public void cancelAll() {
+		for (final Runnable task : executor.getQueue().toArray(new Runnable[0])) {
+			((PlaybackTask) task).request.cancel();
+		}
+		final PlaybackRequest request = current;
+		if (request != null) {
+			request.cancel();
+		}
+	}
+
+	/**
+	 * Cancels all requests, stops the playback thread and closes the sequencer.
+	 * 
+	 * @param timeout
+	 *            The maximum time to wait for the playback thread in milliseconds.
+	 * @throws InterruptedException
+	 *             If the current thread has been interrupted.
+	 */
+	public void shutdown(final long timeout) throws InterruptedException {
+		executor.shutdown();
+		cancelAll();
+		if (executor.awaitTermination(timeout, TimeUnit.MILLISECONDS) && sequencer != null && sequencer.isOpen()) {
+			sequencer.close();
+		}
+	}
+
+	boolean dequeue(final PlaybackRequest request) {
+		for (final Runnable task : executor.getQueue()) {
+			if (((PlaybackTask) task).request == request) {
+				return executor.remove(task);
+			}
+		}
+		return false;
+	}
+
+	void wakeUp() {
+		synchronized (monitor) {
+			monitor.notifyAll();
+		}
+	}
+
+	private Sequencer getSequencer() throws MidiUnavailableException {
+		if (sequencer == null) {
+			sequencer = MidiSystem.getSequencer();
+		}
+		if (!sequencer.isOpen()) {
+			sequencer.open();
+			sequencer.addMetaEventListener(new MetaEventListener() {
+
+				@Override
+				public void meta(final MetaMessage meta) {
+					if (meta.getType() == END_OF_TRACK) {
+						wakeUp();
+					}
+				}
+
+			});
+		}
+		return sequencer;
+	}
+
+	/*
+	 * Plays the given request on the playback thread.
+	 */
+	void playRequest(final PlaybackRequest request) {
+		if (!request.start()) {
+			request.complete(PlaybackRequest.State.CANCELLED, null);
+			return;
+		}
+		current = request;
+		Sequencer s = null;
+		try {
+			s = getSequencer();
+			s.setSequence(request.getSequence());
+			s.setTickPosition(0L);
+			seek(s, request);
+			s.start();
+			synchronized (monitor) {
+				while (!request.isCancelRequested() && s.isRunning()) {
+					monitor.wait(POLL_INTERVAL);
+					seek(s, request);
+				}
+			}
+			s.stop();
+			request.complete(request.isCancelRequested() ? PlaybackRequest.State.CANCELLED
+					: PlaybackRequest.State.FINISHED, null);
+		} catch (final MidiUnavailableException e) {
+			request.complete(PlaybackRequest.State.FAILED, e);
+		} catch (final InvalidMidiDataException e) {
+			request.complete(PlaybackRequest.State.FAILED, e);
+		} catch (final InterruptedException e) {
+			stopQuietly(s);
+			request.complete(PlaybackRequest.State.CANCELLED, null);
+			Thread.currentThread().interrupt();
+		} catch (final RuntimeException e) {
+			stopQuietly(s);
+			request.complete(PlaybackRequest.State.FAILED, e);
+		} finally {
+			if (!request.isDone()) {
+				// errors must not leave callers waiting forever
+				request.complete(PlaybackRequest.State.FAILED, null);
+			}
+			current = null;
+		}
+	}
+
+	private static void stopQuietly(final Sequencer s) {
+		if (s != null && s.isOpen()) {
+			try {
+				s.stop();
+			} catch (final RuntimeException e) {
+				// the request has failed anyway
+			}
+		}
+	}
+
+	private static void seek(final Sequencer s, final PlaybackRequest request) {
+		final long tick = request.takeSeekTick();
+		if (tick != PlaybackRequest.NO_SEEK) {
+			s.setTickPosition(Math.min(tick, s.getTickLength()));
+		}
+	}
+
+	// ESCA-JAVA0118:
+	private class PlaybackTask implements Runnable {
+
+		/**
+		 * The request to play.
+		 */
+		private final PlaybackRequest request;
+
+		PlaybackTask(final PlaybackRequest request) {
+			this.request = request;
+		}
+
+		@Override
+		public void run() {
+			playRequest(request);
+		}
+
+	}
+
+}
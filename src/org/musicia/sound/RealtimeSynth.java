@@ -0,0 +1,652 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteDuration;
+import org.musicia.notes.model.NoteDurationTable;
+import org.musicia.notes.model.NoteSequence;
+
+/**
+ * This class synthesizes notes in real time and writes them to an {@link AudioLine}. <br>
+ * <br>
+ * Notes are passed from the calling threads to the render thread through a lock-free ring buffer
+ * of preallocated event slots and played by a fixed pool of preallocated voices. Rendering a block
+ * ({@link #renderBlock()}) does not allocate any objects and takes no locks; only the producers
+ * synchronize among each other. Notes which do not fit into the ring buffer wait on the producer
+ * side and are moved into it while the render thread frees slots, so scores of any length can be
+ * streamed. If all voices are sounding, the oldest one is stolen. Underruns of the line and stolen
+ * voices are counted.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class RealtimeSynth {
+
+	/**
+	 * The default number of voices.
+	 */
+	public static final int DEFAULT_VOICES = 16;
+
+	/**
+	 * The default number of event slots.
+	 */
+	public static final int DEFAULT_EVENTS = 1024;
+
+	/**
+	 * The default number of frames rendered at once (about 6 milliseconds at 44100 Hz).
+	 */
+	public static final int DEFAULT_BLOCK_FRAMES = 256;
+
+	/**
+	 * How often the feeder thread queues pending notes in milliseconds.
+	 */
+	private static final long FEED_INTERVAL = 10L;
+
+	/**
+	 * Starts a note.
+	 */
+	private static final int NOTE_ON = 0;
+
+	/**
+	 * Releases all voices with the key.
+	 */
+	private static final int NOTE_OFF = 1;
+
+	/**
+	 * Silences all voices.
+	 */
+	private static final int ALL_NOTES_OFF = 2;
+
+	/**
+	 * The line to write to.
+	 */
+	private final AudioLine line;
+
+	/**
+	 * The sample rate in frames per second.
+	 */
+	private final int sampleRate;
+
+	/**
+	 * The tempo in beats (quarter notes) per minute.
+	 */
+	private final int tempo;
+
+	/**
+	 * The voices.
+	 */
+	private final SynthVoice[] voices;
+
+	/**
+	 * The start frame of every voice for stealing the oldest one.
+	 */
+	private final long[] voiceStarts;
+
+	/**
+	 * The mixed samples of one block.
+	 */
+	private final float[] mix;
+
+	/**
+	 * The PCM data of one block.
+	 */
+	private final byte[] pcm;
+
+	/**
+	 * The events to execute at the start of the next block.
+	 */
+	private final EventRing immediateEvents;
+
+	/**
+	 * The notes to start at their frame, ordered by frame.
+	 */
+	private final EventRing timedEvents;
+
+	/**
+	 * The number of rendered frames.
+	 */
+	private final AtomicLong renderedFrames = new AtomicLong();
+
+	/**
+	 * The number of buffer underruns of the line.
+	 */
+	private final AtomicLong underruns = new AtomicLong();
+
+	/**
+	 * The number of stolen voices.
+	 */
+	private final AtomicLong stolenVoices = new AtomicLong();
+
+	/**
+	 * The notes which did not fit into the event queue yet. Guarded by the producer lock.
+	 */
+	private NoteSequence pendingNotes = new NoteSequence();
+
+	/**
+	 * The position of the next pending note. Guarded by the producer lock.
+	 */
+	private int pendingPosition;
+
+	/**
+	 * The frame from which the queued notes are timed. Guarded by the producer lock.
+	 */
+	private long baseFrame;
+
+	/**
+	 * The ticks of the notes queued since the base frame. Guarded by the producer lock.
+	 */
+	private long baseTicks;
+
+	/**
+	 * The thread which runs the render loop or null.
+	 */
+	private volatile Thread renderThread;
+
+	/**
+	 * The thread which queues the pending notes or null.
+	 */
+	private Thread feederThread;
+
+	/**
+	 * Creates a new RealtimeSynth with 44100 Hz, 120 beats per minute and default sizes.
+	 * 
+	 * @param line
+	 *            The line to write to.
+	 */
+	public RealtimeSynth(final AudioLine line) {
+		this(line, SoftSynth.DEFAULT_SAMPLE_RATE, MidiRenderer.DEFAULT_TEMPO, Wavetable.ORGAN, Envelope.DEFAULT,
+				DEFAULT_VOICES, DEFAULT_EVENTS, DEFAULT_BLOCK_FRAMES);
+	}
+
+	/**
+	 * Creates a new RealtimeSynth. All buffers are allocated here.
+	 * 
+	 * @param line
+	 *            The line to write to.
+	 * @param sampleRate
+	 *            The sample rate of the line in frames per second.
+	 * @param tempo
+	 *            The tempo in beats (quarter notes) per minute.
+	 * @param wavetable
+	 *            The waveform.
+	 * @param envelope
+	 *            The envelope.
+	 * @param voiceCount
+	 *            The number of voices.
+	 * @param eventCount
+	 *            The number of event slots, a power of two.
+	 * @param blockFrames
+	 *            The number of frames rendered at once.
+	 */
+	public RealtimeSynth(final AudioLine line, final int sampleRate, final int tempo, final Wavetable wavetable,
+			final Envelope envelope, final int voiceCount, final int eventCount, final int blockFrames) {
+		if (tempo <= 0) {
+			throw new IllegalArgumentException(String.format("The tempo [%s] is invalid.", tempo));
+		}
+		if (voiceCount <= 0) {
+			throw new IllegalArgumentException(String.format("The number of voices [%s] is invalid.", voiceCount));
+		}
+		if (eventCount <= 0 || Integer.bitCount(eventCount) != 1) {
+			throw new IllegalArgumentException(String.format("The number of events [%s] is not a power of two.",
+					eventCount));
+		}
+		if (blockFrames <= 0) {
+			throw new IllegalArgumentException(String.format("The block size [%s] is invalid.", blockFrames));
+		}
+		this.line = line;
+		this.sampleRate = sampleRate;
+		this.tempo = tempo;
+		this.voices = new SynthVoice[voiceCount];
+		for (int i = 0; i < voiceCount; i++) {
+			voices[i] = new SynthVoice(wavetable, envelope, sampleRate);
+		}
+		this.voiceStarts = new long[voiceCount];
+		this.mix = new float[blockFrames];
+		this.pcm = new byte[2 * blockFrames];
+		this.immediateEvents = new EventRing(eventCount);
+		this.timedEvents = new EventRing(eventCount);
+	}
+
+	/**
+	 * Starts a note as soon as possible.
+	 * 
+	 * @param key
+	 *            The MIDI key (0 - 127).
+	 * @param lengthInFrames
+	 *            The frames until the release, {@link Integer#MAX_VALUE} to hold the note until
+	 *            {@link #noteOff(int)}.
+	 * @return Returns false if the event queue is full.
+	 */
+	public synchronized boolean noteOn(final int key, final int lengthInFrames) {
+		checkKey(key);
+		return immediateEvents.offer(NOTE_ON, 0L, key, lengthInFrames);
+	}
+
+	/**
+	 * Releases all voices playing the given key.
+	 * 
+	 * @param key
+	 *            The MIDI key (0 - 127).
+	 * @return Returns false if the event queue is full.
+	 */
+	public synchronized boolean noteOff(final int key) {
+		checkKey(key);
+		return immediateEvents.offer(NOTE_OFF, 0L, key, 0);
+	}
+
+	/**
+	 * Silences all voices at once and drops all queued and pending notes.
+	 * 
+	 * @return Returns false if the event queue is full.
+	 */
+	public synchronized boolean allNotesOff() {
+		// the render thread drops the notes queued up to now
+		final boolean offered = immediateEvents.offer(ALL_NOTES_OFF, timedEvents.written.get(), 0, 0);
+		if (offered) {
+			pendingNotes = new NoteSequence();
+			pendingPosition = 0;
+			baseFrame = 0L;
+			baseTicks = 0L;
+		}
+		return offered;
+	}
+
+	/**
+	 * Plays the given notes one after another after the notes played before. <br>
+	 * Notes which do not fit into the event queue are kept and queued as soon as the render thread
+	 * has freed slots, by the feeder thread of {@link #start()} or by {@link #feed()}.
+	 * 
+	 * @param notes
+	 *            The notes to play.
+	 */
+	public void play(final Iterable<Note> notes) {
+		final NoteSequence sequence = new NoteSequence();
+		for (final Note note : notes) {
+			sequence.add(note);
+		}
+		play(sequence);
+	}
+
+	/**
+	 * Plays the given packed notes one after another after the notes played before. <br>
+	 * Notes which do not fit into the event queue are kept and queued as soon as the render thread
+	 * has freed slots, by the feeder thread of {@link #start()} or by {@link #feed()}.
+	 * 
+	 * @param notes
+	 *            The packed notes to play.
+	 */
+	public synchronized void play(final NoteSequence notes) {
+		for (int i = 0; i < notes.size(); i++) {
+			pendingNotes.add(notes.get(i));
+		}
+		feed();
+	}
+
+	/**
+	 * Moves as many pending notes into the event queue as fit.
+	 * 
+	 * @return Returns the number of queued notes.
+	 */
+	public synchronized int feed() {
+		int fed = 0;
+		while (pendingPosition < pendingNotes.size() && timedEvents.free() > 0) {
+			final int packedNote = pendingNotes.get(pendingPosition++);
+			long start = baseFrame + toFrames(baseTicks);
+			final long now = renderedFrames.get();
+			if (start < now) {
+				// the notes before have been played, so the next note starts at once
+				baseFrame = now;
+				baseTicks = 0L;
+				start = now;
+			}
+			baseTicks += NoteDurationTable.getTicks(NoteSequence.durationIndexOf(packedNote));
+			timedEvents.offer(NOTE_ON, start, NoteSequence.indexOf(packedNote), (int) (baseFrame
+					+ toFrames(baseTicks) - start));
+			fed++;
+		}
+		if (pendingPosition == pendingNotes.size() && pendingPosition > 0) {
+			pendingNotes = new NoteSequence();
+			pendingPosition = 0;
+		}
+		return fed;
+	}
+
+	/**
+	 * @return Returns the number of notes which wait for free slots in the event queue.
+	 */
+	public synchronized int getPendingNotes() {
+		return pendingNotes.size() - pendingPosition;
+	}
+
+	/**
+	 * Renders one block and writes it to the line. This method is called by the render loop and
+	 * must only be called by one thread at a time.
+	 * 
+	 * @return Returns the number of frames written.
+	 */
+	public int renderBlock() {
+		final int frames = mix.length;
+		final long blockStart = renderedFrames.get();
+		for (int i = 0; i < frames; i++) {
+			mix[i] = 0f;
+		}
+		while (!immediateEvents.isEmpty()) {
+			apply(immediateEvents, blockStart);
+			immediateEvents.remove();
+		}
+		int position = 0;
+		while (position < frames) {
+			int segmentEnd = frames;
+			if (!timedEvents.isEmpty()) {
+				final long due = timedEvents.peekFrame() - blockStart;
+				if (due <= position) {
+					apply(timedEvents, blockStart + position);
+					timedEvents.remove();
+					continue;
+				}
+				if (due < frames) {
+					segmentEnd = (int) due;
+				}
+			}
+			for (final SynthVoice voice : voices) {
+				if (voice.isActive()) {
+					voice.render(mix, position, segmentEnd - position);
+				}
+			}
+			position = segmentEnd;
+		}
+		SoftSynth.toPcm16(mix, 0, frames, pcm, 0);
+		if (blockStart > 0 && line.available() >= line.getBufferSize()) {
+			underruns.incrementAndGet();
+		}
+		line.write(pcm, 0, pcm.length);
+		renderedFrames.lazySet(blockStart + frames);
+		return frames;
+	}
+
+	/**
+	 * Starts the line, a render loop and a feeder of the pending notes on new daemon threads.
+	 */
+	public synchronized void start() {
+		if (renderThread != null) {
+			throw new IllegalStateException("The render loop is already running.");
+		}
+		line.start();
+		final Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				while (renderThread == Thread.currentThread()) {
+					renderBlock();
+				}
+			}
+
+		}, "Musicia-Synth");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MAX_PRIORITY);
+		renderThread = thread;
+		thread.start();
+
+		feederThread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				synchronized (RealtimeSynth.this) {
+					try {
+						while (renderThread == thread) {
+							feed();
+							RealtimeSynth.this.wait(FEED_INTERVAL);
+						}
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+
+		}, "Musicia-Synth-Feeder");
+		feederThread.setDaemon(true);
+		feederThread.start();
+	}
+
+	/**
+	 * Stops the render loop and the line.
+	 * 
+	 * @throws InterruptedException
+	 *             If the current thread has been interrupted.
+	 */
+	public void stop() throws InterruptedException {
+		final Thread thread;
+		final Thread feeder;
+		synchronized (this) {
+			thread = renderThread;
+			feeder = feederThread;
+			renderThread = null;
+			feederThread = null;
+			notifyAll();
+		}
+		if (thread != null) {
+			thread.join();
+			feeder.join();
+			line.stop();
+		}
+	}
+
+	/**
+	 * @return Returns the number of rendered frames.
+	 */
+	public long getRenderedFrames() {
+		return renderedFrames.get();
+	}
+
+	/**
+	 * @return Returns how often the line ran out of data.
+	 */
+	public long getUnderruns() {
+		return underruns.get();
+	}
+
+	/**
+	 * @return Returns how often a sounding voice has been stolen for a new note.
+	 */
+	public long getStolenVoices() {
+		return stolenVoices.get();
+	}
+
+	/**
+	 * @return Returns the number of events waiting in the queue.
+	 */
+	public int getQueuedEvents() {
+		return immediateEvents.size() + timedEvents.size();
+	}
+
+	/**
+	 * @return Returns the number of sounding voices.
+	 */
+	public int getActiveVoices() {
+		int active = 0;
+		for (final SynthVoice voice : voices) {
+			if (voice.isActive()) {
+				active++;
+			}
+		}
+		return active;
+	}
+
+	private long toFrames(final long ticks) {
+		return ticks * 60L * sampleRate / ((long) tempo * NoteDuration.TICKS_PER_QUARTER);
+	}
+
+	private static void checkKey(final int key) {
+		if (key < 0 || key > 127) {
+			throw new IllegalArgumentException(String.format("The key [%s] is invalid.", key));
+		}
+	}
+
+	/*
+	 * Executes an event on the render thread.
+	 */
+	private void apply(final EventRing events, final long frame) {
+		final int slot = events.head();
+		switch (events.types[slot]) {
+		case NOTE_ON:
+			int chosen = 0;
+			for (int i = 0; i < voices.length; i++) {
+				if (!voices[i].isActive()) {
+					chosen = i;
+					break;
+				}
+				if (voiceStarts[i] < voiceStarts[chosen]) {
+					chosen = i;
+				}
+				if (i == voices.length - 1) {
+					stolenVoices.incrementAndGet();
+				}
+			}
+			voices[chosen].noteOn(events.keys[slot], events.lengths[slot], SoftSynth.DEFAULT_AMPLITUDE);
+			voiceStarts[chosen] = frame;
+			break;
+		case NOTE_OFF:
+			for (final SynthVoice voice : voices) {
+				if (voice.getKey() == events.keys[slot]) {
+					voice.noteOff();
+				}
+			}
+			break;
+		default:
+			for (final SynthVoice voice : voices) {
+				voice.kill();
+			}
+			timedEvents.removeUpTo(events.frames[slot]);
+			break;
+		}
+	}
+
+	// ESCA-JAVA0118:
+	private static class EventRing {
+
+		/**
+		 * The mask of the slot indexes.
+		 */
+		private final int mask;
+
+		/**
+		 * The start frames of the events.
+		 */
+		private final long[] frames;
+
+		/**
+		 * The types of the events.
+		 */
+		private final int[] types;
+
+		/**
+		 * The MIDI keys of the events.
+		 */
+		private final int[] keys;
+
+		/**
+		 * The lengths of the notes in frames.
+		 */
+		private final int[] lengths;
+
+		/**
+		 * The number of events written by the producers.
+		 */
+		private final AtomicLong written = new AtomicLong();
+
+		/**
+		 * The number of events removed by the render thread.
+		 */
+		private final AtomicLong read = new AtomicLong();
+
+		EventRing(final int capacity) {
+			mask = capacity - 1;
+			frames = new long[capacity];
+			types = new int[capacity];
+			keys = new int[capacity];
+			lengths = new int[capacity];
+		}
+
+		int size() {
+			return (int) (written.get() - read.get());
+		}
+
+		int free() {
+			return mask + 1 - size();
+		}
+
+		/*
+		 * Writes an event into the next free slot. Only called by producers holding the lock.
+		 */
+		boolean offer(final int type, final long frame, final int key, final int length) {
+			final long w = written.get();
+			if (w - read.get() > mask) {
+				return false;
+			}
+			final int slot = (int) w & mask;
+			types[slot] = type;
+			frames[slot] = frame;
+			keys[slot] = key;
+			lengths[slot] = length;
+			// publishes the slot to the render thread
+			written.lazySet(w + 1);
+			return true;
+		}
+
+		boolean isEmpty() {
+			return read.get() == written.get();
+		}
+
+		int head() {
+			return (int) read.get() & mask;
+		}
+
+		long peekFrame() {
+			return frames[head()];
+		}
+
+		void remove() {
+			read.lazySet(read.get() + 1);
+		}
+
+		/*
+		 * Removes all events before the given write count.
+		 */
+		void removeUpTo(final long count) {
+			if (count > read.get()) {
+				read.lazySet(count);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,317 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.musicia.exceptions.MusiciaIOException;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteDuration;
+import org.musicia.notes.model.NoteDurationTable;
+import org.musicia.notes.model.NoteSequence;
+
+import com.google.inject.Inject;
+
+/**
+ * This class synthesizes notes offline into audio samples and WAV files. <br>
+ * <br>
+ * No audio or MIDI device is used, so rendering works on headless machines. The notes are played one
+ * after another; the release of a note overlaps the start of the next one. Samples are rendered as
+ * floats into a buffer which may be preallocated by the caller and converted to 16 bit mono PCM
+ * chunk by chunk. Instances are immutable and may render from several threads at once.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class SoftSynth {
+
+	/**
+	 * The default sample rate in frames per second.
+	 */
+	public static final int DEFAULT_SAMPLE_RATE = 44100;
+
+	/**
+	 * The default peak amplitude of a note.
+	 */
+	public static final float DEFAULT_AMPLITUDE = 0.5f;
+
+	/**
+	 * The number of frames converted to PCM at once.
+	 */
+	private static final int CHUNK_FRAMES = 4096;
+
+	/**
+	 * The size of a WAV header in bytes.
+	 */
+	private static final int WAV_HEADER_SIZE = 44;
+
+	/**
+	 * The sample rate in frames per second.
+	 */
+	private final int sampleRate;
+
+	/**
+	 * The tempo in beats (quarter notes) per minute.
+	 */
+	private final int tempo;
+
+	/**
+	 * The waveform.
+	 */
+	private final Wavetable wavetable;
+
+	/**
+	 * The envelope.
+	 */
+	private final Envelope envelope;
+
+	/**
+	 * Creates a new SoftSynth with 44100 Hz, 120 beats per minute, an organ like waveform and the
+	 * default envelope.
+	 */
+	@Inject
+	public SoftSynth() {
+		this(DEFAULT_SAMPLE_RATE, MidiRenderer.DEFAULT_TEMPO, Wavetable.ORGAN, Envelope.DEFAULT);
+	}
+
+	/**
+	 * Creates a new SoftSynth.
+	 * 
+	 * @param sampleRate
+	 *            The sample rate in frames per second.
+	 * @param tempo
+	 *            The tempo in beats (quarter notes) per minute.
+	 * @param wavetable
+	 *            The waveform.
+	 * @param envelope
+	 *            The envelope.
+	 */
+	public SoftSynth(final int sampleRate, final int tempo, final Wavetable wavetable, final Envelope envelope) {
+		if (sampleRate <= 0) {
+			throw new IllegalArgumentException(String.format("The sample rate [%s] is invalid.", sampleRate));
+		}
+		if (tempo <= 0) {
+			throw new IllegalArgumentException(String.format("The tempo [%s] is invalid.", tempo));
+		}
+		this.sampleRate = sampleRate;
+		this.tempo = tempo;
+		this.wavetable = wavetable;
+		this.envelope = envelope;
+	}
+
+	/**
+	 * @return Returns the sample rate in frames per second.
+	 */
+	public int getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * Converts a duration into frames.
+	 * 
+	 * @param ticks
+	 *            The duration in ticks of {@link NoteDuration}.
+	 * @return Returns the duration in frames.
+	 */
+	public long toFrames(final long ticks) {
+		return ticks * 60L * sampleRate / ((long) tempo * NoteDuration.TICKS_PER_QUARTER);
+	}
+
+	/**
+	 * Returns the number of frames needed to render the given notes including the last release.
+	 * 
+	 * @param notes
+	 *            The packed notes.
+	 * @return Returns the number of frames.
+	 */
+	public int getLength(final NoteSequence notes) {
+		final long frames = toFrames(notes.getLengthInTicks()) + envelope.getReleaseFrames(sampleRate);
+		if (frames > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The notes are too long to be rendered at once.");
+		}
+		return (int) frames;
+	}
+
+	/**
+	 * Renders the given notes into a new buffer.
+	 * 
+	 * @param notes
+	 *            The notes to render.
+	 * @return Returns the samples.
+	 */
+	public float[] render(final List<Note> notes) {
+		return render(new NoteSequence(notes));
+	}
+
+	/**
+	 * Renders the given packed notes into a new buffer.
+	 * 
+	 * @param notes
+	 *            The packed notes to render.
+	 * @return Returns the samples.
+	 */
+	public float[] render(final NoteSequence notes) {
+		final float[] buffer = new float[getLength(notes)];
+		render(notes, buffer, 0);
+		return buffer;
+	}
+
+	/**
+	 * Renders the given packed notes into the given buffer. The samples are added to the content of
+	 * the buffer, so it has to be cleared before it is reused.
+	 * 
+	 * @param notes
+	 *            The packed notes to render.
+	 * @param buffer
+	 *            The buffer with at least {@link #getLength(NoteSequence)} frames after the offset.
+	 * @param offset
+	 *            The first frame in the buffer.
+	 */
+	public void render(final NoteSequence notes, final float[] buffer, final int offset) {
+		if (buffer.length - offset < getLength(notes)) {
+			throw new IllegalArgumentException("The buffer is too small.");
+		}
+		final SynthVoice voice = new SynthVoice(wavetable, envelope, sampleRate);
+		long ticks = 0L;
+		for (int i = 0; i < notes.size(); i++) {
+			final int packedNote = notes.get(i);
+			final int start = (int) toFrames(ticks);
+			ticks += NoteDurationTable.getTicks(NoteSequence.durationIndexOf(packedNote));
+			voice.noteOn(NoteSequence.indexOf(packedNote), (int) toFrames(ticks) - start, DEFAULT_AMPLITUDE);
+			voice.render(buffer, offset + start, buffer.length - offset - start);
+		}
+	}
+
+	/**
+	 * Renders the given notes into the bytes of a WAV file.
+	 * 
+	 * @param notes
+	 *            The notes to render.
+	 * @return Returns the bytes of the file.
+	 */
+	public byte[] renderWav(final List<Note> notes) {
+		final float[] samples = render(notes);
+		final ByteArrayOutputStream out = new ByteArrayOutputStream(WAV_HEADER_SIZE + 2 * samples.length);
+		writeWav(samples, 0, samples.length, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Writes the given samples as 16 bit mono WAV file. The stream is not closed.
+	 * 
+	 * @param samples
+	 *            The samples to write.
+	 * @param from
+	 *            The first frame (inclusive).
+	 * @param to
+	 *            The last frame (exclusive).
+	 * @param out
+	 *            The stream to write to.
+	 */
+	public void writeWav(final float[] samples, final int from, final int to, final OutputStream out) {
+		final int dataSize = 2 * (to - from);
+		final byte[] chunk = new byte[Math.max(WAV_HEADER_SIZE, 2 * CHUNK_FRAMES)];
+		int p = 0;
+		p = putAscii(chunk, p, "RIFF");
+		p = putInt(chunk, p, 36 + dataSize, 4);
+		p = putAscii(chunk, p, "WAVE");
+		p = putAscii(chunk, p, "fmt ");
+		p = putInt(chunk, p, 16, 4);
+		// PCM, mono
+		p = putInt(chunk, p, 1, 2);
+		p = putInt(chunk, p, 1, 2);
+		p = putInt(chunk, p, sampleRate, 4);
+		p = putInt(chunk, p, 2 * sampleRate, 4);
+		p = putInt(chunk, p, 2, 2);
+		p = putInt(chunk, p, 16, 2);
+		p = putAscii(chunk, p, "data");
+		p = putInt(chunk, p, dataSize, 4);
+		try {
+			out.write(chunk, 0, p);
+			for (int f = from; f < to; f += CHUNK_FRAMES) {
+				final int end = Math.min(to, f + CHUNK_FRAMES);
+				toPcm16(samples, f, end, chunk, 0);
+				out.write(chunk, 0, 2 * (end - f));
+			}
+		} catch (final IOException e) {
+			throw new MusiciaIOException("An I/O error occured.", e);
+		}
+	}
+
+	/**
+	 * Converts samples into signed 16 bit little endian PCM. Samples outside of -1 and 1 are
+	 * clipped.
+	 * 
+	 * @param samples
+	 *            The samples.
+	 * @param from
+	 *            The first frame (inclusive).
+	 * @param to
+	 *            The last frame (exclusive).
+	 * @param target
+	 *            Where to store the bytes.
+	 * @param offset
+	 *            The first byte in the target.
+	 */
+	public static void toPcm16(final float[] samples, final int from, final int to, final byte[] target,
+			final int offset) {
+		int p = offset;
+		for (int i = from; i < to; i++) {
+			final float sample = samples[i];
+			final int value;
+			if (sample >= 1f) {
+				value = Short.MAX_VALUE;
+			} else if (sample <= -1f) {
+				value = -Short.MAX_VALUE;
+			} else {
+				value = Math.round(sample * Short.MAX_VALUE);
+			}
+			target[p++] = (byte) value;
+			target[p++] = (byte) (value >> 8);
+		}
+	}
+
+	private static int putAscii(final byte[] target, final int offset, final String s) {
+		for (int i = 0; i < s.length(); i++) {
+			target[offset + i] = (byte) s.charAt(i);
+		}
+		return offset + s.length();
+	}
+
+	private static int putInt(final byte[] target, final int offset, final int value, final int bytes) {
+		for (int i = 0; i < bytes; i++) {
+			target[offset + i] = (byte) (value >> 8 * i);
+		}
+		return offset + bytes;
+	}
+
+}
@@ -0,0 +1,110 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * This class writes to a {@link SourceDataLine} of the sound system.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class SourceDataLineAdapter implements AudioLine {
+
+	/**
+	 * The line to write to.
+	 */
+	private final SourceDataLine line;
+
+	/**
+	 * Creates a new SourceDataLineAdapter.
+	 * 
+	 * @param line
+	 *            The opened line to write to.
+	 */
+	public SourceDataLineAdapter(final SourceDataLine line) {
+		this.line = line;
+	}
+
+	/**
+	 * Opens the default 16 bit mono line of the sound system.
+	 * 
+	 * @param sampleRate
+	 *            The sample rate in frames per second.
+	 * @param bufferFrames
+	 *            The size of the buffer of the line in frames. Smaller buffers have less latency.
+	 * @return Returns the opened line.
+	 * @throws LineUnavailableException
+	 *             If no line is available.
+	 */
+	public static SourceDataLineAdapter open(final int sampleRate, final int bufferFrames)
+			throws LineUnavailableException {
+		final AudioFormat format = new AudioFormat(sampleRate, 16, 1, true, false);
+		final SourceDataLine line = AudioSystem.getSourceDataLine(format);
+		line.open(format, 2 * bufferFrames);
+		return new SourceDataLineAdapter(line);
+	}
+
+	/**
+	 * Closes the line.
+	 */
+	public void close() {
+		line.close();
+	}
+
+	@Override
+	public void start() {
+		line.start();
+	}
+
+	@Override
+	public void stop() {
+		line.stop();
+	}
+
+	@Override
+	public int getBufferSize() {
+		return line.getBufferSize();
+	}
+
+	@Override
+	public int available() {
+		return line.available();
+	}
+
+	@Override
+	public int write(final byte[] data, final int offset, final int length) {
+		return line.write(data, offset, length);
+	}
+
+}
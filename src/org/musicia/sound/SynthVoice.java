@@ -0,0 +1,282 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+/**
+ * This class synthesizes one note at a time from a {@link Wavetable} and an {@link Envelope}. <br>
+ * <br>
+ * A voice is created once and reused for many notes; starting, stopping and rendering a note do not
+ * allocate any objects, so voices may be used on real-time audio threads. Instances are not thread
+ * safe.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class SynthVoice {
+
+	/**
+	 * The frequency of A5 (MIDI key 69) in Hz.
+	 */
+	private static final double CONCERT_PITCH = 440.0;
+
+	/**
+	 * The frequencies in Hz by MIDI key.
+	 */
+	private static final double[] FREQUENCIES = new double[128];
+
+	static {
+		for (int key = 0; key < FREQUENCIES.length; key++) {
+			FREQUENCIES[key] = CONCERT_PITCH * Math.pow(2, (key - 69) / 12.0);
+		}
+	}
+
+	/**
+	 * The waveform.
+	 */
+	private final Wavetable wavetable;
+
+	/**
+	 * The sample rate in frames per second.
+	 */
+	private final int sampleRate;
+
+	/**
+	 * The attack time in frames.
+	 */
+	private final int attackFrames;
+
+	/**
+	 * The end of the decay in frames.
+	 */
+	private final int decayEnd;
+
+	/**
+	 * The sustain level.
+	 */
+	private final float sustain;
+
+	/**
+	 * The release time in frames.
+	 */
+	private final int releaseFrames;
+
+	/**
+	 * The level increase per frame during the attack.
+	 */
+	private final float attackRate;
+
+	/**
+	 * The level decrease per frame during the decay.
+	 */
+	private final float decayRate;
+
+	/**
+	 * The relative level decrease per frame during the release.
+	 */
+	private final float releaseRate;
+
+	/**
+	 * The MIDI key of the current note.
+	 */
+	private int key = -1;
+
+	/**
+	 * The amplitude of the current note.
+	 */
+	private float amplitude;
+
+	/**
+	 * The position in the wavetable.
+	 */
+	private double phase;
+
+	/**
+	 * The wavetable entries per frame.
+	 */
+	private double increment;
+
+	/**
+	 * The frames since the start of the current note.
+	 */
+	private int frame;
+
+	/**
+	 * The frame at which the release starts.
+	 */
+	private int holdFrames;
+
+	/**
+	 * The last envelope level.
+	 */
+	private float level;
+
+	/**
+	 * The envelope level at the start of the release.
+	 */
+	private float releaseLevel;
+
+	/**
+	 * Whether the voice is sounding.
+	 */
+	private boolean active;
+
+	/**
+	 * Creates a new SynthVoice.
+	 * 
+	 * @param wavetable
+	 *            The waveform.
+	 * @param envelope
+	 *            The envelope.
+	 * @param sampleRate
+	 *            The sample rate in frames per second.
+	 */
+	public SynthVoice(final Wavetable wavetable, final Envelope envelope, final int sampleRate) {
+		if (sampleRate <= 0) {
+			throw new IllegalArgumentException(String.format("The sample rate [%s] is invalid.", sampleRate));
+		}
+		this.wavetable = wavetable;
+		this.sampleRate = sampleRate;
+		this.attackFrames = Envelope.toFrames(envelope.getAttack(), sampleRate);
+		final int decayFrames = Envelope.toFrames(envelope.getDecay(), sampleRate);
+		this.decayEnd = attackFrames + decayFrames;
+		this.sustain = (float) envelope.getSustain();
+		this.releaseFrames = envelope.getReleaseFrames(sampleRate);
+		this.attackRate = attackFrames > 0 ? 1f / attackFrames : 1f;
+		this.decayRate = decayFrames > 0 ? (1f - sustain) / decayFrames : 0f;
+		this.releaseRate = releaseFrames > 0 ? 1f / releaseFrames : 1f;
+	}
+
+	/**
+	 * Starts a note. A sounding note is replaced.
+	 * 
+	 * @param midiKey
+	 *            The MIDI key (0 - 127).
+	 * @param lengthInFrames
+	 *            The frames until the release starts, {@link Integer#MAX_VALUE} to hold the note
+	 *            until {@link #noteOff()}.
+	 * @param noteAmplitude
+	 *            The peak amplitude.
+	 */
+	public void noteOn(final int midiKey, final int lengthInFrames, final float noteAmplitude) {
+		if (midiKey < 0 || midiKey >= FREQUENCIES.length) {
+			throw new IllegalArgumentException(String.format("The key [%s] is invalid.", midiKey));
+		}
+		key = midiKey;
+		amplitude = noteAmplitude;
+		phase = 0;
+		increment = FREQUENCIES[midiKey] * Wavetable.SIZE / sampleRate;
+		frame = 0;
+		holdFrames = Math.max(0, lengthInFrames);
+		level = 0f;
+		active = true;
+	}
+
+	/**
+	 * Starts the release of the current note.
+	 */
+	public void noteOff() {
+		if (active && frame < holdFrames) {
+			holdFrames = frame;
+		}
+	}
+
+	/**
+	 * Stops the current note at once.
+	 */
+	public void kill() {
+		active = false;
+		key = -1;
+	}
+
+	/**
+	 * @return Returns whether the voice is sounding.
+	 */
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * @return Returns whether the current note has not been released yet.
+	 */
+	public boolean isHeld() {
+		return active && frame < holdFrames;
+	}
+
+	/**
+	 * @return Returns the MIDI key of the current note or -1.
+	 */
+	public int getKey() {
+		return key;
+	}
+
+	/**
+	 * Adds the samples of the current note to the given buffer.
+	 * 
+	 * @param buffer
+	 *            The buffer to add to.
+	 * @param offset
+	 *            The first frame in the buffer.
+	 * @param frames
+	 *            The maximum number of frames to render.
+	 * @return Returns the number of rendered frames, less than frames if the note has ended.
+	 */
+	public int render(final float[] buffer, final int offset, final int frames) {
+		int i = 0;
+		while (i < frames && active) {
+			if (frame < holdFrames) {
+				if (frame < attackFrames) {
+					level = (frame + 1) * attackRate;
+				} else if (frame < decayEnd) {
+					level = 1f - (frame - attackFrames) * decayRate;
+				} else {
+					level = sustain;
+				}
+			} else {
+				final int released = frame - holdFrames;
+				if (released >= releaseFrames) {
+					kill();
+					break;
+				}
+				if (released == 0) {
+					releaseLevel = level;
+				}
+				level = releaseLevel * (1f - released * releaseRate);
+			}
+			buffer[offset + i] += wavetable.get(phase) * level * amplitude;
+			phase += increment;
+			if (phase >= Wavetable.SIZE) {
+				phase %= Wavetable.SIZE;
+			}
+			frame++;
+			i++;
+		}
+		return i;
+	}
+
+}
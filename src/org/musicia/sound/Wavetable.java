@@ -0,0 +1,102 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.sound;
+
+/**
+ * This class stores one period of a waveform as a table of samples. <br>
+ * <br>
+ * The waveform is the sum of harmonic sine waves and is normalized to a peak of 1. Samples between
+ * the table entries are interpolated linearly. Instances are immutable.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public final class Wavetable {
+
+	/**
+	 * The number of samples of one period.
+	 */
+	public static final int SIZE = 4096;
+
+	/**
+	 * A pure sine wave.
+	 */
+	public static final Wavetable SINE = new Wavetable(1.0);
+
+	/**
+	 * A sine wave with some overtones.
+	 */
+	public static final Wavetable ORGAN = new Wavetable(1.0, 0.5, 0.25, 0.125);
+
+	/**
+	 * The samples of one period and a copy of the first sample for the interpolation.
+	 */
+	private final float[] samples = new float[SIZE + 1];
+
+	/**
+	 * Creates a new Wavetable.
+	 * 
+	 * @param harmonics
+	 *            The amplitudes of the fundamental and the overtones.
+	 */
+	public Wavetable(final double... harmonics) {
+		if (harmonics.length == 0) {
+			throw new IllegalArgumentException("A wavetable needs at least one harmonic.");
+		}
+		final double[] wave = new double[SIZE];
+		double peak = 0;
+		for (int i = 0; i < SIZE; i++) {
+			for (int h = 0; h < harmonics.length; h++) {
+				wave[i] += harmonics[h] * Math.sin(2 * Math.PI * (h + 1) * i / SIZE);
+			}
+			peak = Math.max(peak, Math.abs(wave[i]));
+		}
+		if (peak == 0) {
+			throw new IllegalArgumentException("A wavetable must not be silent.");
+		}
+		for (int i = 0; i < SIZE; i++) {
+			samples[i] = (float) (wave[i] / peak);
+		}
+		samples[SIZE] = samples[0];
+	}
+
+	/**
+	 * Returns the sample at the given phase.
+	 * 
+	 * @param phase
+	 *            The phase in table entries (0 &lt;= phase &lt; {@link #SIZE}).
+	 * @return Returns the interpolated sample.
+	 */
+	public float get(final double phase) {
+		final int i = (int) phase;
+		final float fraction = (float) (phase - i);
+		return samples[i] + fraction * (samples[i + 1] - samples[i]);
+	}
+
+}
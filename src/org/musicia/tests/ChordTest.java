@@ -0,0 +1,124 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.chords.Chord;
+import org.musicia.chords.ChordParser;
+import org.musicia.chords.ChordQuality;
+import org.musicia.chords.ChordTransposer;
+
+/**
+ * Testing if chords are parsed, spelled and transposed correctly.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class ChordTest {
+
+	/**
+	 * unit under test
+	 */
+	private final ChordParser parser = new ChordParser("C Am7 | Dm7/C G7sus4\nBbmaj7 F#m7b5 Cb Xm E#");
+
+	/**
+	 * Chord symbols
+	 */
+	@Test
+	public void parseChords() {
+		Assert.assertEquals("Wrong chords!", "[C, Am7, Dm7/C, G7sus4, Bbmaj7, F#m7b5]", parser.getParsedChords()
+				.toString());
+		Assert.assertEquals("Wrong invalid tokens!", "[[|] at line 1, column 7, [Cb] at line 2, column 15, "
+				+ "[Xm] at line 2, column 18, [E#] at line 2, column 21]", parser.getInvalidTokens().toString());
+		Assert.assertEquals("Wrong quality!", ChordQuality.MINOR_SEVENTH, ChordParser.parse("C-7").getQuality());
+		Assert.assertEquals("Wrong chord!", ChordParser.parse("Ebmaj7"), ChordParser.parse("EbM7"));
+	}
+
+	/**
+	 * Invalid chord symbol
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidChord() {
+		ChordParser.parse("Hmaj7");
+	}
+
+	/**
+	 * Chords are separated by the same characters as notes.
+	 */
+	@Test
+	public void separators() {
+		final ChordParser chords = new ChordParser("C\u2003G\tAm\u001CF");
+		Assert.assertEquals("Wrong chords!", "[]", chords.getParsedChords().toString());
+		Assert.assertEquals("Wrong invalid tokens!", 2, chords.getInvalidTokens().size());
+	}
+
+	/**
+	 * Chord tones are spelled by their degrees.
+	 */
+	@Test
+	public void chordTones() {
+		Assert.assertEquals("Wrong notes!", "[Eb5q, G5q, Bb5q, Db6q]", ChordParser.parse("Eb7").getNotes().toString());
+		Assert.assertEquals("Wrong notes!", "[F#5q, A5q, C6q, E6q]", ChordParser.parse("F#m7b5").getNotes().toString());
+		Assert.assertEquals("Wrong notes!", "[E4q, C5q, E5q, G5q]", ChordParser.parse("C/E").getNotes().toString());
+		Assert.assertEquals("Wrong notes!", "[D5q, F#5q, A5q, C6q, E6q]", ChordParser.parse("D9").getNotes().toString());
+	}
+
+	/**
+	 * Transposition preserves the quality and follows the spelling of the target key.
+	 */
+	@Test
+	public void transposeChords() {
+		final List<Chord> chords = parser.getParsedChords();
+		final Chord[][] result = ChordTransposer.transpose(chords, new int[] { 0, 1, 2, -2 });
+		Assert.assertEquals("Wrong chords!", chords.toString(), Arrays.asList(result[0]).toString());
+		Assert.assertEquals("Wrong chords!", "[Db, Bbm7, Ebm7/Db, Ab7sus4, Bmaj7, Gm7b5]", Arrays.asList(result[1])
+				.toString());
+		Assert.assertEquals("Wrong chords!", "[D, Bm7, Em7/D, A7sus4, Cmaj7, G#m7b5]", Arrays.asList(result[2])
+				.toString());
+		Assert.assertEquals("Wrong chords!", "[Bb, Gm7, Cm7/Bb, F7sus4, Abmaj7, Em7b5]", Arrays.asList(result[3])
+				.toString());
+	}
+
+	/**
+	 * Repeated chords share their transposed instance.
+	 */
+	@Test
+	public void sharedChords() {
+		final List<Chord> chords = new ChordParser("C G C G").getParsedChords();
+		final Chord[][] result = ChordTransposer.transpose(chords, new int[] { 5 });
+		Assert.assertSame("Chords are not shared!", result[0][0], result[0][2]);
+		Assert.assertEquals("Wrong chord!", "G7", ChordParser.parse("A7").transpose(-2, false).toString());
+		Assert.assertEquals("Wrong octave!", 5, result[0][1].getRoot().getOctave());
+	}
+
+}
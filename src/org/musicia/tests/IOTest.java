@@ -28,11 +28,18 @@
  */
 package org.musicia.tests;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import junit.framework.Assert;
 
 import org.junit.Test;
 import org.musicia.commands.ExportTextCommand;
 import org.musicia.commands.ImportTextCommand;
+import org.musicia.io.TextFileReader;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.util.InvalidToken;
+import org.musicia.notes.util.NoteHandler;
 
 /**
  * Testing if the writing and reading of files works properly.
@@ -58,4 +65,41 @@ public class IOTest {
 		Assert.assertEquals("Strings not equal.", output, i.getResult());
 	}
 
+	/**
+	 * Write a file and append to it.
+	 */
+	@Test
+	public void writeAppendAndRead() {
+		new ExportTextCommand("Line 1", "TestAppend.txt").execute();
+		new ExportTextCommand(System.getProperty("line.separator") + "Line2", "TestAppend.txt", true).execute();
+		final ImportTextCommand i = new ImportTextCommand("TestAppend.txt");
+		i.execute();
+		Assert.assertEquals("Strings not equal.", output, i.getResult());
+	}
+
+	/**
+	 * Write notes and parse them from the file without reading it into memory.
+	 */
+	@Test
+	public void writeAndParse() {
+		new ExportTextCommand("C D#4" + System.getProperty("line.separator") + "Cb Gb10", "TestNotes.txt").execute();
+		final List<Note> notes = new ArrayList<Note>();
+		final List<InvalidToken> invalidTokens = new ArrayList<InvalidToken>();
+		new TextFileReader().parseFile("TestNotes.txt", new NoteHandler() {
+
+			@Override
+			public void handleNote(final Note note) {
+				notes.add(note);
+			}
+
+			@Override
+			public void handleInvalidToken(final InvalidToken token) {
+				invalidTokens.add(token);
+			}
+
+		});
+		Assert.assertEquals("Notes not equal.", "[C5q, D#4q, Gb10q]", notes.toString());
+		Assert.assertEquals("Invalid tokens not equal.", "[[Cb] at line 2, column 1]", invalidTokens.toString());
+	}
+
 }
@@ -0,0 +1,197 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.notes.util.BatchTransposer;
+import org.musicia.notes.util.IncrementalNoteParser;
+import org.musicia.notes.util.NoteParser;
+import org.musicia.notes.util.TranspositionTable;
+
+/**
+ * Testing the incremental parsing and transposition of edited texts.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class IncrementalNoteParserTest {
+
+	/**
+	 * The transposition distances.
+	 */
+	private static final int[] DISTANCES = { -2, -1, 0, 1, 2 };
+
+	/**
+	 * Fragments for random edits.
+	 */
+	private static final String[] FRAGMENTS = { "", " ", "\n", "C", "D#", "Eb4", "b", "5", "X", "G10", "  A B " };
+
+	/**
+	 * unit under test
+	 */
+	private final IncrementalNoteParser parser = new IncrementalNoteParser();
+
+	/**
+	 * unit under test
+	 */
+	private final TranspositionTable table = new TranspositionTable(DISTANCES);
+
+	/**
+	 * Only the touched tokens are parsed again.
+	 */
+	@Test
+	public void edit() {
+		final StringBuilder text = new StringBuilder("C D E F");
+		IncrementalNoteParser.Change change = parser.reset(text);
+		Assert.assertEquals("Wrong change!", "Change[0, -0, +4]", change.toString());
+
+		// "C D# E F"
+		text.insert(3, '#');
+		change = parser.edit(text, 3, 0, 1);
+		Assert.assertEquals("Wrong change!", "Change[1, -1, +1]", change.toString());
+
+		// "C D# EF" joins two notes into an invalid token
+		text.deleteCharAt(6);
+		change = parser.edit(text, 6, 1, 0);
+		Assert.assertEquals("Wrong change!", "Change[2, -2, +0]", change.toString());
+		Assert.assertEquals("Wrong invalid tokens!", 1, parser.getNumberOfInvalidTokens());
+
+		// "C D# E F" splits it again
+		text.insert(6, ' ');
+		change = parser.edit(text, 6, 0, 1);
+		Assert.assertEquals("Wrong change!", "Change[2, -0, +2]", change.toString());
+		Assert.assertEquals("Wrong invalid tokens!", 0, parser.getNumberOfInvalidTokens());
+		assertParsed(text);
+	}
+
+	/**
+	 * Random edits give the same result as parsing and transposing the whole text.
+	 */
+	@Test
+	public void randomEdits() {
+		final Random random = new Random(42);
+		final StringBuilder text = new StringBuilder("C D E F G A B");
+		table.apply(parser.reset(text));
+		for (int i = 0; i < 2000; i++) {
+			final int offset = random.nextInt(text.length() + 1);
+			final int removed = random.nextInt(Math.min(4, text.length() - offset) + 1);
+			final String inserted = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+			text.replace(offset, offset + removed, inserted);
+			table.apply(parser.edit(text, offset, removed, inserted.length()));
+			assertParsed(text);
+			final int[] notes = parser.getNotes().toArray();
+			Assert.assertEquals("Wrong size!", notes.length, table.size());
+			for (int d = 0; d < DISTANCES.length; d++) {
+				assertRow(notes, d);
+			}
+		}
+	}
+
+	/**
+	 * Rows leaving the range are rejected until the note is removed.
+	 */
+	@Test
+	public void outOfRange() {
+		final StringBuilder text = new StringBuilder("C0 D");
+		table.apply(parser.reset(text));
+		try {
+			table.getRow(0);
+			Assert.fail("Row out of range!");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+		Assert.assertEquals("Wrong row!", "[C0q, D5q]", table.getRow(2).toString());
+		text.delete(0, 3);
+		table.apply(parser.edit(text, 0, 3, 0));
+		Assert.assertEquals("Wrong row!", "[C5q]", table.getRow(0).toString());
+	}
+
+	/**
+	 * A snapshot keeps its notes while the table changes.
+	 */
+	@Test
+	public void snapshot() {
+		final StringBuilder text = new StringBuilder("C D E");
+		table.apply(parser.reset(text));
+		final TranspositionTable.Snapshot before = table.snapshot();
+		Assert.assertSame("Unchanged table is not shared!", before, table.snapshot());
+		before.release();
+		text.replace(2, 3, "F G");
+		table.apply(parser.edit(text, 2, 1, 3));
+		Assert.assertEquals("Wrong notes!", "[C5q, D5q, E5q]", before.getNotes().toString());
+		Assert.assertEquals("Wrong row!", "[D5q, E5q, F#5q]", before.getRow(4).toString());
+		before.release();
+
+		final TranspositionTable.Snapshot after = table.snapshot();
+		Assert.assertEquals("Wrong notes!", "[C5q, F5q, G5q, E5q]", after.getNotes().toString());
+		Assert.assertEquals("Wrong row!", table.getRow(4).toString(), after.getRow(4).toString());
+		after.release();
+	}
+
+	/**
+	 * Edits must match the text.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidEdit() {
+		parser.reset("C D");
+		parser.edit("C D", 1, 0, 1);
+	}
+
+	private void assertRow(final int[] notes, final int row) {
+		int[] expected = null;
+		try {
+			expected = BatchTransposer.transposePacked(notes, new int[] { DISTANCES[row] }, new boolean[1])[0];
+		} catch (final IllegalArgumentException e) {
+			// the row is out of range
+		}
+		if (expected != null) {
+			Assert.assertArrayEquals("Wrong row!", expected, table.getRow(row).toArray());
+			return;
+		}
+		try {
+			table.getRow(row);
+			Assert.fail("Row out of range!");
+		} catch (final IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	private void assertParsed(final CharSequence text) {
+		final NoteParser full = new NoteParser(text.toString());
+		Assert.assertArrayEquals("Wrong notes for [" + text + "]!", new NoteSequence(full.getParsedNotes())
+				.toArray(), parser.getNotes().toArray());
+		Assert.assertEquals("Wrong invalid tokens!", full.getInvalidTokens().size(), parser
+				.getNumberOfInvalidTokens());
+	}
+
+}
@@ -0,0 +1,112 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.util.NoteParser;
+import org.musicia.scales.KeyFinder;
+import org.musicia.scales.KeyMatch;
+import org.musicia.scales.MajorScale;
+
+/**
+ * Testing if the keys of notes are found.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class KeyFinderTest {
+
+	/**
+	 * unit under test
+	 */
+	private final KeyFinder finder = new KeyFinder();
+
+	/**
+	 * A major scale is found as major key.
+	 */
+	@Test
+	public void majorScale() {
+		final List<Note> scale = new MajorScale(new Note("E", "b")).getScale();
+		Assert.assertEquals("Wrong key!", "Eb Major", finder.findKey(scale).toString());
+		final List<KeyMatch> ranking = finder.rank(scale);
+		Assert.assertEquals("Wrong fit!", 7, ranking.get(0).getFit());
+		Assert.assertEquals("Wrong second key!", "C Minor", ranking.get(1).getKey().toString());
+	}
+
+	/**
+	 * The first note decides between keys of the same notes.
+	 */
+	@Test
+	public void modes() {
+		Assert.assertEquals("Wrong key!", "A Minor", finder.findKey(notes("A C E G B D F")).toString());
+		Assert.assertEquals("Wrong key!", "D Dorian", finder.findKey(notes("D F A C E G B")).toString());
+		Assert.assertEquals("Wrong key!", "E Phrygian", finder.findKey(notes("E F G A B C D")).toString());
+		Assert.assertEquals("Wrong key!", "E Harmonic Minor", finder.findKey(notes("E F# G A B C D#")).toString());
+	}
+
+	/**
+	 * Black tonics are spelled with fewer accidentals.
+	 */
+	@Test
+	public void tonicSpelling() {
+		Assert.assertEquals("Wrong key!", "Db Major", finder.findKey(notes("Db Eb F Gb Ab Bb C")).toString());
+		Assert.assertEquals("Wrong key!", "G# Minor", finder.findKey(notes("G# A# B C# D# E F#")).toString());
+		Assert.assertEquals("Wrong key!", "[Bb5q, C6q, Db6q, Eb6q, F6q, Gb6q, Ab6q, Bb6q]", finder.findKey(
+				notes("Bb C Db Eb F Gb Ab")).getScale().toString());
+	}
+
+	/**
+	 * Masks are found without tonic hint.
+	 */
+	@Test
+	public void masks() {
+		final int mask = KeyFinder.maskOf(notes("G A B C D E F#"));
+		Assert.assertEquals("Wrong mask!", 0xAD5, mask);
+		Assert.assertEquals("Wrong key!", "G Major", finder.getKey(finder.findKey(mask)).toString());
+		Assert.assertEquals("Wrong key!", "E Minor", finder.getKey(finder.findKey(mask, 4)).toString());
+		Assert.assertEquals("Wrong number of keys!", finder.getKeys().size(), finder.rank(mask, -1).size());
+	}
+
+	/**
+	 * Invalid masks are rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidMask() {
+		finder.findKey(1 << 12);
+	}
+
+	private static List<Note> notes(final String text) {
+		return new NoteParser(text).getParsedNotes();
+	}
+
+}
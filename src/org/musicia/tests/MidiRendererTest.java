@@ -0,0 +1,184 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sound.midi.InvalidMidiDataException;
+import javax.sound.midi.MetaMessage;
+import javax.sound.midi.MidiEvent;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.ShortMessage;
+import javax.sound.midi.Track;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteDuration;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.notes.util.NoteParser;
+import org.musicia.sound.MidiRenderer;
+import org.musicia.sound.MidiTrackBuilder;
+
+/**
+ * Testing the offline MIDI rendering and the track builder.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class MidiRendererTest {
+
+	/**
+	 * A quarter, a half and an eighth note.
+	 */
+	private static final List<Note> NOTES = Arrays.asList(new Note("C", "", 5, "q"), new Note("E", "b", 5, "h"),
+			new Note("G", "", 5, "i"));
+
+	/**
+	 * unit under test
+	 */
+	private final MidiRenderer renderer = new MidiRenderer(100, 96);
+
+	/**
+	 * Events and ticks
+	 */
+	@Test
+	public void render() {
+		final Sequence sequence = renderer.render(NOTES);
+		Assert.assertEquals("Wrong resolution!", 96, sequence.getResolution());
+		Assert.assertEquals("Wrong number of tracks!", 1, sequence.getTracks().length);
+		final Track track = sequence.getTracks()[0];
+		// tempo, three notes on and off, end of track
+		Assert.assertEquals("Wrong number of events!", 8, track.size());
+		final MetaMessage tempo = (MetaMessage) track.get(0).getMessage();
+		Assert.assertEquals("Wrong type!", 0x51, tempo.getType());
+		final byte[] data = tempo.getData();
+		Assert.assertEquals("Wrong tempo!", 600000, (data[0] & 0xFF) << 16 | (data[1] & 0xFF) << 8 | data[2] & 0xFF);
+		assertNote(track.get(1), ShortMessage.NOTE_ON, 60, 0L);
+		assertNote(track.get(2), ShortMessage.NOTE_OFF, 60, 96L);
+		assertNote(track.get(3), ShortMessage.NOTE_ON, 63, 96L);
+		assertNote(track.get(4), ShortMessage.NOTE_OFF, 63, 288L);
+		assertNote(track.get(5), ShortMessage.NOTE_ON, 67, 288L);
+		assertNote(track.get(6), ShortMessage.NOTE_OFF, 67, 336L);
+		Assert.assertEquals("Wrong length!", 336L, sequence.getTickLength());
+	}
+
+	/**
+	 * Packed notes render like notes.
+	 */
+	@Test
+	public void renderPacked() {
+		final Sequence expected = renderer.render(NOTES);
+		final Sequence actual = renderer.render(new NoteSequence(NOTES));
+		final Track expectedTrack = expected.getTracks()[0];
+		final Track actualTrack = actual.getTracks()[0];
+		Assert.assertEquals("Wrong number of events!", expectedTrack.size(), actualTrack.size());
+		for (int i = 0; i < expectedTrack.size(); i++) {
+			Assert.assertEquals("Wrong tick!", expectedTrack.get(i).getTick(), actualTrack.get(i).getTick());
+			Assert.assertArrayEquals("Wrong message!", expectedTrack.get(i).getMessage().getMessage(), actualTrack
+					.get(i).getMessage().getMessage());
+		}
+	}
+
+	/**
+	 * Standard MIDI File
+	 */
+	@Test
+	public void renderFile() {
+		final byte[] bytes = new MidiRenderer().renderFile(new NoteParser("C D E").getParsedNotes());
+		Assert.assertEquals("Wrong header!", "MThd", new String(bytes, 0, 4));
+		// format 0 with a single track
+		Assert.assertEquals("Wrong format!", 0, bytes[9]);
+		Assert.assertEquals("Wrong number of tracks!", 1, bytes[11]);
+	}
+
+	/**
+	 * Notes appended to an existing track
+	 */
+	@Test
+	public void builder() throws InvalidMidiDataException {
+		final Track track = new Sequence(Sequence.PPQ, 4).createTrack();
+		final MidiTrackBuilder builder = new MidiTrackBuilder(track, 4, 9, 100);
+		builder.add(36, NoteDuration.ofName("q")).add(38, NoteDuration.ofName("i")).addAll(NOTES.subList(0, 1));
+		Assert.assertEquals("Wrong tick!", 10L, builder.getTick());
+		Assert.assertEquals("Wrong number of events!", 7, track.size());
+		final ShortMessage message = (ShortMessage) track.get(0).getMessage();
+		Assert.assertEquals("Wrong channel!", 9, message.getChannel());
+		Assert.assertEquals("Wrong velocity!", 100, message.getData2());
+		assertNote(track.get(3), ShortMessage.NOTE_OFF, 38, 6L);
+		assertNote(track.get(4), ShortMessage.NOTE_ON, 60, 6L);
+	}
+
+	/**
+	 * Rounding errors of tuplets and short dotted notes do not add up.
+	 */
+	@Test
+	public void noDrift() throws InvalidMidiDataException {
+		final int ppq = MidiRenderer.DEFAULT_PPQ;
+		final Track track = new Sequence(Sequence.PPQ, ppq).createTrack();
+		final MidiTrackBuilder builder = new MidiTrackBuilder(track, ppq);
+		// 7000 quarter septuplets (274.29 MIDI ticks each) last 4000 quarters
+		final int septuplet = NoteDuration.tuplet(NoteDuration.ofName("q"), 7, 4);
+		for (int i = 0; i < 7000; i++) {
+			builder.add(60, septuplet);
+		}
+		Assert.assertEquals("Wrong tick!", 4000L * ppq, builder.getTick());
+		// 64 dotted 128th notes (22.5 MIDI ticks each) last 3 quarters
+		for (int i = 0; i < 64; i++) {
+			builder.add(60, NoteDuration.ofName("o."));
+		}
+		Assert.assertEquals("Wrong tick!", 4003L * ppq, builder.getTick());
+		Assert.assertEquals("Wrong end!", 4003L * ppq, track.ticks());
+	}
+
+	/**
+	 * Invalid key
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidKey() throws InvalidMidiDataException {
+		new MidiTrackBuilder(new Sequence(Sequence.PPQ, 4).createTrack(), 4).add(128, NoteDuration.ofName("q"));
+	}
+
+	/**
+	 * Invalid tempo
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidTempo() {
+		new MidiRenderer(0, 96);
+	}
+
+	private static void assertNote(final MidiEvent event, final int command, final int key, final long tick) {
+		final ShortMessage message = (ShortMessage) event.getMessage();
+		Assert.assertEquals("Wrong command!", command, message.getCommand());
+		Assert.assertEquals("Wrong key!", key, message.getData1());
+		Assert.assertEquals("Wrong tick!", tick, event.getTick());
+	}
+
+}
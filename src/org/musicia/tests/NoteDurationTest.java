@@ -0,0 +1,131 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteDuration;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.notes.util.NoteParser;
+
+/**
+ * Testing the arithmetic of note durations.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class NoteDurationTest {
+
+	/**
+	 * The ticks of a quarter note.
+	 */
+	private static final int QUARTER = NoteDuration.ofName("q");
+
+	/**
+	 * Names and ticks
+	 */
+	@Test
+	public void names() {
+		Assert.assertEquals("Wrong ticks!", NoteDuration.TICKS_PER_QUARTER, QUARTER);
+		Assert.assertEquals("Wrong ticks!", NoteDuration.TICKS_PER_WHOLE, NoteDuration.ofName("w"));
+		Assert.assertEquals("Wrong ticks!", 315, NoteDuration.ofName("o."));
+		Assert.assertEquals("Wrong name!", "q.", NoteDuration.toString(NoteDuration.dotted(QUARTER)));
+		Assert.assertEquals("Wrong name!", "i*", NoteDuration.toString(NoteDuration.tuplet(QUARTER / 2, 3, 2)));
+		Assert.assertEquals("Wrong name!", "/0.3125", NoteDuration.toString(NoteDuration.ofName("q") + NoteDuration
+				.ofName("s")));
+	}
+
+	/**
+	 * Invalid name
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void invalidName() {
+		NoteDuration.ofName("q..");
+	}
+
+	/**
+	 * Sums and tuplets are exact.
+	 */
+	@Test
+	public void arithmetic() {
+		int sum = 0;
+		for (int i = 0; i < 5; i++) {
+			sum = NoteDuration.add(sum, NoteDuration.tuplet(QUARTER, 5, 4));
+		}
+		Assert.assertEquals("Quintuplets do not add up!", NoteDuration.ofName("w"), sum);
+		int septuplets = 0;
+		for (int i = 0; i < 7; i++) {
+			septuplets += NoteDuration.tuplet(NoteDuration.ofName("o"), 7, 4);
+		}
+		Assert.assertEquals("Septuplets do not add up!", NoteDuration.ofName("t"), septuplets);
+		Assert.assertEquals("Wrong scaling!", NoteDuration.ofName("h"), NoteDuration.scale(QUARTER, 2, 1));
+	}
+
+	/**
+	 * Scaling which can not be exact
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void inexactScaling() {
+		NoteDuration.tuplet(NoteDuration.ofName("o"), 11, 8);
+	}
+
+	/**
+	 * Overflowing sums
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void overflow() {
+		NoteDuration.add(Integer.MAX_VALUE, QUARTER);
+	}
+
+	/**
+	 * Computed doubles are found in the table.
+	 */
+	@Test
+	public void computedDurations() {
+		final double computed = 0.7 - 0.45;
+		Assert.assertFalse("Sum is exact!", computed == 0.25);
+		final Note note = new Note("C", "", 5, computed);
+		Assert.assertEquals("Wrong duration!", 0.25, note.getDuration(), 0.0);
+		Assert.assertEquals("Wrong ticks!", QUARTER, note.getDurationInTicks());
+		Assert.assertEquals("Wrong ticks!", NoteDuration.fromDouble(computed), QUARTER);
+	}
+
+	/**
+	 * Length of a note sequence
+	 */
+	@Test
+	public void sequenceLength() {
+		final NoteSequence sequence = new NoteSequence(new NoteParser("C D E F").getParsedNotes());
+		sequence.add(new Note("G", "", 5, "h."));
+		Assert.assertEquals("Wrong length!", 7 * QUARTER, sequence.getLengthInTicks());
+		Assert.assertEquals("Wrong length!", 2 * QUARTER, sequence.subSequence(1, 3).getLengthInTicks());
+	}
+
+}
@@ -0,0 +1,79 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteOrder;
+
+/**
+ * Testing if the absolute note order works properly.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class NoteOrderTest {
+
+	/**
+	 * unit under test
+	 */
+	private final NoteOrder order = new NoteOrder();
+
+	/**
+	 * Sharp and flat spellings share one index
+	 */
+	@Test
+	public void enharmonicIndexes() {
+		Assert.assertEquals("Indexes are not equal!", 60, order.indexOf(new Note("C")));
+		Assert.assertEquals("Indexes are not equal!", 61, order.indexOf(new Note("C", "#")));
+		Assert.assertEquals("Indexes are not equal!", 61, order.indexOf(new Note("D", "b")));
+		Assert.assertEquals("Indexes are not equal!", 0, order.indexOf(new Note("C", "", 0)));
+		Assert.assertEquals("Indexes are not equal!", 127, order.indexOf(new Note("G", "", 10)));
+	}
+
+	/**
+	 * Successor and predecessor across octaves
+	 */
+	@Test
+	public void neighbours() {
+		Assert.assertEquals("Notes are not equal!", "C6q", order.getSuccessor(new Note("B")).toString());
+		Assert.assertEquals("Notes are not equal!", "B4q", order.getPredecessor(new Note("C")).toString());
+		Assert.assertEquals("Notes are not equal!", "A5q", order.getSuccessor(new Note("A", "b")).toString());
+	}
+
+	/**
+	 * Notes beyond G10 are out of range
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void exceedsRange() {
+		order.getTransposedNote(new Note("G", "", 10), 1);
+	}
+
+}
@@ -28,12 +28,21 @@
  */
 package org.musicia.tests;
 
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Assert;
 import org.junit.Test;
 import org.musicia.notes.model.Note;
+import org.musicia.notes.util.InvalidToken;
+import org.musicia.notes.util.NoteHandler;
+import org.musicia.notes.util.NoteLexer;
 import org.musicia.notes.util.NoteParser;
 
 /**
@@ -83,6 +92,113 @@ public class NoteParserTest {
 		assertionTest();
 	}
 
+	/**
+	 * All notes of octave 10 up to G are valid
+	 */
+	@Test
+	public void octave10() {
+		np_result = np.parseAndReturn("C10 C#10 Db10 D10 D#10 Eb10 E10 F10 F#10 Gb10 G10 G#10 Ab10 A10 Bb10 B10");
+		Assert.assertEquals("Notes are not equal!", "[C10q, C#10q, Db10q, D10q, D#10q, Eb10q, E10q, F10q, F#10q, Gb10q, G10q]",
+				np_result.toString());
+	}
+
+	/**
+	 * Invalid tokens are reported with line and column
+	 */
+	@Test
+	public void invalidTokens() {
+		np = new NoteParser("A6 Cb\n  C-1 G10");
+		Assert.assertEquals("Tokens are not equal!", "[[Cb] at line 1, column 4, [C-1] at line 2, column 3]", np
+				.getInvalidTokens().toString());
+	}
+
+	/**
+	 * Streaming in chunks which split tokens
+	 */
+	@Test
+	public void streamParsing() {
+		final Reader reader = new FilterReader(new StringReader(testNotes)) {
+
+			@Override
+			public int read(final char[] cbuf, final int off, final int len) throws IOException {
+				return super.read(cbuf, off, Math.min(len, 3));
+			}
+
+		};
+		np_result = new ArrayList<Note>();
+		NoteParser.parse(reader, new NoteHandler() {
+
+			@Override
+			public void handleNote(final Note note) {
+				np_result.add(note);
+			}
+
+			@Override
+			public void handleInvalidToken(final InvalidToken token) {
+			}
+
+		});
+		assertionTest();
+	}
+
+	/**
+	 * A token longer than the heap is only reported with its beginning and length
+	 */
+	@Test
+	public void longInvalidToken() {
+		final int length = 1 << 28;
+		final Reader reader = new Reader() {
+
+			private int remaining = length;
+
+			@Override
+			public int read(final char[] cbuf, final int off, final int len) {
+				if (remaining == 0) {
+					return -1;
+				}
+				final int n = Math.min(len, remaining);
+				Arrays.fill(cbuf, off, off + n, 'x');
+				remaining -= n;
+				return n;
+			}
+
+			@Override
+			public void close() {
+			}
+
+		};
+		final List<InvalidToken> tokens = new ArrayList<InvalidToken>();
+		NoteParser.parse(reader, new NoteHandler() {
+
+			@Override
+			public void handleNote(final Note note) {
+			}
+
+			@Override
+			public void handleInvalidToken(final InvalidToken token) {
+				tokens.add(token);
+			}
+
+		});
+		Assert.assertEquals("Wrong number of tokens!", 1, tokens.size());
+		Assert.assertEquals("Wrong length!", length, tokens.get(0).getLength());
+		Assert.assertEquals("Wrong text!", NoteLexer.MAX_TOKEN_TEXT, tokens.get(0).getText().length());
+		Assert.assertTrue("Token is not truncated!", tokens.get(0).isTruncated());
+	}
+
+	/**
+	 * Iterating over a reader
+	 */
+	@Test
+	public void iteratorParsing() {
+		np_result = new ArrayList<Note>();
+		final Iterator<Note> it = NoteParser.iterator(new StringReader(testNotes));
+		while (it.hasNext()) {
+			np_result.add(it.next());
+		}
+		assertionTest();
+	}
+
 	/**
 	 * Assertion test
 	 */
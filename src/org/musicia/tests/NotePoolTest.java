@@ -0,0 +1,109 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteOrder;
+
+/**
+ * Testing if canonical notes are shared.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class NotePoolTest {
+
+	/**
+	 * unit under test
+	 */
+	private final NoteOrder order = new NoteOrder();
+
+	/**
+	 * Same note twice
+	 */
+	@Test
+	public void sameInstance() {
+		Assert.assertSame("Notes are not identical!", Note.of("F", "#", 3, 0.125), Note.of("F", "#", 3, 0.125));
+		Assert.assertSame("Notes are not identical!", Note.of("C", ""), Note.of("C", "", 5, 0.25));
+	}
+
+	/**
+	 * Pooled notes are equal to constructed notes
+	 */
+	@Test
+	public void sameAsConstructed() {
+		Assert.assertEquals("Notes are not equal!", new Note("A", "b", 10).toString(), Note.of("A", "b", 10).toString());
+		Assert.assertEquals("Notes are not equal!", new Note("G", "", 10, "o").toString(), Note.of("G", "", 10, 0.0078125)
+				.toString());
+	}
+
+	/**
+	 * Transposition returns pooled notes and preserves the duration
+	 */
+	@Test
+	public void transposition() {
+		final Note transposed = order.getTransposedNote(Note.of("E", "b", 4, 0.5), 2);
+		Assert.assertSame("Notes are not identical!", Note.of("F", "", 4, 0.5), transposed);
+	}
+
+	/**
+	 * Equivalents are pooled and resolve back to the original note
+	 */
+	@Test
+	public void equivalents() {
+		final String[][] names = { { "C", "#" }, { "D", "b" }, { "D", "#" }, { "E", "b" }, { "F", "#" }, { "G", "b" },
+				{ "G", "#" }, { "A", "b" }, { "A", "#" }, { "B", "b" } };
+		for (final String[] name : names) {
+			final Note note = Note.of(name[0], name[1], 2, 0.5);
+			final Note equivalent = note.getEquivalent();
+			Assert.assertFalse("Equivalent is the same note!", note.getFullName().equals(equivalent.getFullName()));
+			Assert.assertSame("Equivalent is not pooled!", Note.of(equivalent.getName(), equivalent.getAccidental(), 2,
+					0.5), equivalent);
+			Assert.assertSame("Equivalent does not resolve back!", note, equivalent.getEquivalent());
+		}
+		final Note natural = Note.of("E", "");
+		Assert.assertSame("Natural note is not its own equivalent!", natural, natural.getEquivalent());
+		Assert.assertEquals("Wrong equivalent!", "Gb11q", new Note("F", "#", 11).getEquivalent().toString());
+	}
+
+	/**
+	 * German note names
+	 */
+	@Test
+	public void germanNames() {
+		Assert.assertEquals("Wrong German name!", "H", Note.of("B", "").getGermanName());
+		Assert.assertEquals("Wrong German name!", "B", Note.of("B", "b").getGermanName());
+		Assert.assertEquals("Wrong German name!", "Fis", Note.of("F", "#").getGermanName());
+		Assert.assertEquals("Wrong German name!", "Es", Note.of("E", "b").getGermanName());
+		Assert.assertEquals("Wrong German name!", "As", Note.of("A", "b").getGermanName());
+	}
+
+}
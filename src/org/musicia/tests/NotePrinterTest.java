@@ -0,0 +1,107 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.commands.ExportTextCommand;
+import org.musicia.commands.ImportTextCommand;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.util.NotePrinter;
+
+/**
+ * Testing if notes are printed properly.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class NotePrinterTest {
+
+	/**
+	 * The line separator.
+	 */
+	private static final String SEPARATOR = System.getProperty("line.separator");
+
+	/**
+	 * notes under test
+	 */
+	private final List<Note> notes = Arrays.asList(new Note("C"), new Note("D", "b", 4), new Note("E"));
+
+	/**
+	 * unit under test
+	 */
+	private final NotePrinter np = new NotePrinter(notes);
+
+	/**
+	 * Without line breaks
+	 */
+	@Test
+	public void singleLine() {
+		Assert.assertEquals("Strings are not equal!", "C Db E", np.printNoteNames(-1));
+		Assert.assertEquals("Strings are not equal!", "C5q Db4q E5q", np.printFullyQualifiedNoteNames(-1));
+		Assert.assertEquals("Strings are not equal!", "1: C 2: Db 3: E", np.printIndexedNoteNames(-1, 1));
+	}
+
+	/**
+	 * With line breaks
+	 */
+	@Test
+	public void lines() {
+		Assert.assertEquals("Strings are not equal!", "C Db " + SEPARATOR + "E", np.printNoteNames(2));
+		Assert.assertEquals("Strings are not equal!", "-1: C " + SEPARATOR + "0: Db " + SEPARATOR + "1: E", np
+				.printIndexedNoteNames(1, -1));
+		Assert.assertEquals("Strings are not equal!", "-1: C5q " + SEPARATOR + "0: Db4q " + SEPARATOR + "1: E5q", np
+				.printIndexedFullyQualifiedNoteNames(1, -1));
+	}
+
+	/**
+	 * Appending equals returning
+	 */
+	@Test
+	public void appendable() {
+		final StringBuilder sb = new StringBuilder();
+		np.printIndexedFullyQualifiedNoteNames(sb, 2, 0);
+		Assert.assertEquals("Strings are not equal!", np.printIndexedFullyQualifiedNoteNames(2, 0), sb.toString());
+	}
+
+	/**
+	 * Streaming into a file
+	 */
+	@Test
+	public void export() {
+		new ExportTextCommand(notes, 2, 0, "TestExport.txt").execute();
+		final ImportTextCommand i = new ImportTextCommand("TestExport.txt");
+		i.execute();
+		Assert.assertEquals("Strings are not equal!", np.printIndexedFullyQualifiedNoteNames(2, 0), i.getResult());
+	}
+
+}
@@ -0,0 +1,95 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+
+/**
+ * Testing if packed note sequences preserve their notes.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class NoteSequenceTest {
+
+	/**
+	 * notes under test
+	 */
+	private final List<Note> notes = Arrays.asList(new Note("C", "", 0), new Note("D", "b", 4, 0.5), new Note("F", "#", 7,
+			"s."), new Note("G", "", 10, 1.0), new Note("B", "b"));
+
+	/**
+	 * Round trip through the packed representation
+	 */
+	@Test
+	public void roundTrip() {
+		final NoteSequence sequence = new NoteSequence(notes);
+		Assert.assertEquals("Sizes are not equal!", notes.size(), sequence.size());
+		Assert.assertEquals("Notes are not equal!", notes.toString(), sequence.toList().toString());
+	}
+
+	/**
+	 * Packed fields
+	 */
+	@Test
+	public void packedFields() {
+		final int packed = NoteSequence.pack(new Note("D", "b", 4, 0.5));
+		Assert.assertEquals("Indexes are not equal!", 49, NoteSequence.indexOf(packed));
+		Assert.assertTrue("Spelling is not flat!", NoteSequence.isFlat(packed));
+		Assert.assertEquals("Durations are not equal!", 2, NoteSequence.durationIndexOf(packed));
+	}
+
+	/**
+	 * Growing and views
+	 */
+	@Test
+	public void growAndView() {
+		final NoteSequence sequence = new NoteSequence(1);
+		for (int i = 0; i < 100; i++) {
+			sequence.add(NoteSequence.pack(i, false, 4));
+		}
+		final NoteSequence view = sequence.subSequence(60, 62);
+		Assert.assertEquals("Notes are not equal!", "[C5q, C#5q]", view.toString());
+	}
+
+	/**
+	 * Views are read-only
+	 */
+	@Test(expected = UnsupportedOperationException.class)
+	public void readOnlyView() {
+		new NoteSequence(notes).subSequence(0, 1).add(0);
+	}
+
+}
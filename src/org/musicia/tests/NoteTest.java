@@ -0,0 +1,89 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+
+/**
+ * Testing the value semantics of notes.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class NoteTest {
+
+	/**
+	 * unit under test
+	 */
+	private final Note fSharp = new Note("F", "#", 4, "i");
+
+	/**
+	 * Equal notes
+	 */
+	@Test
+	public void equalNotes() {
+		final Note other = Note.of("F", "#", 4, 0.125);
+		Assert.assertEquals("Notes are not equal!", fSharp, other);
+		Assert.assertEquals("Hash codes are not equal!", fSharp.hashCode(), other.hashCode());
+		Assert.assertEquals("Notes are not equal!", new Note("C"), new Note());
+	}
+
+	/**
+	 * Notes differing in name, octave or duration
+	 */
+	@Test
+	public void differentNotes() {
+		Assert.assertFalse("Notes are equal!", fSharp.equals(new Note("F", "#", 4, "q")));
+		Assert.assertFalse("Notes are equal!", fSharp.equals(new Note("F", "#", 5, "i")));
+		Assert.assertFalse("Notes are equal!", fSharp.equals(new Note("G", "b", 4, "i")));
+		Assert.assertFalse("Notes are equal!", fSharp.equals(fSharp.getEquivalent()));
+		Assert.assertFalse("Notes are equal!", fSharp.equals(null));
+		Assert.assertFalse("Notes are equal!", fSharp.equals("F#4i"));
+		Assert.assertTrue("Names are not equal!", fSharp.equalsName(new Note("F", "#")));
+		Assert.assertTrue("Properties are not equal!", fSharp.equalsProperties(new Note("A", "", 4, 0.125)));
+	}
+
+	/**
+	 * Notes as keys of hash based collections
+	 */
+	@Test
+	public void hashing() {
+		final Set<Note> notes = new HashSet<Note>(Arrays.asList(new Note("C"), Note.of("C", ""), new Note("C", "", 5,
+				0.5), new Note("C", "#"), new Note("D", "b"), new Note("C", "#", 5, "q")));
+		Assert.assertEquals("Wrong number of distinct notes!", 4, notes.size());
+		Assert.assertTrue("Note not found!", notes.contains(new Note("D", "b", 5, 4)));
+	}
+
+}
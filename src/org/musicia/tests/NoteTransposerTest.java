@@ -36,8 +36,11 @@ import junit.framework.Assert;
 
 import org.junit.Test;
 import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.notes.util.BatchTransposer;
 import org.musicia.notes.util.NoteParser;
 import org.musicia.notes.util.NoteTransposer;
+import org.musicia.notes.util.TranspositionService;
 
 /**
  * Testing if the note transposer works properly.
@@ -70,4 +73,87 @@ public class NoteTransposerTest {
 
 		Assert.assertEquals("Not equal.", correct.toString(), (t.getTransposedNotes(distances).toString()));
 	}
+
+	/**
+	 * repeated transposition does not accumulate
+	 */
+	@Test
+	public void repeatedTransposition() {
+		final NoteTransposer t = new NoteTransposer(new NoteParser("C G#7").getParsedNotes());
+		t.getTransposedNotes(Arrays.asList(-1, 0, 1));
+		Assert.assertEquals("Not equal.", correct.toString(), t.getTransposedNotes(Arrays.asList(-1, 0, 1)).toString());
+	}
+
+	/**
+	 * batch transposition of absolute indexes
+	 */
+	@Test
+	public void indexMatrix() {
+		final int[][] result = BatchTransposer.transpose(new int[] { 0, 60, 120 }, new int[] { 0, 7 });
+		Assert.assertEquals("Not equal.", "[[0, 60, 120], [7, 67, 127]]", Arrays.deepToString(result));
+	}
+
+	/**
+	 * spelling follows the target key
+	 */
+	@Test
+	public void keySpelling() {
+		final NoteSequence cMajorTriad = new NoteSequence(new NoteParser("C E G").getParsedNotes());
+		final NoteSequence[] result = BatchTransposer.transpose(cMajorTriad, 0, new int[] { 1, 2, 3 });
+		Assert.assertEquals("Not equal.", "[Db5q, F5q, Ab5q]", result[0].toString());
+		Assert.assertEquals("Not equal.", "[D5q, F#5q, A5q]", result[1].toString());
+		Assert.assertEquals("Not equal.", "[Eb5q, G5q, Bb5q]", result[2].toString());
+	}
+
+	/**
+	 * transposition beyond G10 is rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void exceedsRange() {
+		BatchTransposer.transpose(new int[] { 0, 127 }, new int[] { 1 });
+	}
+
+	/**
+	 * parallel transposition equals sequential transposition
+	 */
+	@Test
+	public void parallelTransposition() {
+		final TranspositionService service = new TranspositionService(4);
+		final List<Note> notes = new NoteParser("C G#7").getParsedNotes();
+		Assert.assertEquals("Not equal.", correct.toString(), service.transpose(notes, Arrays.asList(-1, 0, 1)).toString());
+
+		final int[] packedNotes = new int[200000];
+		for (int i = 0; i < packedNotes.length; i++) {
+			packedNotes[i] = NoteSequence.pack(11 + i % 100, i % 2 == 0, i % 15);
+		}
+		final int[] distances = new int[23];
+		for (int i = 0; i < distances.length; i++) {
+			distances[i] = i - 11;
+		}
+		final boolean[] spellings = BatchTransposer.spellingsForKey(0, distances);
+		Assert.assertTrue("Not equal.", Arrays.deepEquals(BatchTransposer.transposePacked(packedNotes, distances, spellings),
+				service.transposePacked(packedNotes, distances, spellings)));
+
+		final List<Note> manyNotes = new ArrayList<Note>(packedNotes.length);
+		for (final int packedNote : packedNotes) {
+			manyNotes.add(NoteSequence.unpack(packedNote));
+		}
+		final List<Integer> distanceList = Arrays.asList(-11, 0, 5, 16);
+		Assert.assertEquals("Not equal.", new NoteTransposer(manyNotes).getTransposedNotes(distanceList), service.transpose(
+				manyNotes, distanceList));
+		service.shutdown();
+	}
+
+	/**
+	 * notes which leave the supported range are rejected by the parallel transposition as well
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void parallelExceedsRange() {
+		final TranspositionService service = new TranspositionService(2);
+		try {
+			service.transpose(new NoteParser("C G10").getParsedNotes(), Arrays.asList(1));
+		} finally {
+			service.shutdown();
+		}
+	}
 }
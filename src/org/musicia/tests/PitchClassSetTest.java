@@ -0,0 +1,126 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.PitchClassSet;
+import org.musicia.notes.model.PitchSet;
+import org.musicia.notes.util.CircleOfFifth;
+import org.musicia.scales.MajorScale;
+import org.musicia.scales.MinorScale;
+import org.musicia.scales.Scale;
+
+/**
+ * Testing pitch class sets and absolute pitch sets.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class PitchClassSetTest {
+
+	/**
+	 * unit under test
+	 */
+	private final PitchClassSet cMajorTriad = PitchClassSet.ofPitchClasses(0, 4, 7);
+
+	/**
+	 * Set operations
+	 */
+	@Test
+	public void setOperations() {
+		final PitchClassSet aMinorTriad = PitchClassSet.ofPitchClasses(9, 0, 4);
+		Assert.assertEquals("Wrong union!", "[C, E, G, A]", cMajorTriad.union(aMinorTriad).toString());
+		Assert.assertEquals("Wrong intersection!", "[C, E]", cMajorTriad.intersection(aMinorTriad).toString());
+		Assert.assertEquals("Wrong difference!", "[G]", cMajorTriad.difference(aMinorTriad).toString());
+		Assert.assertEquals("Wrong complement!", 9, cMajorTriad.complement().size());
+		Assert.assertTrue("Wrong subset!", cMajorTriad.union(aMinorTriad).containsAll(cMajorTriad));
+		Assert.assertSame("Sets are not shared!", cMajorTriad, PitchClassSet.of(0x91));
+	}
+
+	/**
+	 * Transposition by rotation
+	 */
+	@Test
+	public void transpose() {
+		Assert.assertEquals("Wrong transposition!", "[D, F#, A]", cMajorTriad.transpose(2).toString());
+		Assert.assertEquals("Wrong transposition!", "[E, G#, B]", cMajorTriad.transpose(-8).toString());
+		Assert.assertEquals("Wrong transposition!", "[C#, F, G#]", cMajorTriad.transpose(13).toString());
+		Assert.assertSame("Wrong transposition!", cMajorTriad, cMajorTriad.transpose(12));
+	}
+
+	/**
+	 * Membership ignores octave and spelling.
+	 */
+	@Test
+	public void membership() {
+		final Scale scale = new MajorScale(new Note("E", "b"));
+		Assert.assertTrue("Wrong membership!", scale.contains(new Note("D", "#", 2)));
+		Assert.assertTrue("Wrong membership!", scale.contains(new Note("A", "b")));
+		Assert.assertFalse("Wrong membership!", scale.contains(new Note("E")));
+		Assert.assertEquals("Wrong size!", 7, scale.getPitchClassSet().size());
+		Assert.assertEquals("Wrong size!", 8, scale.getPitchSet().size());
+		Assert.assertEquals("Wrong pitch classes!", scale.getPitchClassSet(), scale.getPitchSet().toPitchClassSet());
+		Assert.assertTrue("Wrong membership!", scale.getPitchSet().contains(new Note("E", "b", 6)));
+		Assert.assertFalse("Wrong membership!", scale.getPitchSet().contains(new Note("E", "b", 7)));
+	}
+
+	/**
+	 * Absolute pitches across both halves of the mask
+	 */
+	@Test
+	public void pitchSet() {
+		final PitchSet set = PitchSet.ofIndexes(0, 59, 60, 63, 64, 127);
+		Assert.assertEquals("Wrong set!", "[12, 71, 72, 75, 76]", set.transpose(12).toString());
+		Assert.assertEquals("Wrong set!", "[0, 3, 4, 67]", set.transpose(-60).toString());
+		Assert.assertEquals("Wrong set!", "[64, 123, 124, 127]", set.transpose(64).toString());
+		Assert.assertEquals("Wrong set!", "[0, 63]", set.transpose(-64).toString());
+		Assert.assertEquals("Wrong pitch classes!", "[C, D#, E, G, B]", set.toPitchClassSet().toString());
+		Assert.assertEquals("Wrong set!", set, PitchSet.ofIndexes(127, 64, 63, 60, 59, 0));
+		Assert.assertEquals("Wrong set!", PitchSet.EMPTY, set.intersection(PitchSet.of(Arrays.asList(new Note("D")))));
+	}
+
+	/**
+	 * Keys of the circle of fifth
+	 */
+	@Test
+	public void circleOfFifthKeys() {
+		final CircleOfFifth circle = new CircleOfFifth();
+		for (int i = 0; i < circle.getMajorCircle().size(); i++) {
+			Assert.assertEquals("Wrong major key!", new MajorScale(circle.getMajorCircle().get(i)).getPitchClassSet(),
+					circle.getMajorKey(i));
+			Assert.assertEquals("Wrong minor key!", new MinorScale(circle.getMinorCircle().get(i)).getPitchClassSet(),
+					circle.getMinorKey(i));
+		}
+	}
+
+}
@@ -0,0 +1,199 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sound.midi.MidiSystem;
+import javax.sound.midi.MidiUnavailableException;
+import javax.sound.midi.Sequence;
+import javax.sound.midi.Sequencer;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.util.NoteParser;
+import org.musicia.sound.MidiRenderer;
+import org.musicia.sound.PlaybackListener;
+import org.musicia.sound.PlaybackRequest;
+import org.musicia.sound.PlaybackService;
+
+/**
+ * Testing the queued playback on a sequencer which is not connected to a synthesizer.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class PlaybackServiceTest {
+
+	/**
+	 * The maximum time to wait for a request in milliseconds.
+	 */
+	private static final long TIMEOUT = 5000L;
+
+	/**
+	 * Quarter notes of 50 milliseconds
+	 */
+	private static final MidiRenderer RENDERER = new MidiRenderer(1200, 4);
+
+	/**
+	 * unit under test
+	 */
+	private final PlaybackService service = new PlaybackService(createSequencer(), 1);
+
+	/**
+	 * The completed requests in order.
+	 */
+	private final List<PlaybackRequest> completed = Collections.synchronizedList(new ArrayList<PlaybackRequest>());
+
+	/**
+	 * Records the completed requests.
+	 */
+	private final PlaybackListener listener = new PlaybackListener() {
+
+		@Override
+		public void playbackCompleted(final PlaybackRequest request) {
+			completed.add(request);
+		}
+
+	};
+
+	/**
+	 * Playing to the end
+	 */
+	@Test
+	public void finish() throws InterruptedException {
+		try {
+			final PlaybackRequest request = service.play(notes(4), listener);
+			Assert.assertTrue("Not completed!", request.await(TIMEOUT));
+			Assert.assertEquals("Wrong state!", PlaybackRequest.State.FINISHED, request.getState());
+			Assert.assertEquals("Wrong callbacks!", Collections.singletonList(request), completed);
+		} finally {
+			service.shutdown(TIMEOUT);
+		}
+	}
+
+	/**
+	 * Cancelling queued and playing requests
+	 */
+	@Test
+	public void cancel() throws InterruptedException {
+		try {
+			final PlaybackRequest playing = service.play(notes(1000), listener);
+			awaitPlaying(playing);
+			final PlaybackRequest queued = service.play(notes(4), listener);
+			Assert.assertEquals("Wrong state!", PlaybackRequest.State.QUEUED, queued.getState());
+			queued.cancel();
+			Assert.assertEquals("Wrong state!", PlaybackRequest.State.CANCELLED, queued.getState());
+			Assert.assertEquals("Wrong queue size!", 0, service.getQueueSize());
+			playing.cancel();
+			Assert.assertTrue("Not completed!", playing.await(TIMEOUT));
+			Assert.assertEquals("Wrong state!", PlaybackRequest.State.CANCELLED, playing.getState());
+			Assert.assertEquals("Wrong callbacks!", 2, completed.size());
+		} finally {
+			service.shutdown(TIMEOUT);
+		}
+	}
+
+	/**
+	 * The queue is bounded.
+	 */
+	@Test(expected = IllegalStateException.class)
+	public void queueFull() throws InterruptedException {
+		try {
+			awaitPlaying(service.play(notes(1000), listener));
+			service.play(notes(4), listener);
+			service.play(notes(4), listener);
+		} finally {
+			service.shutdown(TIMEOUT);
+		}
+	}
+
+	/**
+	 * Jumping near the end
+	 */
+	@Test
+	public void seek() throws InterruptedException {
+		try {
+			final Sequence sequence = notes(1000);
+			final PlaybackRequest request = service.play(sequence, listener);
+			awaitPlaying(request);
+			request.seek(sequence.getTickLength() - 4);
+			Assert.assertTrue("Not completed!", request.await(TIMEOUT));
+			Assert.assertEquals("Wrong state!", PlaybackRequest.State.FINISHED, request.getState());
+		} finally {
+			service.shutdown(TIMEOUT);
+		}
+	}
+
+	/**
+	 * Runtime errors of the sequencer complete the request.
+	 */
+	@Test
+	public void failure() throws InterruptedException {
+		try {
+			// a sequencer without sequence cannot be started
+			final PlaybackRequest request = service.play(null, listener);
+			Assert.assertTrue("Not completed!", request.await(TIMEOUT));
+			Assert.assertEquals("Wrong state!", PlaybackRequest.State.FAILED, request.getState());
+			Assert.assertTrue("Wrong error!", request.getError() instanceof RuntimeException);
+			Assert.assertEquals("Wrong callbacks!", Collections.singletonList(request), completed);
+			// the service keeps playing
+			Assert.assertTrue("Not completed!", service.play(notes(4), listener).await(TIMEOUT));
+		} finally {
+			service.shutdown(TIMEOUT);
+		}
+	}
+
+	private void awaitPlaying(final PlaybackRequest request) throws InterruptedException {
+		final long end = System.currentTimeMillis() + TIMEOUT;
+		while (service.getCurrentRequest() != request && System.currentTimeMillis() < end) {
+			Thread.sleep(5L);
+		}
+		Assert.assertEquals("Wrong state!", PlaybackRequest.State.PLAYING, request.getState());
+	}
+
+	private static Sequencer createSequencer() {
+		try {
+			return MidiSystem.getSequencer(false);
+		} catch (final MidiUnavailableException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static Sequence notes(final int count) {
+		final StringBuilder notes = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			notes.append("C ");
+		}
+		return RENDERER.render(new NoteParser(notes.toString()).getParsedNotes());
+	}
+
+}
@@ -0,0 +1,287 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.sound.AudioLine;
+import org.musicia.sound.Envelope;
+import org.musicia.sound.RealtimeSynth;
+import org.musicia.sound.Wavetable;
+
+/**
+ * Testing the real-time synthesis against a fake line.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class RealtimeSynthTest {
+
+	/**
+	 * The frames of one block.
+	 */
+	private static final int BLOCK = 256;
+
+	/**
+	 * A line which stores the last block and never blocks.
+	 */
+	private final FakeLine line = new FakeLine();
+
+	/**
+	 * unit under test: 8000 Hz, a quarter note lasts 4000 frames, 2 voices, 4 event slots
+	 */
+	private final RealtimeSynth synth = new RealtimeSynth(line, 8000, 120, Wavetable.SINE, new Envelope(0.0, 0.0,
+			1.0, 0.01), 2, 4, BLOCK);
+
+	/**
+	 * Starting and releasing a held note
+	 */
+	@Test
+	public void noteOnOff() {
+		synth.renderBlock();
+		Assert.assertTrue("Not silent!", line.isSilent());
+		Assert.assertTrue("Queue full!", synth.noteOn(69, Integer.MAX_VALUE));
+		synth.renderBlock();
+		Assert.assertFalse("Silent!", line.isSilent());
+		Assert.assertEquals("Wrong voices!", 1, synth.getActiveVoices());
+		synth.noteOff(69);
+		// the release lasts 80 frames
+		synth.renderBlock();
+		Assert.assertEquals("Wrong voices!", 0, synth.getActiveVoices());
+		synth.renderBlock();
+		Assert.assertTrue("Not silent!", line.isSilent());
+		Assert.assertEquals("Wrong frames!", 4 * BLOCK, synth.getRenderedFrames());
+		Assert.assertEquals("Wrong bytes!", 8 * BLOCK, line.written);
+	}
+
+	/**
+	 * Notes are started at their frame.
+	 */
+	@Test
+	public void play() {
+		synth.play(Arrays.asList(new Note("C", "", 5, "q"), new Note("E", "", 5, "q")));
+		Assert.assertEquals("Wrong events!", 2, synth.getQueuedEvents());
+		synth.renderBlock();
+		Assert.assertEquals("Wrong events!", 1, synth.getQueuedEvents());
+		// 3840 frames rendered, the second note starts at 4000
+		for (int i = 1; i < 15; i++) {
+			synth.renderBlock();
+		}
+		Assert.assertEquals("Wrong events!", 1, synth.getQueuedEvents());
+		synth.renderBlock();
+		Assert.assertEquals("Wrong events!", 0, synth.getQueuedEvents());
+		// the release of the first note has ended at frame 4080
+		Assert.assertEquals("Wrong voices!", 1, synth.getActiveVoices());
+	}
+
+	/**
+	 * Notes which do not fit into the queue are fed while the render thread frees slots.
+	 */
+	@Test
+	public void stream() {
+		// ten eighth notes of 2000 frames, four event slots
+		final NoteSequence notes = new NoteSequence(eighths(10));
+		synth.play(notes);
+		Assert.assertEquals("Wrong events!", 4, synth.getQueuedEvents());
+		Assert.assertEquals("Wrong pending notes!", 6, synth.getPendingNotes());
+		while (synth.getPendingNotes() + synth.getQueuedEvents() > 0) {
+			synth.renderBlock();
+			synth.feed();
+		}
+		// the last note starts at frame 18000 without any delay
+		Assert.assertEquals("Wrong frames!", 18176, synth.getRenderedFrames());
+	}
+
+	/**
+	 * Pending notes are dropped by all notes off.
+	 */
+	@Test
+	public void allNotesOff() {
+		synth.play(new NoteSequence(eighths(10)));
+		synth.renderBlock();
+		synth.allNotesOff();
+		synth.renderBlock();
+		Assert.assertEquals("Wrong events!", 0, synth.getQueuedEvents());
+		Assert.assertEquals("Wrong pending notes!", 0, synth.getPendingNotes());
+		Assert.assertEquals("Wrong voices!", 0, synth.getActiveVoices());
+	}
+
+	/**
+	 * The feeder thread streams more notes than the queue holds.
+	 */
+	@Test
+	public void streamWithThreads() throws InterruptedException {
+		synth.play(new NoteSequence(eighths(40)));
+		synth.start();
+		try {
+			final long end = System.currentTimeMillis() + 5000L;
+			while (synth.getPendingNotes() + synth.getQueuedEvents() > 0 && System.currentTimeMillis() < end) {
+				Thread.sleep(5L);
+			}
+		} finally {
+			synth.stop();
+		}
+		Assert.assertEquals("Wrong pending notes!", 0, synth.getPendingNotes());
+		Assert.assertEquals("Wrong events!", 0, synth.getQueuedEvents());
+	}
+
+	/**
+	 * The oldest voice is stolen.
+	 */
+	@Test
+	public void stealVoice() {
+		synth.noteOn(60, Integer.MAX_VALUE);
+		synth.renderBlock();
+		synth.noteOn(64, Integer.MAX_VALUE);
+		synth.renderBlock();
+		synth.noteOn(67, Integer.MAX_VALUE);
+		synth.renderBlock();
+		Assert.assertEquals("Wrong stolen voices!", 1, synth.getStolenVoices());
+		synth.noteOff(64);
+		synth.noteOff(67);
+		synth.renderBlock();
+		Assert.assertEquals("Voice not stolen!", 0, synth.getActiveVoices());
+	}
+
+	/**
+	 * A drained line counts as underrun, except before the first block.
+	 */
+	@Test
+	public void underruns() {
+		line.available = line.getBufferSize();
+		synth.renderBlock();
+		Assert.assertEquals("Wrong underruns!", 0, synth.getUnderruns());
+		synth.renderBlock();
+		Assert.assertEquals("Wrong underruns!", 1, synth.getUnderruns());
+		line.available = 0;
+		synth.renderBlock();
+		Assert.assertEquals("Wrong underruns!", 1, synth.getUnderruns());
+	}
+
+	/**
+	 * Rendering blocks does not allocate memory, if the JVM can measure it.
+	 */
+	@Test
+	public void noAllocation() {
+		final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+			return;
+		}
+		final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+		if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+			return;
+		}
+		final long id = Thread.currentThread().getId();
+		synth.noteOn(60, Integer.MAX_VALUE);
+		synth.noteOn(64, 1000);
+		for (int i = 0; i < 1000; i++) {
+			synth.renderBlock();
+		}
+		final long before = threads.getThreadAllocatedBytes(id);
+		for (int i = 0; i < 1000; i++) {
+			synth.renderBlock();
+		}
+		final long allocated = threads.getThreadAllocatedBytes(id) - before;
+		// the measurement itself may allocate a few bytes
+		Assert.assertTrue("Allocated " + allocated + " bytes!", allocated < 1024);
+	}
+
+	private static List<Note> eighths(final int count) {
+		final List<Note> notes = new ArrayList<Note>();
+		for (int i = 0; i < count; i++) {
+			notes.add(new Note("C", "", 5, "i"));
+		}
+		return notes;
+	}
+
+	// ESCA-JAVA0118:
+	private static class FakeLine implements AudioLine {
+
+		/**
+		 * The last written block.
+		 */
+		private final byte[] block = new byte[2 * BLOCK];
+
+		/**
+		 * The number of written bytes.
+		 */
+		private long written;
+
+		/**
+		 * The result of {@link #available()}.
+		 */
+		private int available;
+
+		boolean isSilent() {
+			for (final byte b : block) {
+				if (b != 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public void start() {
+			// nothing to start
+		}
+
+		@Override
+		public void stop() {
+			// nothing to stop
+		}
+
+		@Override
+		public int getBufferSize() {
+			return 4 * block.length;
+		}
+
+		@Override
+		public int available() {
+			return available;
+		}
+
+		@Override
+		public int write(final byte[] data, final int offset, final int length) {
+			System.arraycopy(data, offset, block, 0, length);
+			written += length;
+			return length;
+		}
+
+	}
+
+}
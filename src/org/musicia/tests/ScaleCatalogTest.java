@@ -0,0 +1,101 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.scales.MajorScale;
+import org.musicia.scales.MinorScale;
+import org.musicia.scales.ScaleCatalog;
+
+/**
+ * Testing if the scale catalog delivers the same scales as the scale classes.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class ScaleCatalogTest {
+
+	/**
+	 * unit under test
+	 */
+	private final ScaleCatalog catalog = new ScaleCatalog();
+
+	/**
+	 * The spellings of all root notes.
+	 */
+	private static final String[][] ROOT_NOTES = { { "C", "" }, { "C", "#" }, { "D", "b" }, { "D", "" }, { "D", "#" },
+			{ "E", "b" }, { "E", "" }, { "F", "" }, { "F", "#" }, { "G", "b" }, { "G", "" }, { "G", "#" }, { "A", "b" },
+			{ "A", "" }, { "A", "#" }, { "B", "b" }, { "B", "" } };
+
+	/**
+	 * Every catalog scale equals the scale built on demand.
+	 */
+	@Test
+	public void sameAsScales() {
+		for (final String[] rootNote : ROOT_NOTES) {
+			for (int octave = 0; octave < 9; octave++) {
+				final Note root = new Note(rootNote[0], rootNote[1], octave);
+				Assert.assertEquals("Major scales are not equal!", new MajorScale(root).getScale().toString(), catalog
+						.getMajorScale(root).toString());
+				Assert.assertEquals("Minor scales are not equal!", new MinorScale(root).getScale().toString(), catalog
+						.getMinorScale(root).toString());
+			}
+		}
+	}
+
+	/**
+	 * Scales are shared and immutable.
+	 */
+	@Test
+	public void sharedScales() {
+		final List<Note> scale = catalog.getMajorScale(new Note("G", "b"));
+		Assert.assertSame("Scales are not shared!", scale, catalog.getMajorScale(new Note("G", "b", 5, 1.0)));
+		Assert.assertEquals("Wrong number of notes!", 8, scale.size());
+		Assert.assertEquals("Wrong number of notes!", 8, catalog.getMinorScale(new Note("D", "#")).size());
+		try {
+			scale.clear();
+			Assert.fail("Scale is mutable!");
+		} catch (final UnsupportedOperationException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Scales beyond the supported range are rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void exceedsRange() {
+		catalog.getMajorScale(new Note("G", "", 10));
+	}
+
+}
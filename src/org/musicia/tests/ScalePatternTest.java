@@ -0,0 +1,159 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.scales.MajorScale;
+import org.musicia.scales.MinorScale;
+import org.musicia.scales.ScalePattern;
+import org.musicia.scales.ScalePatternRegistry;
+
+/**
+ * Testing if scales are spelled correctly by their patterns.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class ScalePatternTest {
+
+	/**
+	 * unit under test
+	 */
+	private final ScalePatternRegistry registry = new ScalePatternRegistry();
+
+	/**
+	 * The spellings of all root notes.
+	 */
+	private static final String[][] ROOT_NOTES = { { "C", "" }, { "C", "#" }, { "D", "b" }, { "D", "" }, { "D", "#" },
+			{ "E", "b" }, { "E", "" }, { "F", "" }, { "F", "#" }, { "G", "b" }, { "G", "" }, { "G", "#" }, { "A", "b" },
+			{ "A", "" }, { "A", "#" }, { "B", "b" }, { "B", "" } };
+
+	/**
+	 * The letter stepping spells major and minor scales like the circle of fifth.
+	 */
+	@Test
+	public void sameAsCircleOfFifth() {
+		for (final String[] rootNote : ROOT_NOTES) {
+			final Note root = new Note(rootNote[0], rootNote[1]);
+			Assert.assertEquals("Major scales are not equal!", new MajorScale(root).getScale().toString(), registry
+					.getScale("major", root).getScale().toString());
+			Assert.assertEquals("Minor scales are not equal!", new MinorScale(root).getScale().toString(), registry
+					.getScale("minor", root).getScale().toString());
+		}
+	}
+
+	/**
+	 * D-Dorian scale
+	 */
+	@Test
+	public void dorianScale() {
+		assertScale("[D5q, E5q, F5q, G5q, A5q, B5q, C6q, D6q]", "Dorian", new Note("D"));
+	}
+
+	/**
+	 * Bb-Mixolydian scale
+	 */
+	@Test
+	public void mixolydianScale() {
+		assertScale("[Bb5q, C6q, D6q, Eb6q, F6q, G6q, Ab6q, Bb6q]", "Mixolydian", new Note("B", "b"));
+	}
+
+	/**
+	 * A-Harmonic-Minor scale
+	 */
+	@Test
+	public void harmonicMinorScale() {
+		assertScale("[A5q, B5q, C6q, D6q, E6q, F6q, G#6q, A6q]", "harmonic minor", new Note("A"));
+	}
+
+	/**
+	 * C-Blues scale
+	 */
+	@Test
+	public void bluesScale() {
+		assertScale("[C5q, Eb5q, F5q, Gb5q, G5q, Bb5q, C6q]", "Blues", new Note("C"));
+	}
+
+	/**
+	 * Pentatonic scales
+	 */
+	@Test
+	public void pentatonicScales() {
+		assertScale("[G5q, A5q, B5q, D6q, E6q, G6q]", "Major Pentatonic", new Note("G"));
+		assertScale("[Eb5q, Gb5q, Ab5q, Bb5q, Db6q, Eb6q]", "Minor Pentatonic", new Note("E", "b"));
+	}
+
+	/**
+	 * C-Whole-Tone scale
+	 */
+	@Test
+	public void wholeToneScale() {
+		assertScale("[C5q, D5q, E5q, F#5q, G#5q, A#5q, C6q]", "Whole Tone", new Note("C"));
+	}
+
+	/**
+	 * New patterns can be registered.
+	 */
+	@Test
+	public void registerPattern() {
+		registry.register(new ScalePattern("Phrygian Dominant", 1, 3, 1, 2, 1, 2, 2));
+		assertScale("[E5q, F5q, G#5q, A5q, B5q, C6q, D6q, E6q]", "phrygian dominant", new Note("E"));
+		Assert.assertEquals("Wrong intervals!", Arrays.asList(1, 3, 1, 2, 1, 2, 2), registry.get("Phrygian Dominant")
+				.getIntervals());
+	}
+
+	/**
+	 * Unknown patterns are rejected.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void unknownPattern() {
+		registry.get("Enigmatic");
+	}
+
+	/**
+	 * Assertion test
+	 * 
+	 * @param expected
+	 *            The correct scale.
+	 * @param name
+	 *            The name of the scale pattern.
+	 * @param rootNote
+	 *            The root note of the scale.
+	 */
+	private void assertScale(final String expected, final String name, final Note rootNote) {
+		final List<Note> given = registry.getScale(name, rootNote).getScale();
+		Assert.assertEquals("Notes are not equal!", expected, given.toString());
+	}
+
+}
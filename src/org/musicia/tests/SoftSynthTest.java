@@ -0,0 +1,134 @@
+/** License (BSD Style License):
+ *  Copyright (c) 2011
+ *  Thomas Schulz
+ *  All rights reserved.
+ *
+ *  Redistribution and use in source and binary forms, with or without
+ *  modification, are permitted provided that the following conditions are met:
+ *
+ *  - Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *  - Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *  - The name of the author may not be used to endorse or promote products
+ *    derived from this software without specific prior written permission.
+ *
+ *  THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ *  AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ *  IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ *  ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE
+ *  LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ *  CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ *  SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ *  INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ *  CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ *  ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ *  POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.musicia.tests;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.musicia.notes.model.Note;
+import org.musicia.notes.model.NoteSequence;
+import org.musicia.sound.Envelope;
+import org.musicia.sound.SoftSynth;
+import org.musicia.sound.Wavetable;
+
+/**
+ * Testing the offline synthesis.
+ * 
+ * @author Thomas Schulz
+ * @version 1.0
+ */
+public class SoftSynthTest {
+
+	/**
+	 * unit under test: 8000 Hz, a quarter note lasts half a second
+	 */
+	private final SoftSynth synth = new SoftSynth(8000, 120, Wavetable.SINE, new Envelope(0.01, 0.0, 1.0, 0.05));
+
+	/**
+	 * A5 (440 Hz) as quarter and half note.
+	 */
+	private final List<Note> notes = Arrays.asList(new Note("A", "", 5, "q"), new Note("A", "", 5, "h"));
+
+	/**
+	 * Length, silence and frequency
+	 */
+	@Test
+	public void render() {
+		Assert.assertEquals("Wrong length!", 12000 + 400, synth.getLength(new NoteSequence(notes)));
+		final float[] samples = synth.render(notes);
+		Assert.assertEquals("Wrong length!", 12400, samples.length);
+		// the release of the quarter note overlaps the start of the half note
+		float peak = 0f;
+		for (int i = 4400; i < samples.length; i++) {
+			peak = Math.max(peak, Math.abs(samples[i]));
+		}
+		Assert.assertEquals("Wrong peak!", SoftSynth.DEFAULT_AMPLITUDE, peak, 0.01f);
+		Assert.assertEquals("Not silent at the end!", 0f, samples[samples.length - 1], 0.01f);
+		// one second of the sustained half note has 440 periods
+		int crossings = 0;
+		for (int i = 4001; i < 12000; i++) {
+			if (samples[i - 1] < 0 && samples[i] >= 0) {
+				crossings++;
+			}
+		}
+		Assert.assertEquals("Wrong frequency!", 440, crossings, 1);
+	}
+
+	/**
+	 * Rendering into a preallocated buffer
+	 */
+	@Test
+	public void renderInto() {
+		final NoteSequence sequence = new NoteSequence(notes);
+		final float[] buffer = new float[100 + synth.getLength(sequence)];
+		synth.render(sequence, buffer, 100);
+		Assert.assertEquals("Not silent before the offset!", 0f, buffer[99], 0f);
+		final float[] expected = synth.render(notes);
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals("Wrong sample!", expected[i], buffer[100 + i], 0f);
+		}
+	}
+
+	/**
+	 * Buffer too small
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void bufferTooSmall() {
+		synth.render(new NoteSequence(notes), new float[1000], 0);
+	}
+
+	/**
+	 * 16 bit PCM with clipping
+	 */
+	@Test
+	public void pcm() {
+		final byte[] pcm = new byte[8];
+		SoftSynth.toPcm16(new float[] { 0f, 0.5f, 2f, -2f }, 0, 4, pcm, 0);
+		Assert.assertArrayEquals("Wrong bytes!", new byte[] { 0, 0, 0, 0x40, (byte) 0xFF, 0x7F, 1, (byte) 0x80 },
+				pcm);
+	}
+
+	/**
+	 * WAV header
+	 */
+	@Test
+	public void wav() {
+		final byte[] wav = synth.renderWav(notes);
+		Assert.assertEquals("Wrong size!", 44 + 2 * 12400, wav.length);
+		Assert.assertEquals("Wrong header!", "RIFF", new String(wav, 0, 4));
+		Assert.assertEquals("Wrong header!", "WAVE", new String(wav, 8, 4));
+		Assert.assertEquals("Wrong header!", "data", new String(wav, 36, 4));
+		// sample rate 8000 = 0x1F40
+		Assert.assertEquals("Wrong sample rate!", 0x40, wav[24]);
+		Assert.assertEquals("Wrong sample rate!", 0x1F, wav[25]);
+	}
+
+}